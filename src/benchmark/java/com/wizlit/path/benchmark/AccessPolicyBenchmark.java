@@ -0,0 +1,63 @@
+package com.wizlit.path.benchmark;
+
+import com.wizlit.path.utils.AccessPolicyTable;
+import com.wizlit.path.utils.AccessPolicyTableTest;
+import com.wizlit.path.utils.PrivateAccess;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpMethod;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of the {@code PrivateAccessFilter} access decision:
+ * resolving the handler and reflecting on its annotation, versus the precomputed {@link AccessPolicyTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AccessPolicyBenchmark {
+
+    private static final List<String> SWAGGER_PATHS = List.of(
+            "/swagger-ui", "/swagger-ui/", "/v3/api-docs", "/swagger-resources", "/webjars/"
+    );
+
+    @Param({"GET /api/path", "PUT /api/point/12"})
+    public String route;
+
+    private RequestMappingHandlerMapping mapping;
+    private AccessPolicyTable table;
+    private MockServerWebExchange exchange;
+
+    @Setup
+    public void setUp() {
+        mapping = AccessPolicyTableTest.controllerMapping();
+        table = AccessPolicyTable.from(mapping.getHandlerMethods(), "/actuator");
+        String[] parts = route.split(" ");
+        exchange = MockServerWebExchange.from(MockServerHttpRequest.method(HttpMethod.valueOf(parts[0]), parts[1]));
+    }
+
+    @Benchmark
+    public Boolean handlerLookup() {
+        String path = exchange.getRequest().getURI().getPath();
+        if (SWAGGER_PATHS.stream().anyMatch(path::startsWith)) {
+            return false;
+        }
+        return mapping.getHandler(exchange)
+                .cast(HandlerMethod.class)
+                .map(handlerMethod -> handlerMethod.getMethod().isAnnotationPresent(PrivateAccess.class))
+                .block();
+    }
+
+    @Benchmark
+    public boolean policyTable() {
+        return table.isPrivate(exchange.getRequest().getMethod(), exchange.getRequest().getPath().pathWithinApplication());
+    }
+}
@@ -0,0 +1,61 @@
+package com.wizlit.path.benchmark;
+
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.logging.CallMetricsAspect;
+import com.wizlit.path.repository.PointRepository;
+import com.wizlit.path.service.PointService;
+import com.wizlit.path.service.impl.PointServiceImpl;
+import io.micrometer.prometheusmetrics.PrometheusConfig;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Proxy;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overhead of {@link CallMetricsAspect} on a service call that makes one repository call,
+ * with both layers timed into a Prometheus registry with percentile histograms.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CallMetricsBenchmark {
+
+    @Param({"false", "true"})
+    public boolean timed;
+
+    private PointService service;
+
+    @Setup
+    public void setUp() {
+        // Mockito 호출 비용이 측정을 덮지 않도록 단순 JDK proxy 사용
+        Mono<Point> point = Mono.just(Point.builder().id(1L).title("point").build());
+        PointRepository mock = (PointRepository) Proxy.newProxyInstance(PointRepository.class.getClassLoader(),
+                new Class<?>[]{PointRepository.class}, (proxy, method, args) -> point);
+        if (!timed) {
+            service = new PointServiceImpl(mock, Mockito.mock(TransactionalOperator.class));
+            return;
+        }
+        CallMetricsAspect aspect = new CallMetricsAspect(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT));
+        AspectJProxyFactory repositoryFactory = new AspectJProxyFactory(mock);
+        repositoryFactory.setInterfaces(PointRepository.class);
+        repositoryFactory.addAspect(aspect);
+
+        AspectJProxyFactory serviceFactory = new AspectJProxyFactory(new PointServiceImpl(repositoryFactory.getProxy(), Mockito.mock(TransactionalOperator.class)));
+        serviceFactory.setProxyTargetClass(true);
+        serviceFactory.addAspect(aspect);
+        service = serviceFactory.getProxy();
+    }
+
+    @Benchmark
+    public Point findExistingPoint() {
+        return service.findExistingPoint("path", 1L).block();
+    }
+}
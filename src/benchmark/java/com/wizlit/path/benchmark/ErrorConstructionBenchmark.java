@@ -0,0 +1,53 @@
+package com.wizlit.path.benchmark;
+
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.utils.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cost of building errors on the request path. {@link ApiException} walks the whole stack on construction,
+ * so it is measured below stacks of increasing depth, like the deep Reactor stacks it is thrown from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ErrorConstructionBenchmark {
+
+    @Param({"10", "100"})
+    public int stackDepth;
+
+    private final Throwable duplicateKey = new IllegalStateException("duplicate key value violates unique constraint");
+    private final Throwable timeout = new IllegalStateException("connection timed out");
+
+    @Benchmark
+    public Object apiException() {
+        return below(stackDepth, () -> new ApiException(ErrorCode.POINT_NOT_FOUND, 1L));
+    }
+
+    // 매칭되는 경우: 미리 만든 ApiException 이 그대로 사용됨
+    @Benchmark
+    public Object validatorMatched() {
+        return below(stackDepth, () -> Validator.from(duplicateKey)
+                .containsAllElseError(new ApiException(ErrorCode.POINT_NAME_DUPLICATED, "title"), "unique", "key")
+                .toException());
+    }
+
+    // 매칭되지 않는 경우: 후보 ApiException 과 INTERNAL_SERVER 두 개가 만들어짐
+    @Benchmark
+    public Object validatorUnmatched() {
+        return below(stackDepth, () -> Validator.from(timeout)
+                .containsAllElseError(new ApiException(ErrorCode.POINT_NAME_DUPLICATED, "title"), "unique", "key")
+                .toException());
+    }
+
+    private static Object below(int depth, Supplier<Object> error) {
+        return depth == 0 ? error.get() : below(depth - 1, error);
+    }
+}
@@ -0,0 +1,68 @@
+package com.wizlit.path.benchmark;
+
+import com.wizlit.path.utils.GraphMutationSequencer;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.springframework.transaction.reactive.TransactionCallback;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write throughput through the in-process part of {@link GraphMutationSequencer}.
+ * {@code graphs = 1} puts every writer on the same stripe, {@code graphs = 64} spreads them out.
+ * The advisory lock and transaction round trips are stubbed out; end-to-end write throughput is measured by the load harness.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(8)
+public class GraphMutationSequencerBenchmark {
+
+    @Param({"1", "64"})
+    public int graphs;
+
+    private GraphMutationSequencer sequencer;
+    private final AtomicLong writes = new AtomicLong();
+
+    @State(Scope.Thread)
+    public static class Writer {
+        String graphId;
+
+        @Setup
+        public void setUp(GraphMutationSequencerBenchmark benchmark, ThreadParams thread) {
+            graphId = "graph-" + (thread.getThreadIndex() % benchmark.graphs);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        sequencer = new GraphMutationSequencer(graphId -> Mono.empty(), new TransactionalOperator() {
+            @Override
+            public <T> Mono<T> transactional(Mono<T> mono) {
+                return mono;
+            }
+
+            @Override
+            public <T> Flux<T> execute(TransactionCallback<T> action) {
+                throw new UnsupportedOperationException();
+            }
+        }, 64);
+    }
+
+    @Benchmark
+    public Long sequencedWrite(Writer writer) {
+        return sequencer.sequence(writer.graphId, Mono.fromCallable(writes::incrementAndGet)).block();
+    }
+
+    @Benchmark
+    public Long unsequencedWrite() {
+        return Mono.fromCallable(writes::incrementAndGet).block();
+    }
+}
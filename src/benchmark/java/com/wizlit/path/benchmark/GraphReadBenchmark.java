@@ -0,0 +1,59 @@
+package com.wizlit.path.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.generator.GeneratedGraph;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.model.OutputPathDto;
+import com.wizlit.path.model.OutputPointDto;
+import com.wizlit.path.model.ResponseWithTimestamp;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read path of {@code GET /api/path} after the rows are loaded: DTO conversion and JSON serialization.
+ * Run with {@code -prof gc} for the allocation rate per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public class GraphReadBenchmark {
+
+    @Param({"100", "10000", "1000000"})
+    public int points;
+
+    private GeneratedGraph graph;
+    private ResponseWithTimestamp<OutputPathDto> response;
+    private ObjectMapper mapper;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        graph = GraphGenerator.generate(GraphSpec.ofPoints(points));
+        response = new ResponseWithTimestamp<>(OutputPathDto.fromEdgesAndPoints(graph.points(), graph.edges()));
+        // same defaults as the ObjectMapper Spring Boot configures for WebFlux
+        mapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public OutputPathDto fromEdgesAndPoints() {
+        return OutputPathDto.fromEdgesAndPoints(graph.points(), graph.edges());
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public OutputPointDto fromPoint() {
+        cursor = cursor + 1 == points ? 0 : cursor + 1;
+        return OutputPointDto.fromPoint(graph.points().get(cursor));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws Exception {
+        return mapper.writeValueAsBytes(response);
+    }
+}
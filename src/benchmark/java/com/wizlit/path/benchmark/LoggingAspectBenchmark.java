@@ -0,0 +1,94 @@
+package com.wizlit.path.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.logging.LogSampler;
+import com.wizlit.path.logging.ServiceLoggingAspect;
+import com.wizlit.path.repository.PointRepository;
+import com.wizlit.path.service.PointService;
+import com.wizlit.path.service.impl.PointServiceImpl;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * Overhead of {@link ServiceLoggingAspect} on a Flux-returning service call: no aspect, aspect with the call not
+ * sampled, summary logging, and the previous per-element payload logging. Log events are formatted into a
+ * discarding stream so that encoding is part of the cost.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingAspectBenchmark {
+
+    @Param({"none", "unsampled", "summary", "payloads"})
+    public String logging;
+
+    @Param({"100"})
+    public int points;
+
+    private PointService service;
+
+    @Setup
+    public void setUp() {
+        discardLogs();
+
+        List<Point> all = LongStream.range(0, points)
+                .mapToObj(id -> Point.builder().id(id).title("point " + id).objective("objective").build())
+                .toList();
+        PointRepository repository = Mockito.mock(PointRepository.class);
+        Mockito.when(repository.findAllByGraphId("path")).thenAnswer(invocation -> Flux.fromIterable(all));
+
+        PointService target = new PointServiceImpl(repository, Mockito.mock(TransactionalOperator.class));
+        if ("none".equals(logging)) {
+            service = target;
+            return;
+        }
+        LogSampler sampler = new LogSampler("unsampled".equals(logging) ? 0.0 : 1.0, "", "payloads".equals(logging));
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceLoggingAspect(sampler));
+        service = factory.getProxy();
+    }
+
+    @Benchmark
+    public List<Point> getAllPoints() {
+        return service.getAllPoints("path").collectList().block();
+    }
+
+    private static void discardLogs() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d %5p [%15.15t] %-40.40logger{39} : [%X{requestId}] %m%n");
+        encoder.start();
+
+        OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+        appender.setContext(context);
+        appender.setEncoder(encoder);
+        appender.setOutputStream(OutputStream.nullOutputStream());
+        appender.start();
+
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        root.detachAndStopAllAppenders();
+        root.addAppender(appender);
+        root.setLevel(Level.INFO);
+        context.getLogger(ServiceLoggingAspect.class).setLevel(Level.DEBUG);
+    }
+}
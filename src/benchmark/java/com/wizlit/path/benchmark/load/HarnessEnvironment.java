@@ -0,0 +1,133 @@
+package com.wizlit.path.benchmark.load;
+
+import com.wizlit.path.PathApplication;
+import com.wizlit.path.generator.GeneratedGraph;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The running application of a harness: Postgres (embedded unless a url is given), {@link LocalGoogleStub}
+ * signing in {@link #TOKEN}, and the application on a random port.
+ */
+public final class HarnessEnvironment implements AutoCloseable {
+
+    public static final String TOKEN = "ya29.load-harness";
+
+    private final EmbeddedPostgres embedded;
+    private final LocalGoogleStub google;
+    private final ConfigurableApplicationContext app;
+    private final String jdbcUrl;
+    private final String dbUser;
+    private final String dbPassword;
+
+    private HarnessEnvironment(EmbeddedPostgres embedded, LocalGoogleStub google, ConfigurableApplicationContext app,
+                               String jdbcUrl, String dbUser, String dbPassword) {
+        this.embedded = embedded;
+        this.google = google;
+        this.app = app;
+        this.jdbcUrl = jdbcUrl;
+        this.dbUser = dbUser;
+        this.dbPassword = dbPassword;
+    }
+
+    /**
+     * @param dbUrl           jdbc url of an existing Postgres, or null to start an embedded one
+     * @param poolSize        R2DBC pool size of the application
+     * @param applicationArgs application arguments overriding the harness defaults
+     */
+    public static HarnessEnvironment start(String dbUrl, String dbUser, String dbPassword, int poolSize,
+                                           List<String> applicationArgs) throws IOException {
+        // devtools 가 classpath 에 있으면 main 을 다시 실행하므로 끔
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        EmbeddedPostgres embedded = dbUrl == null ? EmbeddedPostgres.builder().start() : null;
+        String jdbcUrl = embedded == null ? dbUrl : embedded.getJdbcUrl(dbUser, "postgres");
+        LocalGoogleStub google = null;
+        try {
+            google = new LocalGoogleStub().user(TOKEN, "load@wizlit.com");
+            String r2dbcUrl = jdbcUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", "");
+            List<String> args = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.r2dbc.url=" + r2dbcUrl,
+                    "--spring.r2dbc.username=" + dbUser,
+                    "--spring.r2dbc.password=" + dbPassword,
+                    "--spring.r2dbc.pool.max-size=" + poolSize,
+                    "--spring.flyway.url=" + jdbcUrl,
+                    "--spring.flyway.user=" + dbUser,
+                    "--spring.flyway.password=" + dbPassword,
+                    "--app.google.oauthUrl=" + google.oauthUrl(),
+                    "--app.google.driveUrl=" + google.driveUrl(),
+                    "--app.privateAccess.jwksUri=" + google.oauthUrl() + "/certs",
+                    "--app.privateAccess.jwtAudience=path-harness",
+                    "--app.logging.sampleRate=0",
+                    "--logging.level.root=WARN"
+            ));
+            // 뒤에 오는 값이 우선하므로 사용자가 넘긴 설정이 기본값을 덮어씀
+            args.addAll(applicationArgs);
+            ConfigurableApplicationContext app = SpringApplication.run(PathApplication.class, args.toArray(String[]::new));
+            return new HarnessEnvironment(embedded, google, app, jdbcUrl, dbUser, dbPassword);
+        } catch (RuntimeException e) {
+            if (google != null) {
+                google.close();
+            }
+            if (embedded != null) {
+                embedded.close();
+            }
+            throw e;
+        }
+    }
+
+    public int port() {
+        return ((WebServerApplicationContext) app).getWebServer().getPort();
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, dbUser, dbPassword);
+    }
+
+    // replaces the graph in the database with a generated one
+    public GeneratedGraph seed(GraphSpec spec) throws SQLException {
+        GeneratedGraph graph = GraphGenerator.generate(spec);
+        try (Connection connection = connect()) {
+            GraphLoader.load(connection, graph, true);
+        }
+        return graph;
+    }
+
+    public WebClient client(String name, int maxConnections) {
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + port())
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(
+                        ConnectionProvider.builder(name).maxConnections(maxConnections).build())))
+                .codecs(codecs -> codecs.defaultCodecs().maxInMemorySize(-1))
+                .build();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            app.close();
+            google.close();
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+}
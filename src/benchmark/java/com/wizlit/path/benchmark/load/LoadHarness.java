@@ -0,0 +1,70 @@
+package com.wizlit.path.benchmark.load;
+
+import com.wizlit.path.generator.GeneratedGraph;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.temp.LocalGoogleStub;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Boots the application against an in-process Postgres and {@link LocalGoogleStub}, seeds a synthetic graph
+ * and reports latency percentiles of a mixed workload.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.wizlit.path.benchmark.load.LoadHarness \
+ *     -Dbenchmark.args="--points=10000 --concurrency=32 --duration=30s --mix=get:70,changed:20,put:7,post:3"
+ * </pre>
+ * Postgres refuses to run as root; there, start one separately and pass {@code --db-url=jdbc:postgresql://...}.
+ */
+public class LoadHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        PrintStream out = System.out;
+
+        try (HarnessEnvironment environment = HarnessEnvironment.start(options.dbUrl(), options.dbUser(), options.dbPassword(),
+                Math.max(10, options.concurrency()), options.applicationArgs())) {
+            long seedStart = System.nanoTime();
+            GeneratedGraph graph = environment.seed(GraphSpec.ofPoints(options.points())
+                    .withWidth(options.width())
+                    .withSeed(options.seed()));
+            out.printf(Locale.ROOT, "Seeded %d points and %d edges in %d ms%n",
+                    graph.points().size(), graph.edges().size(), (System.nanoTime() - seedStart) / 1_000_000);
+
+            Workload workload = new Workload(environment.client("load", options.concurrency()), options, HarnessEnvironment.TOKEN);
+
+            out.printf(Locale.ROOT, "Warming up for %s with %d concurrent requests%n", options.warmup(), options.concurrency());
+            workload.run(options.warmup());
+            out.printf(Locale.ROOT, "Measuring for %s%n", options.duration());
+            report(out, options, workload.run(options.duration()));
+        }
+    }
+
+    private static void report(PrintStream out, LoadOptions options, Map<Operation, Workload.Result> results) {
+        double seconds = options.duration().toMillis() / 1000.0;
+        out.printf(Locale.ROOT, "%-8s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "op", "requests", "req/s", "failed", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        results.forEach((operation, result) -> {
+            Histogram latencies = result.latencies();
+            if (latencies.getTotalCount() == 0) {
+                return;
+            }
+            out.printf(Locale.ROOT, "%-8s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.name().toLowerCase(Locale.ROOT),
+                    latencies.getTotalCount(),
+                    latencies.getTotalCount() / seconds,
+                    result.failures(),
+                    millis(latencies.getValueAtPercentile(50)),
+                    millis(latencies.getValueAtPercentile(90)),
+                    millis(latencies.getValueAtPercentile(99)),
+                    millis(latencies.getValueAtPercentile(99.9)),
+                    millis(latencies.getMaxValue()));
+        });
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,87 @@
+package com.wizlit.path.benchmark.load;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of the load harness, given as {@code --name=value}. Arguments starting with
+ * {@code --spring.}, {@code --app.}, {@code --logging.} or {@code --management.} are passed on to the application.
+ *
+ * @param points      points seeded before the run
+ * @param width       points per layer of the seeded graph
+ * @param seed        seed of the generated graph
+ * @param concurrency requests in flight
+ * @param warmup      run time discarded before measuring
+ * @param duration    measured run time
+ * @param mix         relative weight of each operation
+ * @param dbUrl       jdbc url of an existing Postgres to use instead of the embedded one
+ */
+public record LoadOptions(
+        int points,
+        int width,
+        long seed,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<Operation, Integer> mix,
+        String dbUrl,
+        String dbUser,
+        String dbPassword,
+        List<String> applicationArgs
+) {
+
+    private static final List<String> APPLICATION_PREFIXES = List.of("--spring.", "--app.", "--logging.", "--management.");
+
+    public static LoadOptions parse(String... args) {
+        List<String> applicationArgs = new ArrayList<>();
+        Map<String, String> options = split(args, applicationArgs);
+
+        LoadOptions parsed = new LoadOptions(
+                Integer.parseInt(options.getOrDefault("points", "10000")),
+                Integer.parseInt(options.getOrDefault("width", "100")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Duration.parse("PT" + options.getOrDefault("warmup", "10s")),
+                Duration.parse("PT" + options.getOrDefault("duration", "30s")),
+                mix(options.getOrDefault("mix", "get:70,changed:20,put:7,post:3")),
+                options.get("db-url"),
+                options.getOrDefault("db-user", "postgres"),
+                options.getOrDefault("db-password", "postgres"),
+                applicationArgs
+        );
+        if (parsed.points() <= parsed.width()) {
+            throw new IllegalArgumentException("--points must be larger than --width");
+        }
+        return parsed;
+    }
+
+    /**
+     * Harness options by name; application arguments are moved to {@code applicationArgs}.
+     */
+    public static Map<String, String> split(String[] args, List<String> applicationArgs) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (APPLICATION_PREFIXES.stream().anyMatch(arg::startsWith)) {
+                applicationArgs.add(arg);
+            } else if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            } else {
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected --name=value");
+            }
+        }
+        return options;
+    }
+
+    // "get:70,put:10" 형식
+    private static Map<Operation, Integer> mix(String value) {
+        Map<Operation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
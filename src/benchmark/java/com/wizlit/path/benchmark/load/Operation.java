@@ -0,0 +1,15 @@
+package com.wizlit.path.benchmark.load;
+
+/**
+ * Requests the harness sends.
+ */
+public enum Operation {
+    /** {@code GET /api/path}: the whole graph */
+    GET,
+    /** {@code GET /api/path/changed}: polling for updates */
+    CHANGED,
+    /** {@code PUT /api/path}: connect a point to one in a later layer */
+    PUT,
+    /** {@code POST /api/point}: new point attached to an existing one, with a Drive document */
+    POST
+}
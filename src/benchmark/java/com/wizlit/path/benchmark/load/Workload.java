@@ -0,0 +1,118 @@
+package com.wizlit.path.benchmark.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Closed-loop mixed workload: {@code concurrency} virtual users each send one request at a time,
+ * picking the operation by weight, and record the latency of every response.
+ */
+public class Workload {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final WebClient client;
+    private final LoadOptions options;
+    private final String token;
+    private final Operation[] weighted;
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failures = new EnumMap<>(Operation.class);
+    private final AtomicLong titles = new AtomicLong();
+
+    public Workload(WebClient client, LoadOptions options, String token) {
+        this.client = client;
+        this.options = options;
+        this.token = token;
+        this.weighted = options.mix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Operation[]::new);
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_LATENCY, 3));
+            failures.put(operation, new LongAdder());
+        }
+    }
+
+    /**
+     * Runs the workload for the given time and returns the latency histogram of each operation.
+     */
+    public Map<Operation, Result> run(Duration duration) {
+        recorders.values().forEach(Recorder::reset);
+        failures.values().forEach(LongAdder::reset);
+        long end = System.nanoTime() + duration.toNanos();
+
+        Flux.range(0, options.concurrency())
+                .flatMap(user -> Mono.defer(this::next)
+                        .repeat(() -> System.nanoTime() < end), options.concurrency())
+                .blockLast();
+
+        Map<Operation, Result> results = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> results.put(operation,
+                new Result(recorder.getIntervalHistogram(), failures.get(operation).sum())));
+        return results;
+    }
+
+    public record Result(Histogram latencies, long failures) {}
+
+    private Mono<Integer> next() {
+        Operation operation = weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+        long start = System.nanoTime();
+        return send(operation)
+                .onErrorReturn(-1)
+                .doOnNext(status -> {
+                    recorders.get(operation).recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY));
+                    if (status < 200 || status >= 300) {
+                        failures.get(operation).increment();
+                    }
+                });
+    }
+
+    private Mono<Integer> send(Operation operation) {
+        SplittableRandom random = new SplittableRandom(ThreadLocalRandom.current().nextLong());
+        return switch (operation) {
+            case GET -> status(client.get().uri("/api/path"));
+            case CHANGED -> status(client.get().uri(uri -> uri.path("/api/path/changed")
+                    .queryParam("timestamp", System.currentTimeMillis() - 1_000)
+                    .build()));
+            case PUT -> {
+                // 항상 다음 층 이후로 연결해 backward path 는 생기지 않음 (이미 있는 edge 는 400)
+                long origin = 1 + random.nextInt(options.points() - options.width());
+                long destination = Math.min(options.points(), origin + options.width() * (1 + random.nextInt(2)) + random.nextInt(options.width()));
+                yield status(client.put().uri(uri -> uri.path("/api/path")
+                                .queryParam("origin", origin)
+                                .queryParam("destination", destination)
+                                .build())
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+            }
+            case POST -> {
+                long origin = 1 + random.nextInt(options.points());
+                yield status(client.post().uri("/api/point")
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .bodyValue(Map.of(
+                                "title", "load " + titles.incrementAndGet() + " " + System.nanoTime(),
+                                "objective", "created by the load harness",
+                                "origin", String.valueOf(origin))));
+            }
+        };
+    }
+
+    private static Mono<Integer> status(WebClient.RequestHeadersSpec<?> request) {
+        return request.exchangeToMono(response -> response.releaseBody()
+                .thenReturn(response.statusCode().value()));
+    }
+}
@@ -0,0 +1,82 @@
+package com.wizlit.path.benchmark.persistence;
+
+import com.wizlit.path.benchmark.load.HarnessEnvironment;
+import com.wizlit.path.benchmark.load.LoadOptions;
+import com.wizlit.path.benchmark.load.Operation;
+import com.wizlit.path.benchmark.load.Workload;
+import com.wizlit.path.generator.GraphSpec;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Runs the {@link com.wizlit.path.benchmark.load.LoadHarness} workload once per persistence implementation of
+ * the services, each against a freshly started application and seeded graph, and prints throughput and latency
+ * side by side.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.wizlit.path.benchmark.persistence.PersistenceHarness \
+ *     -Dbenchmark.args="--persistence=r2dbc,jdbc --points=10000 --concurrency=32 --duration=30s"
+ * </pre>
+ * {@code jdbc} runs its calls on the {@code blocking} scheduler, one thread per JDBC connection by default (see
+ * {@code JdbcSessions}); pass the same pool size to both with {@code --spring.r2dbc.pool.max-size=}, which the JDBC
+ * pool and the blocking scheduler follow.
+ */
+public class PersistenceHarness {
+
+    public static void main(String[] args) throws Exception {
+        LoadOptions options = LoadOptions.parse(args);
+        List<String> persistences = Arrays.stream(LoadOptions.split(args, new ArrayList<>())
+                        .getOrDefault("persistence", "r2dbc,jdbc")
+                        .split(","))
+                .map(String::trim)
+                .toList();
+        PrintStream out = System.out;
+
+        List<String> rows = new ArrayList<>();
+        for (String persistence : persistences) {
+            List<String> applicationArgs = new ArrayList<>(options.applicationArgs());
+            if (persistence.equals("jdbc")) {
+                applicationArgs.add("--spring.profiles.active=jdbc");
+            }
+            try (HarnessEnvironment environment = HarnessEnvironment.start(options.dbUrl(), options.dbUser(), options.dbPassword(),
+                    Math.max(10, options.concurrency()), applicationArgs)) {
+                environment.seed(GraphSpec.ofPoints(options.points()).withWidth(options.width()).withSeed(options.seed()));
+                Workload workload = new Workload(environment.client(persistence, options.concurrency()), options, HarnessEnvironment.TOKEN);
+
+                out.printf(Locale.ROOT, "%s: warming up for %s, measuring for %s%n", persistence, options.warmup(), options.duration());
+                workload.run(options.warmup());
+                Map<Operation, Workload.Result> results = workload.run(options.duration());
+                double seconds = options.duration().toMillis() / 1000.0;
+                results.forEach((operation, result) -> {
+                    Histogram latencies = result.latencies();
+                    if (latencies.getTotalCount() == 0) {
+                        return;
+                    }
+                    rows.add(String.format(Locale.ROOT, "%-8s %-8s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f",
+                            persistence,
+                            operation.name().toLowerCase(Locale.ROOT),
+                            latencies.getTotalCount(),
+                            latencies.getTotalCount() / seconds,
+                            result.failures(),
+                            millis(latencies.getValueAtPercentile(50)),
+                            millis(latencies.getValueAtPercentile(90)),
+                            millis(latencies.getValueAtPercentile(99)),
+                            millis(latencies.getMaxValue())));
+                });
+            }
+        }
+
+        out.printf(Locale.ROOT, "%-8s %-8s %9s %9s %8s %9s %9s %9s %9s%n",
+                "services", "op", "requests", "req/s", "failed", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        rows.forEach(out::println);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
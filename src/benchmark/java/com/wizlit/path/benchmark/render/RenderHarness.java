@@ -0,0 +1,129 @@
+package com.wizlit.path.benchmark.render;
+
+import com.wizlit.path.benchmark.load.HarnessEnvironment;
+import com.wizlit.path.generator.GraphSpec;
+import org.HdrHistogram.Histogram;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the {@code app.graph.render} modes of {@code GET /api/path}: entities serialized by the application,
+ * JSON built by the database on every read, and JSON stored per graph version.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.wizlit.path.benchmark.render.RenderHarness \
+ *     -Dbenchmark.args="--points=10000 --requests=500 --concurrency=8"
+ * </pre>
+ * CPU time, allocation and GC are those of the whole process (application and client) while the measured requests
+ * run; the client only counts response bytes, so differences come from the application.
+ * Run with the same {@code -Xmx} as production to compare heap pressure.
+ */
+public class RenderHarness {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    public static void main(String[] args) throws Exception {
+        RenderOptions options = RenderOptions.parse(args);
+        PrintStream out = System.out;
+
+        List<String> rows = new ArrayList<>();
+        for (String mode : options.modes()) {
+            List<String> applicationArgs = new ArrayList<>(options.applicationArgs());
+            applicationArgs.add("--app.graph.render=" + mode);
+            try (HarnessEnvironment environment = HarnessEnvironment.start(options.dbUrl(), options.dbUser(), options.dbPassword(),
+                    Math.max(10, options.concurrency()), applicationArgs)) {
+                environment.seed(GraphSpec.ofPoints(options.points()).withWidth(options.width()));
+                WebClient client = environment.client("render", options.concurrency());
+
+                out.printf(Locale.ROOT, "%s: warming up with %d requests%n", mode, options.warmup());
+                run(client, options.warmup(), options.concurrency());
+                System.gc();
+
+                Usage before = Usage.now();
+                Run run = run(client, options.requests(), options.concurrency());
+                Usage used = Usage.now().minus(before);
+                Histogram latencies = run.latencies();
+                long requests = latencies.getTotalCount();
+                rows.add(String.format(Locale.ROOT, "%-12s %9d %9d %10.0f %11.1f %6d %8d %9.2f %9.2f %9.2f",
+                        mode, requests, run.bytes() / Math.max(1, requests),
+                        used.cpuNanos() / 1_000.0 / requests,
+                        used.allocatedBytes() / 1024.0 / requests,
+                        used.gcCount(), used.gcMillis(),
+                        millis(latencies.getValueAtPercentile(50)),
+                        millis(latencies.getValueAtPercentile(99)),
+                        millis(latencies.getMaxValue())));
+            }
+        }
+
+        out.printf(Locale.ROOT, "%-12s %9s %9s %10s %11s %6s %8s %9s %9s %9s%n",
+                "mode", "requests", "bytes", "cpu us/req", "alloc KB/req", "gcs", "gc ms", "p50 ms", "p99 ms", "max ms");
+        rows.forEach(out::println);
+    }
+
+    private record Run(Histogram latencies, long bytes) {}
+
+    private static Run run(WebClient client, int requests, int concurrency) {
+        Histogram latencies = new Histogram(MAX_LATENCY, 3);
+        AtomicLong bytes = new AtomicLong();
+        Flux.range(0, requests)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return client.get().uri("/api/path")
+                            .exchangeToMono(response -> response.bodyToFlux(DataBuffer.class)
+                                    .doOnNext(buffer -> {
+                                        bytes.addAndGet(buffer.readableByteCount());
+                                        DataBufferUtils.release(buffer);
+                                    })
+                                    .then(Mono.just(response.statusCode().value())))
+                            .doOnNext(status -> {
+                                if (status != 200) {
+                                    throw new IllegalStateException("GET /api/path answered " + status);
+                                }
+                                synchronized (latencies) {
+                                    latencies.recordValue(Math.min(System.nanoTime() - start, MAX_LATENCY));
+                                }
+                            });
+                }, concurrency)
+                .blockLast();
+        return new Run(latencies, bytes.get());
+    }
+
+    private record Usage(long cpuNanos, long allocatedBytes, long gcCount, long gcMillis) {
+
+        static Usage now() {
+            var os = (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+            var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long allocated = 0;
+            for (long bytes : threads.getThreadAllocatedBytes(threads.getAllThreadIds())) {
+                allocated += Math.max(0, bytes);
+            }
+            long gcCount = 0;
+            long gcMillis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCount += gc.getCollectionCount();
+                gcMillis += gc.getCollectionTime();
+            }
+            return new Usage(os.getProcessCpuTime(), allocated, gcCount, gcMillis);
+        }
+
+        Usage minus(Usage other) {
+            return new Usage(cpuNanos - other.cpuNanos, allocatedBytes - other.allocatedBytes,
+                    gcCount - other.gcCount, gcMillis - other.gcMillis);
+        }
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,53 @@
+package com.wizlit.path.benchmark.render;
+
+import com.wizlit.path.benchmark.load.LoadOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Options of the render harness, given as {@code --name=value}; application arguments are passed on as for
+ * {@link LoadOptions}.
+ *
+ * @param modes       values of {@code app.graph.render} to compare, each against a freshly started application
+ * @param points      points seeded before each run
+ * @param width       points per layer of the seeded graph
+ * @param concurrency {@code GET /api/path} requests in flight
+ * @param warmup      requests sent before measuring
+ * @param requests    requests measured
+ * @param dbUrl       jdbc url of an existing Postgres to use instead of the embedded one
+ */
+public record RenderOptions(
+        List<String> modes,
+        int points,
+        int width,
+        int concurrency,
+        int warmup,
+        int requests,
+        String dbUrl,
+        String dbUser,
+        String dbPassword,
+        List<String> applicationArgs
+) {
+
+    public static RenderOptions parse(String... args) {
+        List<String> applicationArgs = new ArrayList<>();
+        var options = LoadOptions.split(args, applicationArgs);
+
+        return new RenderOptions(
+                Arrays.stream(options.getOrDefault("modes", "application,database,snapshot").split(","))
+                        .map(String::trim)
+                        .toList(),
+                Integer.parseInt(options.getOrDefault("points", "10000")),
+                Integer.parseInt(options.getOrDefault("width", "50")),
+                Integer.parseInt(options.getOrDefault("concurrency", "8")),
+                Integer.parseInt(options.getOrDefault("warmup", "200")),
+                Integer.parseInt(options.getOrDefault("requests", "500")),
+                options.get("db-url"),
+                options.getOrDefault("db-user", "postgres"),
+                options.getOrDefault("db-password", "postgres"),
+                applicationArgs
+        );
+    }
+}
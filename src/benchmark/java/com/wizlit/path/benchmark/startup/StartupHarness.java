@@ -0,0 +1,183 @@
+package com.wizlit.path.benchmark.startup;
+
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to ready of the packaged application: from starting the JVM until {@code /actuator/health} answers 200,
+ * for each way of starting it. The jar is unpacked once ({@code -Djarmode=tools extract}), as CDS needs, and
+ * the CDS archive comes from a training run that stops after the context refresh.
+ * <pre>
+ * mvn -Pfast-startup package -DskipTests
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.wizlit.path.benchmark.startup.StartupHarness \
+ *     -Dbenchmark.args="--jar=target/path-alpha-0.0.13.jar --modes=jar,aot,cds,aot+cds --runs=5"
+ * </pre>
+ * The application runs with the JVM running the harness.
+ */
+public class StartupHarness {
+
+    private static final long TIMEOUT = TimeUnit.MINUTES.toNanos(2);
+
+    public static void main(String[] args) throws Exception {
+        StartupOptions options = StartupOptions.parse(args);
+        if (options.jar() == null) {
+            throw new IllegalArgumentException("--jar is required");
+        }
+        PrintStream out = System.out;
+
+        Path work = Files.createTempDirectory("startup-harness");
+        Path jar = extract(Path.of(options.jar()).toAbsolutePath(), work);
+        EmbeddedPostgres embedded = options.dbUrl() == null ? EmbeddedPostgres.builder().start() : null;
+        String jdbcUrl = embedded == null ? options.dbUrl() : embedded.getJdbcUrl(options.dbUser(), "postgres");
+        try (LocalGoogleStub google = new LocalGoogleStub()) {
+            List<String> applicationArgs = new ArrayList<>(List.of(
+                    "--spring.r2dbc.url=" + jdbcUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", ""),
+                    "--spring.r2dbc.username=" + options.dbUser(),
+                    "--spring.r2dbc.password=" + options.dbPassword(),
+                    "--spring.flyway.url=" + jdbcUrl,
+                    "--spring.flyway.user=" + options.dbUser(),
+                    "--spring.flyway.password=" + options.dbPassword(),
+                    "--app.google.oauthUrl=" + google.oauthUrl(),
+                    "--app.google.driveUrl=" + google.driveUrl(),
+                    "--app.privateAccess.jwksUri=" + google.oauthUrl() + "/certs",
+                    "--app.privateAccess.jwtAudience=path-harness",
+                    "--logging.level.root=WARN"
+            ));
+            applicationArgs.addAll(options.applicationArgs());
+
+            // 스키마를 먼저 만들어 둠: 측정에서 migrate 는 적용할 것이 없는 확인만
+            start(jar, List.of(), applicationArgs, true, work.resolve("migrate.log"));
+
+            List<String> rows = new ArrayList<>();
+            for (String mode : options.modes()) {
+                List<String> jvmArgs = jvmArgs(mode, jar, work, applicationArgs);
+                start(jar, jvmArgs, applicationArgs, options.migrate(), work.resolve(mode + ".log"));
+                long[] millis = new long[options.runs()];
+                for (int run = 0; run < options.runs(); run++) {
+                    millis[run] = start(jar, jvmArgs, applicationArgs, options.migrate(), work.resolve(mode + ".log"));
+                    out.printf(Locale.ROOT, "%s: ready in %d ms%n", mode, millis[run]);
+                }
+                Arrays.sort(millis);
+                rows.add(String.format(Locale.ROOT, "%-10s %6d %9d %9d %9d",
+                        mode, millis.length, millis[0], millis[millis.length / 2], millis[millis.length - 1]));
+            }
+
+            out.printf(Locale.ROOT, "%-10s %6s %9s %9s %9s%n", "mode", "runs", "min ms", "median ms", "max ms");
+            rows.forEach(out::println);
+        } finally {
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    private static Path extract(Path jar, Path work) throws Exception {
+        Path destination = work.resolve("application");
+        run(List.of(java(), "-Djarmode=tools", "-jar", jar.toString(), "extract", "--destination", destination.toString()),
+                work.resolve("extract.log"));
+        return destination.resolve(jar.getFileName());
+    }
+
+    private static List<String> jvmArgs(String mode, Path jar, Path work, List<String> applicationArgs) throws Exception {
+        List<String> jvmArgs = new ArrayList<>();
+        if (mode.contains("aot")) {
+            jvmArgs.add("-Dspring.aot.enabled=true");
+        }
+        if (mode.contains("cds")) {
+            Path archive = work.resolve(mode.replace('+', '-') + ".jsa");
+            List<String> training = new ArrayList<>(List.of(java(), "-XX:ArchiveClassesAtExit=" + archive,
+                    "-Dspring.context.exit=onRefresh"));
+            training.addAll(jvmArgs);
+            training.addAll(List.of("-jar", jar.toString(), "--app.flyway.migrateOnBoot=false"));
+            training.addAll(applicationArgs);
+            run(training, work.resolve(mode + "-training.log"));
+            jvmArgs.add("-XX:SharedArchiveFile=" + archive);
+        } else if (!mode.equals("jar") && !mode.equals("aot")) {
+            throw new IllegalArgumentException("Unknown mode " + mode + ", expected jar, aot, cds or aot+cds");
+        }
+        return jvmArgs;
+    }
+
+    // milliseconds from starting the JVM until the health endpoint answers 200; the application is then stopped
+    private static long start(Path jar, List<String> jvmArgs, List<String> applicationArgs, boolean migrate, Path log)
+            throws Exception {
+        int port = freePort();
+        List<String> command = new ArrayList<>(List.of(java()));
+        command.addAll(jvmArgs);
+        command.addAll(List.of("-jar", jar.toString(), "--server.port=" + port, "--app.flyway.migrateOnBoot=" + migrate));
+        command.addAll(applicationArgs);
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(jar.getParent().toFile())
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            URI health = URI.create("http://localhost:" + port + "/actuator/health");
+            while (!ready(health)) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue() + ", see " + log);
+                }
+                if (System.nanoTime() - start > TIMEOUT) {
+                    throw new IllegalStateException("Application not ready within 2 minutes, see " + log);
+                }
+                Thread.sleep(5);
+            }
+            return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static boolean ready(URI health) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) health.toURL().openConnection();
+            connection.setConnectTimeout(100);
+            connection.setReadTimeout(1000);
+            try {
+                return connection.getResponseCode() == 200;
+            } finally {
+                connection.disconnect();
+            }
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void run(List<String> command, Path log) throws Exception {
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException(String.join(" ", command) + " failed, see " + log);
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+}
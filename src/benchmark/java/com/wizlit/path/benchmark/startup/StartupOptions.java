@@ -0,0 +1,47 @@
+package com.wizlit.path.benchmark.startup;
+
+import com.wizlit.path.benchmark.load.LoadOptions;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Options of the startup harness, given as {@code --name=value}; application arguments are passed on as for
+ * {@link LoadOptions}.
+ *
+ * @param jar     application jar, built with {@code -Pfast-startup} for the {@code aot} modes
+ * @param modes   how to start it: {@code jar}, {@code aot}, {@code cds}, {@code aot+cds}
+ * @param runs    measured starts per mode, after one unmeasured start
+ * @param migrate whether the measured starts run Flyway ({@code app.flyway.migrateOnBoot})
+ * @param dbUrl   jdbc url of an existing Postgres to use instead of the embedded one
+ */
+public record StartupOptions(
+        String jar,
+        List<String> modes,
+        int runs,
+        boolean migrate,
+        String dbUrl,
+        String dbUser,
+        String dbPassword,
+        List<String> applicationArgs
+) {
+
+    public static StartupOptions parse(String... args) {
+        List<String> applicationArgs = new ArrayList<>();
+        var options = LoadOptions.split(args, applicationArgs);
+
+        return new StartupOptions(
+                options.get("jar"),
+                Arrays.stream(options.getOrDefault("modes", "jar,aot,cds,aot+cds").split(","))
+                        .map(String::trim)
+                        .toList(),
+                Integer.parseInt(options.getOrDefault("runs", "5")),
+                Boolean.parseBoolean(options.getOrDefault("migrate", "true")),
+                options.get("db-url"),
+                options.getOrDefault("db-user", "postgres"),
+                options.getOrDefault("db-password", "postgres"),
+                applicationArgs
+        );
+    }
+}
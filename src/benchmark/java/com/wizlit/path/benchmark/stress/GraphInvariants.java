@@ -0,0 +1,127 @@
+package com.wizlit.path.benchmark.stress;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Structural invariants of the stored graph: no cycle of any length, no edge to a missing point and no edge stored twice.
+ * The schema enforces the last two; they are checked anyway, since tuning may change the schema.
+ */
+final class GraphInvariants {
+
+    private GraphInvariants() {
+    }
+
+    /**
+     * Returns a description of every violation, empty when the graph is valid.
+     */
+    static List<String> check(Connection connection) throws SQLException {
+        List<String> violations = new ArrayList<>();
+        long dangling = count(connection, "SELECT count(*) FROM edge e " +
+                "LEFT JOIN point o ON o.id = e.origin_point LEFT JOIN point d ON d.id = e.destination_point " +
+                "WHERE o.id IS NULL OR d.id IS NULL");
+        if (dangling > 0) {
+            violations.add(dangling + " edges reference a missing point");
+        }
+        long duplicated = count(connection, "SELECT count(*) FROM (SELECT 1 FROM edge " +
+                "GROUP BY origin_point, destination_point HAVING count(*) > 1) d");
+        if (duplicated > 0) {
+            violations.add(duplicated + " point pairs have more than one edge");
+        }
+        List<Long> cycle = findCycle(edges(connection));
+        if (!cycle.isEmpty()) {
+            violations.add("cycle of " + (cycle.size() - 1) + " edges through points " + cycle);
+        }
+        return violations;
+    }
+
+    static long version(Connection connection, String graphId) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT version FROM last_update WHERE id = '" + graphId + "'")) {
+            return result.next() ? result.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * Kahn's algorithm: points left after repeatedly removing points without incoming edges all lie on or behind
+     * a cycle. Walking incoming edges backwards from one of them must then revisit a point.
+     */
+    static List<Long> findCycle(Map<Long, List<Long>> outgoing) {
+        Map<Long, Integer> inDegree = new HashMap<>();
+        Map<Long, List<Long>> incoming = new HashMap<>();
+        outgoing.forEach((origin, destinations) -> {
+            inDegree.putIfAbsent(origin, 0);
+            for (Long destination : destinations) {
+                inDegree.merge(destination, 1, Integer::sum);
+                incoming.computeIfAbsent(destination, d -> new ArrayList<>()).add(origin);
+            }
+        });
+
+        Deque<Long> ready = new ArrayDeque<>();
+        inDegree.forEach((point, degree) -> {
+            if (degree == 0) {
+                ready.add(point);
+            }
+        });
+        while (!ready.isEmpty()) {
+            Long point = ready.poll();
+            inDegree.remove(point);
+            for (Long destination : outgoing.getOrDefault(point, List.of())) {
+                if (inDegree.merge(destination, -1, Integer::sum) == 0) {
+                    ready.add(destination);
+                }
+            }
+        }
+        if (inDegree.isEmpty()) {
+            return List.of();
+        }
+
+        // 남은 점은 모두 남은 점에서 들어오는 edge 가 있음
+        Set<Long> path = new LinkedHashSet<>();
+        Long point = inDegree.keySet().iterator().next();
+        while (path.add(point)) {
+            point = incoming.get(point).stream().filter(inDegree::containsKey).findFirst().orElseThrow();
+        }
+        List<Long> cycle = new ArrayList<>();
+        boolean inCycle = false;
+        for (Long visited : path) {
+            inCycle |= visited.equals(point);
+            if (inCycle) {
+                cycle.add(visited);
+            }
+        }
+        cycle.add(point);
+        Collections.reverse(cycle);
+        return cycle;
+    }
+
+    private static Map<Long, List<Long>> edges(Connection connection) throws SQLException {
+        Map<Long, List<Long>> outgoing = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT origin_point, destination_point FROM edge")) {
+            while (result.next()) {
+                outgoing.computeIfAbsent(result.getLong(1), o -> new ArrayList<>()).add(result.getLong(2));
+            }
+        }
+        return outgoing;
+    }
+
+    private static long count(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.wizlit.path.benchmark.stress;
+
+/**
+ * Graph writes the stress harness interleaves.
+ */
+public enum Mutation {
+    /** {@code PUT /api/path}: edge between two random points, in either direction */
+    CONNECT,
+    /** {@code DELETE /api/path}: a known edge */
+    DISCONNECT,
+    /** {@code POST /api/point} with origin and destination: new point in the middle of a known edge */
+    SPLIT,
+    /** {@code POST /api/point} with an origin: new point after a random one */
+    ADD
+}
@@ -0,0 +1,43 @@
+package com.wizlit.path.benchmark.stress;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Set with constant-time add, remove and uniform random pick, shared by the workers of the harness.
+ */
+final class RandomPool<T> {
+
+    private final List<T> items = new ArrayList<>();
+    private final Map<T, Integer> positions = new HashMap<>();
+
+    synchronized void add(T item) {
+        if (positions.putIfAbsent(item, items.size()) == null) {
+            items.add(item);
+        }
+    }
+
+    synchronized void remove(T item) {
+        Integer position = positions.remove(item);
+        if (position == null) {
+            return;
+        }
+        // 마지막 원소를 빈 자리로 옮김
+        T last = items.remove(items.size() - 1);
+        if (position < items.size()) {
+            items.set(position, last);
+            positions.put(last, position);
+        }
+    }
+
+    synchronized T pick() {
+        return items.isEmpty() ? null : items.get(ThreadLocalRandom.current().nextInt(items.size()));
+    }
+
+    synchronized int size() {
+        return items.size();
+    }
+}
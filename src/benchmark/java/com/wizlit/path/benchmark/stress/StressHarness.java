@@ -0,0 +1,296 @@
+package com.wizlit.path.benchmark.stress;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.NullNode;
+import com.wizlit.path.benchmark.load.HarnessEnvironment;
+import com.wizlit.path.controller.PathController;
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.generator.GeneratedGraph;
+import com.wizlit.path.generator.GraphSpec;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Sends interleaved connect, disconnect, split and add-point requests from many concurrent clients, then checks
+ * that the stored graph is still a DAG without dangling or duplicate edges and that every committed write got its
+ * own graph version. Reports write throughput and how often writes were rejected or had to be resent.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.wizlit.path.benchmark.stress.StressHarness \
+ *     -Dbenchmark.args="--points=2000 --concurrency=32 --operations=5000 --mix=connect:40,disconnect:20,split:20,add:20"
+ * </pre>
+ * Exits with status 1 when an invariant is violated.
+ */
+public class StressHarness {
+
+    private static final String GRAPH_ID = "path";
+
+    private final WebClient client;
+    private final StressOptions options;
+    private final Mutation[] weighted;
+    private final RandomPool<Long> points = new RandomPool<>();
+    private final RandomPool<Link> edges = new RandomPool<>();
+    private final Map<Mutation, Counters> counters = new EnumMap<>(Mutation.class);
+    private final Map<String, LongAdder> rejections = new ConcurrentHashMap<>();
+    private final Queue<Long> versions = new ConcurrentLinkedQueue<>();
+    private final AtomicLong titles = new AtomicLong();
+
+    private record Link(long origin, long destination) {}
+
+    private record Reply(int status, String version, JsonNode body) {}
+
+    private static final class Counters {
+        final LongAdder committed = new LongAdder();
+        final LongAdder noop = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final LongAdder failed = new LongAdder();
+        final LongAdder retries = new LongAdder();
+    }
+
+    StressHarness(WebClient client, StressOptions options, GeneratedGraph graph) {
+        this.client = client;
+        this.options = options;
+        this.weighted = options.mix().entrySet().stream()
+                .flatMap(entry -> Stream.generate(entry::getKey).limit(entry.getValue()))
+                .toArray(Mutation[]::new);
+        for (Mutation mutation : Mutation.values()) {
+            counters.put(mutation, new Counters());
+        }
+        for (Point point : graph.points()) {
+            points.add(point.getId());
+        }
+        for (Edge edge : graph.edges()) {
+            edges.add(new Link(edge.getOriginPoint(), edge.getDestinationPoint()));
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        StressOptions options = StressOptions.parse(args);
+        PrintStream out = System.out;
+        List<String> violations = new ArrayList<>();
+
+        // rejected writes are expected here, they are counted instead of logged
+        List<String> applicationArgs = new ArrayList<>(List.of("--logging.level.com.wizlit.path.exception.GlobalExceptionHandler=OFF"));
+        applicationArgs.addAll(options.applicationArgs());
+
+        try (HarnessEnvironment environment = HarnessEnvironment.start(options.dbUrl(), options.dbUser(), options.dbPassword(),
+                Math.max(10, options.concurrency()), applicationArgs)) {
+            GeneratedGraph graph = environment.seed(GraphSpec.ofPoints(options.points())
+                    .withWidth(options.width())
+                    .withSeed(options.seed()));
+            long initialVersion;
+            try (Connection connection = environment.connect()) {
+                initialVersion = GraphInvariants.version(connection, GRAPH_ID);
+            }
+            out.printf(Locale.ROOT, "Seeded %d points and %d edges, graph version %d%n",
+                    graph.points().size(), graph.edges().size(), initialVersion);
+
+            StressHarness harness = new StressHarness(environment.client("stress", options.concurrency()), options, graph);
+            out.printf(Locale.ROOT, "Sending %d mutations with %d in flight%n", options.operations(), options.concurrency());
+            long start = System.nanoTime();
+            harness.run();
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            try (Connection connection = environment.connect()) {
+                violations.addAll(GraphInvariants.check(connection));
+                violations.addAll(harness.checkVersions(initialVersion, GraphInvariants.version(connection, GRAPH_ID)));
+            }
+            harness.report(out, seconds);
+        }
+
+        if (violations.isEmpty()) {
+            out.println("All invariants hold");
+        } else {
+            violations.forEach(violation -> out.println("VIOLATION: " + violation));
+            System.exit(1);
+        }
+    }
+
+    void run() {
+        Flux.range(0, options.operations())
+                .flatMap(i -> execute(weighted[ThreadLocalRandom.current().nextInt(weighted.length)]), options.concurrency())
+                .blockLast();
+    }
+
+    private Mono<Void> execute(Mutation mutation) {
+        Counters counter = counters.get(mutation);
+        if (edges.size() == 0 && (mutation == Mutation.DISCONNECT || mutation == Mutation.SPLIT)) {
+            return Mono.empty();
+        }
+        return switch (mutation) {
+            case CONNECT -> {
+                long origin = points.pick();
+                long destination = points.pick();
+                yield send(counter, client.put().uri(uri -> uri.path("/api/path")
+                                .queryParam("origin", origin)
+                                .queryParam("destination", destination)
+                                .build()))
+                        .doOnNext(reply -> {
+                            if (committed(counter, reply)) {
+                                edges.add(new Link(origin, destination));
+                            }
+                        })
+                        .then();
+            }
+            case DISCONNECT -> {
+                Link link = edges.pick();
+                yield send(counter, client.delete().uri(uri -> uri.path("/api/path")
+                                .queryParam("origin", link.origin())
+                                .queryParam("destination", link.destination())
+                                .build()))
+                        .doOnNext(reply -> {
+                            // 200 without a version: the edge was already deleted by another client
+                            if (committed(counter, reply) || reply.status() == 200) {
+                                edges.remove(link);
+                            }
+                        })
+                        .then();
+            }
+            case SPLIT -> {
+                Link link = edges.pick();
+                yield send(counter, addPoint(Map.of(
+                                "title", title(),
+                                "origin", String.valueOf(link.origin()),
+                                "destination", String.valueOf(link.destination()))))
+                        .doOnNext(reply -> {
+                            if (committed(counter, reply)) {
+                                long middle = reply.body().get("id").asLong();
+                                edges.remove(link);
+                                edges.add(new Link(link.origin(), middle));
+                                edges.add(new Link(middle, link.destination()));
+                                points.add(middle);
+                            }
+                        })
+                        .then();
+            }
+            case ADD -> {
+                long origin = points.pick();
+                yield send(counter, addPoint(Map.of("title", title(), "origin", String.valueOf(origin))))
+                        .doOnNext(reply -> {
+                            if (committed(counter, reply)) {
+                                long added = reply.body().get("id").asLong();
+                                edges.add(new Link(origin, added));
+                                points.add(added);
+                            }
+                        })
+                        .then();
+            }
+        };
+    }
+
+    private WebClient.RequestHeadersSpec<?> addPoint(Map<String, String> body) {
+        return client.post().uri("/api/point")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body);
+    }
+
+    private String title() {
+        return "stress " + titles.incrementAndGet() + " " + System.nanoTime();
+    }
+
+    // server errors and dropped connections are resent, up to --retries times
+    private Mono<Reply> send(Counters counter, WebClient.RequestHeadersSpec<?> request) {
+        return Mono.defer(() -> request.header(HttpHeaders.AUTHORIZATION, "Bearer " + HarnessEnvironment.TOKEN)
+                        .exchangeToMono(response -> response.bodyToMono(JsonNode.class)
+                                .defaultIfEmpty(NullNode.getInstance())
+                                .onErrorReturn(NullNode.getInstance())
+                                .map(body -> new Reply(response.statusCode().value(),
+                                        response.headers().asHttpHeaders().getFirst(PathController.GRAPH_VERSION_HEADER), body)))
+                        .onErrorReturn(new Reply(-1, null, NullNode.getInstance()))
+                        .flatMap(reply -> reply.status() < 0 || reply.status() >= 500
+                                ? Mono.<Reply>error(new IllegalStateException("status " + reply.status()))
+                                : Mono.just(reply)))
+                .retryWhen(Retry.max(options.retries()).doBeforeRetry(signal -> counter.retries.increment()))
+                .onErrorResume(error -> {
+                    counter.failed.increment();
+                    return Mono.empty();
+                });
+    }
+
+    private boolean committed(Counters counter, Reply reply) {
+        if (reply.status() >= 200 && reply.status() < 300) {
+            if (reply.version() == null) {
+                counter.noop.increment();
+                return false;
+            }
+            versions.add(Long.parseLong(reply.version()));
+            counter.committed.increment();
+            return true;
+        }
+        counter.rejected.increment();
+        String errorCode = reply.body().path("errorCode").asText("HTTP " + reply.status());
+        rejections.computeIfAbsent(errorCode, code -> new LongAdder()).increment();
+        return false;
+    }
+
+    /**
+     * Every committed write must have received its own version, and the stored version must have advanced by
+     * exactly the number of committed writes.
+     */
+    List<String> checkVersions(long initialVersion, long finalVersion) {
+        List<String> violations = new ArrayList<>();
+        long committed = versions.size();
+        Set<Long> distinct = new HashSet<>(versions);
+        if (distinct.size() != committed) {
+            violations.add((committed - distinct.size()) + " committed writes got a version already handed out");
+        }
+        if (finalVersion - initialVersion != committed) {
+            violations.add("graph version advanced by " + (finalVersion - initialVersion) + " for " + committed + " committed writes");
+        }
+        if (!distinct.isEmpty() && (distinct.stream().mapToLong(Long::longValue).min().getAsLong() <= initialVersion
+                || distinct.stream().mapToLong(Long::longValue).max().getAsLong() != finalVersion)) {
+            violations.add("versions of committed writes are outside (" + initialVersion + ", " + finalVersion + "]");
+        }
+        return violations;
+    }
+
+    void report(PrintStream out, double seconds) {
+        out.printf(Locale.ROOT, "%-11s %9s %9s %8s %9s %8s %8s %9s%n",
+                "mutation", "committed", "writes/s", "noop", "rejected", "failed", "retries", "reject %");
+        long total = 0;
+        long retried = 0;
+        for (Map.Entry<Mutation, Counters> entry : counters.entrySet()) {
+            Counters counter = entry.getValue();
+            long committed = counter.committed.sum();
+            long attempts = committed + counter.noop.sum() + counter.rejected.sum() + counter.failed.sum();
+            if (attempts == 0) {
+                continue;
+            }
+            total += committed;
+            retried += counter.retries.sum();
+            out.printf(Locale.ROOT, "%-11s %9d %9.1f %8d %9d %8d %8d %8.1f%%%n",
+                    entry.getKey().name().toLowerCase(Locale.ROOT),
+                    committed,
+                    committed / seconds,
+                    counter.noop.sum(),
+                    counter.rejected.sum(),
+                    counter.failed.sum(),
+                    counter.retries.sum(),
+                    100.0 * counter.rejected.sum() / attempts);
+        }
+        out.printf(Locale.ROOT, "%d committed writes in %.1f s (%.1f writes/s), %d retries, retry rate %.2f%%%n",
+                total, seconds, total / seconds, retried, 100.0 * retried / options.operations());
+        rejections.forEach((code, count) -> out.printf(Locale.ROOT, "  rejected %-22s %d%n", code, count.sum()));
+    }
+}
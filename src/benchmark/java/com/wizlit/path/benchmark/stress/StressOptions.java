@@ -0,0 +1,69 @@
+package com.wizlit.path.benchmark.stress;
+
+import com.wizlit.path.benchmark.load.LoadOptions;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Options of the stress harness, given as {@code --name=value}; application arguments are passed on as for
+ * {@link LoadOptions}.
+ *
+ * @param points      points seeded before the run
+ * @param width       points per layer of the seeded graph
+ * @param seed        seed of the generated graph
+ * @param concurrency mutations in flight
+ * @param operations  mutations sent in total
+ * @param retries     resends of a mutation that failed with a server error
+ * @param mix         relative weight of each mutation
+ * @param dbUrl       jdbc url of an existing Postgres to use instead of the embedded one
+ */
+public record StressOptions(
+        int points,
+        int width,
+        long seed,
+        int concurrency,
+        int operations,
+        int retries,
+        Map<Mutation, Integer> mix,
+        String dbUrl,
+        String dbUser,
+        String dbPassword,
+        List<String> applicationArgs
+) {
+
+    public static StressOptions parse(String... args) {
+        List<String> applicationArgs = new ArrayList<>();
+        Map<String, String> options = LoadOptions.split(args, applicationArgs);
+
+        StressOptions parsed = new StressOptions(
+                Integer.parseInt(options.getOrDefault("points", "2000")),
+                Integer.parseInt(options.getOrDefault("width", "50")),
+                Long.parseLong(options.getOrDefault("seed", "42")),
+                Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Integer.parseInt(options.getOrDefault("operations", "5000")),
+                Integer.parseInt(options.getOrDefault("retries", "3")),
+                mix(options.getOrDefault("mix", "connect:40,disconnect:20,split:20,add:20")),
+                options.get("db-url"),
+                options.getOrDefault("db-user", "postgres"),
+                options.getOrDefault("db-password", "postgres"),
+                applicationArgs
+        );
+        if (parsed.points() <= parsed.width()) {
+            throw new IllegalArgumentException("--points must be larger than --width");
+        }
+        return parsed;
+    }
+
+    // "connect:40,split:10" 형식
+    private static Map<Mutation, Integer> mix(String value) {
+        Map<Mutation, Integer> mix = new LinkedHashMap<>();
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split(":");
+            mix.put(Mutation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return mix;
+    }
+}
@@ -0,0 +1,23 @@
+package com.wizlit.path.scheduling;
+
+import reactor.blockhound.BlockHound;
+import reactor.blockhound.integration.BlockHoundIntegration;
+
+/**
+ * Blocking calls BlockHound lets through on non-blocking threads: one-off or bounded waits of libraries,
+ * not of request handling in this application.
+ */
+public class BlockingAllowances implements BlockHoundIntegration {
+
+    @Override
+    public void applyTo(BlockHound.Builder builder) {
+        builder
+                // an idle WorkSchedulers thread waiting for its next task
+                .allowBlockingCallsInside("java.util.concurrent.ThreadPoolExecutor", "getTask")
+                // first use only, cached afterwards (what warm-up takes care of before traffic)
+                .allowBlockingCallsInside("com.fasterxml.jackson.databind.deser.DeserializerCache", "_createAndCacheValueDeserializer")
+                .allowBlockingCallsInside("org.springframework.aop.aspectj.AspectJExpressionPointcut", "getShadowMatch")
+                .allowBlockingCallsInside("org.springframework.data.projection.DefaultProjectionInformation$PropertyDescriptorSource", "getMetadata")
+                .allowBlockingCallsInside("io.netty.util.internal.NativeLibraryLoader", "load");
+    }
+}
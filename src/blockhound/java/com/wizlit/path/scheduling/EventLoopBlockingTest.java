@@ -0,0 +1,46 @@
+package com.wizlit.path.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.blockhound.BlockingOperationError;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * BlockHound is installed (-Pblockhound): blocking on a non-blocking thread fails, on the blocking scheduler it does not.
+ */
+public class EventLoopBlockingTest {
+
+    private final WorkSchedulers schedulers = new WorkSchedulers(2, 10, 0, 2, 10,
+            new SimpleMeterRegistry());
+
+    @Test
+    public void blockingOnComputeFails() {
+        StepVerifier.create(Mono.fromCallable(this::sleep).subscribeOn(schedulers.compute()))
+                .expectError(BlockingOperationError.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void blockingOnParallelFails() {
+        StepVerifier.create(Mono.fromCallable(this::sleep).subscribeOn(Schedulers.parallel()))
+                .expectError(BlockingOperationError.class)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    public void blockingSchedulerMayBlock() {
+        assertThat(Mono.fromCallable(this::sleep).subscribeOn(schedulers.blocking()).block(Duration.ofSeconds(5)))
+                .isTrue();
+    }
+
+    private boolean sleep() throws InterruptedException {
+        Thread.sleep(1);
+        return true;
+    }
+}
@@ -22,6 +22,9 @@ public class CorsConfig {
         corsConfig.addAllowedOriginPattern(allowedOriginPattern); // Add your React frontend's URL (or more domains if applicable)
         corsConfig.addAllowedHeader("*"); // Allow all headers
         corsConfig.addAllowedMethod("*"); // Allow all HTTP methods
+        corsConfig.addExposedHeader("X-Request-Id");
+        corsConfig.addExposedHeader("Server-Timing"); // per-request DB/HTTP timings, readable from the browser
+        corsConfig.addExposedHeader("X-Graph-Version"); // graph version after a write
         corsConfig.setAllowCredentials(true); // You can enable credentials (cookies, etc.) if needed.
 
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
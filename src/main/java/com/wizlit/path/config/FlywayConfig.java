@@ -0,0 +1,28 @@
+package com.wizlit.path.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Migrations at boot can be skipped ({@code app.flyway.migrateOnBoot=false}) when a deploy step or one instance
+ * runs them, so other instances start without a JDBC connection to the database.
+ * Read at run time, unlike {@code spring.flyway.enabled}, which an AOT build fixes.
+ */
+@Slf4j
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(@Value("${app.flyway.migrateOnBoot:true}") boolean migrateOnBoot) {
+        return flyway -> {
+            if (migrateOnBoot) {
+                flyway.migrate();
+            } else {
+                log.info("Skipping database migrations at boot (app.flyway.migrateOnBoot=false)");
+            }
+        };
+    }
+}
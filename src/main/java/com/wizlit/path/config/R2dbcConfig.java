@@ -4,6 +4,7 @@ import io.r2dbc.spi.ConnectionFactory;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
 
 @Configuration
 public class R2dbcConfig {
@@ -12,4 +13,10 @@ public class R2dbcConfig {
     public R2dbcEntityTemplate r2dbcEntityTemplate(ConnectionFactory connectionFactory) {
         return new R2dbcEntityTemplate(connectionFactory);
     }
-}
\ No newline at end of file
+
+    // declared here, not by Boot: Boot's backs off once the jdbc profile adds its own (primary) transaction manager
+    @Bean
+    public R2dbcTransactionManager r2dbcTransactionManager(ConnectionFactory connectionFactory) {
+        return new R2dbcTransactionManager(connectionFactory);
+    }
+}
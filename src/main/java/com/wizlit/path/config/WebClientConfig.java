@@ -0,0 +1,16 @@
+package com.wizlit.path.config;
+
+import com.wizlit.path.logging.RequestStatsExchangeFilter;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class WebClientConfig {
+
+    // applied to every WebClient.Builder injected from the context
+    @Bean
+    public WebClientCustomizer requestStatsCustomizer() {
+        return builder -> builder.filter(new RequestStatsExchangeFilter());
+    }
+}
@@ -2,17 +2,26 @@ package com.wizlit.path.controller;
 
 import com.wizlit.path.model.*;
 import com.wizlit.path.service.EdgeService;
+import com.wizlit.path.service.GraphHistoryService;
+import com.wizlit.path.service.GraphJsonService;
 import com.wizlit.path.service.LastUpdateService;
+import com.wizlit.path.replication.GraphReplication;
+import com.wizlit.path.replication.GraphState;
+import com.wizlit.path.scheduling.WorkSchedulers;
 import com.wizlit.path.service.PointService;
+import com.wizlit.path.utils.GraphMutationSequencer;
+import com.wizlit.path.utils.GraphNamespace;
 import com.wizlit.path.utils.PrivateAccess;
+import com.wizlit.path.utils.RequestCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.http.server.reactive.ServerHttpResponse;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
 
@@ -20,7 +29,7 @@ import java.time.Instant;
 
 @RestController
 @AllArgsConstructor
-@RequestMapping("/api/path")
+@RequestMapping({"/api/path", "/api/graphs/{graphId}/path"})
 public class PathController {
 
     /**
@@ -31,12 +40,23 @@ public class PathController {
     private final PointService pointService;
     private final EdgeService edgeService;
     private final LastUpdateService lastUpdateService;
+    private final GraphJsonService graphJsonService;
+    private final GraphMutationSequencer sequencer;
+    private final GraphReplication replication;
+    private final GraphHistoryService graphHistoryService;
+    private final WorkSchedulers schedulers;
+    private final RequestCoalescer coalescer;
+
+    // version of the graph after a committed write, see LastUpdate#version
+    public static final String GRAPH_VERSION_HEADER = "X-Graph-Version";
 
     /**
      * Retrieves all points and their associated edges from the system.
      * If no points are available, it returns a ResponseEntity with a no-content status.
      * In case of an error during the process, it returns an internal server error response.
+     * With {@code asOf} the graph is rebuilt from its history as it was at that time.
      *
+     * @param asOf optional ISO-8601 instant to read the graph at
      * @return a Mono containing a ResponseEntity with an OutputPathDto object that includes all points and edges,
      *         or appropriate response statuses (e.g., no content or internal server error).
      */
@@ -44,7 +64,9 @@ public class PathController {
     @Operation(
             summary = "Get all points and related edges",
             description = "Fetch all points along with their connected edges from the system. " +
-                    "Returns a no-content status if no points are available, or an internal server error status in case of processing errors.",
+                    "Returns a no-content status if no points are available, or an internal server error status in case of processing errors. " +
+                    "With asOf (ISO-8601, e.g. 2025-03-01T09:00:00Z) the graph is returned as it was at that time, " +
+                    "with its version at that time in X-Graph-Version.",
             responses = {
                     @ApiResponse(
                             responseCode = "200",
@@ -57,6 +79,16 @@ public class PathController {
                             responseCode = "204",
                             description = "No points found in the system"
                     ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Not found. Possible error codes:\n" +
+                                    "- **HISTORY_NOT_AVAILABLE**: The graph's history does not reach back to asOf"
+                    ),
+                    @ApiResponse(
+                            responseCode = "410",
+                            description = "Gone. Possible error codes:\n" +
+                                    "- **HISTORY_COMPACTED**: The events around asOf were dropped by retention"
+                    ),
                     @ApiResponse(
                             responseCode = "500",
                             description = "An internal server error occurred while processing the request. Possible error codes:\n" +
@@ -65,16 +97,51 @@ public class PathController {
                     )
             }
     )
-    public Mono<ResponseWithTimestamp<OutputPathDto>> getAllPointsAndEdges() {
-        return pointService.getAllPoints()
+    public Mono<ResponseEntity<?>> getAllPointsAndEdges(
+            @PathVariable(required = false) String graphId,
+            @RequestHeader(value = GRAPH_VERSION_HEADER, required = false) Long graphVersion,
+            @RequestParam(required = false) Instant asOf,
+            ServerHttpResponse response
+    ) {
+        String graph = GraphNamespace.resolve(graphId);
+        // nearest snapshot before asOf plus the events after it
+        if (asOf != null) {
+            return coalescer.coalesce("path-as-of", () -> graphHistoryService.getGraphAsOf(graph, asOf), graph, asOf)
+                    .flatMap(past -> schedulers.compute(past.points().size(), () -> ResponseEntity.ok()
+                            .header(GRAPH_VERSION_HEADER, String.valueOf(past.version()))
+                            .body(new ResponseWithTimestamp<>(past.points().isEmpty()
+                                    ? OutputPathDto.builder().build()
+                                    : OutputPathDto.fromEdgesAndPoints(past.points(), past.edges())))));
+        }
+        // replicated in-memory graph, unless it is behind the version the client has seen
+        GraphState.View view = replication.view(graph, graphVersion == null ? 0 : graphVersion);
+        if (view != null) {
+            // building the response of a large graph goes to the compute scheduler
+            return schedulers.compute(view.points().size(), () -> ResponseEntity.ok(new ResponseWithTimestamp<>(view.points().isEmpty()
+                    ? OutputPathDto.builder().build()
+                    : OutputPathDto.fromEdgesAndPoints(view.points(), view.edges()))));
+        }
+        // JSON rendered by the database (app.graph.render), passed through as bytes;
+        // concurrent reads of the same graph and version share one query, each gets its own response
+        return coalescer.coalesce("path-json", () -> graphJsonService.getPathJson(graph), graph)
+                .<ResponseEntity<?>>map(json -> ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(ResponseWithTimestamp.ofJson(json, response.bufferFactory())))
+                .switchIfEmpty(Mono.defer(() -> coalescer.coalesce("path", () -> readPath(graph), graph)
+                        .map(path -> ResponseEntity.ok(new ResponseWithTimestamp<>(path)))));
+    }
+
+    private Mono<OutputPathDto> readPath(String graph) {
+        return pointService.getAllPoints(graph)
                 .collectList()
                 .flatMap(points -> {
                     if (points.isEmpty()) {
-                        return Mono.just(new ResponseWithTimestamp<>(OutputPathDto.builder().build()));
+                        return Mono.just(OutputPathDto.builder().build());
                     }
-                    return edgeService.getAllEdgesByPoints(points)
+                    return edgeService.getAllEdges(graph)
                             .collectList()
-                            .map(edges -> new ResponseWithTimestamp<>(OutputPathDto.fromEdgesAndPoints(points, edges)));
+                            .flatMap(edges -> schedulers.compute(points.size(),
+                                    () -> OutputPathDto.fromEdgesAndPoints(points, edges)));
                 });
     }
 
@@ -88,7 +155,6 @@ public class PathController {
      */
     @PutMapping
     @PrivateAccess
-    @Transactional
     @Operation(
             summary = "Connect two points",
             description = "Creates a connection (edge) between two existing points in the system. " +
@@ -124,19 +190,27 @@ public class PathController {
                     )
             }
     )
-    public Mono<ResponseEntity<OutputEdgeDto>> connectTwoPoints(@RequestParam String origin, @RequestParam String destination) {
+    public Mono<ResponseEntity<OutputEdgeDto>> connectTwoPoints(
+            @PathVariable(required = false) String graphId,
+            @RequestParam String origin,
+            @RequestParam String destination
+    ) {
+        String graph = GraphNamespace.resolve(graphId);
         return pointService.convertPointsToLong(origin, destination)
                 .flatMap(_tuple -> {
                     Long originIdInLong = _tuple.getT1();
                     Long destinationIdInLong = _tuple.getT2();
 
-                    return edgeService.validateEdgeExists(originIdInLong, destinationIdInLong)
-                            .then(pointService.validatePointsExist(originIdInLong, destinationIdInLong))
-                            .then(edgeService.validateNotBackwardPath(originIdInLong, destinationIdInLong, 5))
-                            .then(edgeService.createEdge(originIdInLong, destinationIdInLong));
-                })
-                .flatMap(_saved -> lastUpdateService.update("path").thenReturn(_saved))
-                .map(_edge -> ResponseEntity.status(HttpStatus.CREATED).body(OutputEdgeDto.fromEdge(_edge)));
+                    // the sequencer commits the version together with the edge
+                    return sequencer.sequence(graph, edgeService.validateEdgeExists(graph, originIdInLong, destinationIdInLong)
+                            .then(pointService.validatePointsExist(graph, originIdInLong, destinationIdInLong))
+                            .then(edgeService.validateNotBackwardPath(originIdInLong, destinationIdInLong))
+                            .then(edgeService.createEdge(graph, originIdInLong, destinationIdInLong))
+                            .flatMap(_saved -> lastUpdateService.update(graph)
+                                    .map(_lastUpdate -> ResponseEntity.status(HttpStatus.CREATED)
+                                            .header(GRAPH_VERSION_HEADER, String.valueOf(_lastUpdate.getVersion()))
+                                            .body(OutputEdgeDto.fromEdge(_saved)))));
+                });
     }
 
     /**
@@ -148,7 +222,6 @@ public class PathController {
      */
     @DeleteMapping
     @PrivateAccess
-    @Transactional
     @Operation(
             summary = "Disconnect two points",
             description = "Deletes the edge between the specified origin and destination points in the system. " +
@@ -177,18 +250,25 @@ public class PathController {
                     )
             }
     )
-    public Mono<ResponseEntity<OutputEdgeDto>> disconnectTwoPoints(@RequestParam String origin, @RequestParam String destination) {
+    public Mono<ResponseEntity<OutputEdgeDto>> disconnectTwoPoints(
+            @PathVariable(required = false) String graphId,
+            @RequestParam String origin,
+            @RequestParam String destination
+    ) {
+        String graph = GraphNamespace.resolve(graphId);
         return pointService.convertPointsToLong(origin, destination)
                 .flatMap(tuple -> {
                     Long originIdInLong = tuple.getT1();
                     Long destinationIdInLong = tuple.getT2();
 
-                    return edgeService.findExistingEdge(originIdInLong, destinationIdInLong)
+                    return sequencer.sequence(graph, edgeService.findExistingEdge(graph, originIdInLong, destinationIdInLong)
                             .flatMap(edge -> edgeService.deleteEdge(edge)
-                                    .then(Mono.just(edge)));
-                })
-                .flatMap(_edge -> lastUpdateService.update("path").thenReturn(_edge))
-                .map(edge -> ResponseEntity.ok(OutputEdgeDto.fromEdge(edge)));
+                                    .then(Mono.just(edge)))
+                            .flatMap(_edge -> lastUpdateService.update(graph)
+                                    .map(_lastUpdate -> ResponseEntity.ok()
+                                            .header(GRAPH_VERSION_HEADER, String.valueOf(_lastUpdate.getVersion()))
+                                            .body(OutputEdgeDto.fromEdge(_edge)))));
+                });
     }
 
     @GetMapping("/changed")
@@ -196,12 +276,14 @@ public class PathController {
             summary = "check change"
     )
     public Mono<ResponseWithTimestamp<Boolean>> isChanged(
+            @PathVariable(required = false) String graphId,
             @RequestParam Long timestamp
     ) {
+        String graph = GraphNamespace.resolve(graphId);
         if (timestamp == 0) {
             return Mono.just(new ResponseWithTimestamp<>(false));
         }
-        return lastUpdateService.hasUpdate("path", Instant.ofEpochMilli(timestamp))
+        return coalescer.coalesce("changed", () -> lastUpdateService.hasUpdate(graph, Instant.ofEpochMilli(timestamp)), graph, timestamp)
                 .map(ResponseWithTimestamp::new);
     }
 
@@ -1,12 +1,18 @@
 package com.wizlit.path.controller;
 
 import com.wizlit.path.entity.Point;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
 import com.wizlit.path.model.*;
 import com.wizlit.path.service.EdgeService;
 import com.wizlit.path.service.LastUpdateService;
 import com.wizlit.path.service.PointService;
+import com.wizlit.path.temp.DocumentPool;
 import com.wizlit.path.temp.GoogleService;
+import com.wizlit.path.utils.GraphMutationSequencer;
+import com.wizlit.path.utils.GraphNamespace;
 import com.wizlit.path.utils.PrivateAccess;
+import com.wizlit.path.utils.RequestCoalescer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -14,13 +20,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import lombok.AllArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
 import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 
 @RestController
 @AllArgsConstructor
-@RequestMapping("/api/point")
+@RequestMapping({"/api/point", "/api/graphs/{graphId}/point"})
 public class PointController {
 
     /**
@@ -32,10 +39,12 @@ public class PointController {
     private final EdgeService edgeService;
     private final LastUpdateService lastUpdateService;
     private final GoogleService driveService;
+    private final DocumentPool documentPool;
+    private final GraphMutationSequencer sequencer;
+    private final RequestCoalescer coalescer;
 
     @PostMapping
     @PrivateAccess
-    @Transactional
     @Operation(
             summary = "Add a new point",
             description = "Adds a new point to the system. " +
@@ -59,27 +68,42 @@ public class PointController {
                     @ApiResponse(
                             responseCode = "409",
                             description = "Conflict occurred while processing the request. Possible error codes:\n" +
-                                    "- **BACKWARD_PATH**: A backward path exists from endPoint to startPoint within X edges\n"
+                                    "- **BACKWARD_PATH**: A path already leads from endPoint back to startPoint\n"
                     ),
                     @ApiResponse(
                             responseCode = "500",
                             description = "An internal server error occurred while processing the request. Possible error codes:\n" +
                                     "- **ERR_INTERNAL**: An unexpected error occurred. Please try again later\n" +
                                     "- **ERR_UNKNOWN**: An unspecified error occurred"
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Google Drive did not respond in time or is failing. Possible error codes:\n" +
+                                    "- **GOOGLE_UNAVAILABLE**: Try again later"
                     )
             }
     )
     public Mono<ResponseEntity<OutputPointDto>> addPoint(
             @RequestAttribute("token") String token,
+            @RequestAttribute("email") String email,
+            @PathVariable(required = false) String graphId,
             @RequestBody AddPointDto addPointDto
     ) {
 
+        String graph = GraphNamespace.resolve(graphId);
+        if (addPointDto.getTitle() == null) {
+            return Mono.error(new ApiException(ErrorCode.NULL_INPUT));
+        }
         Point newPoint = AddPointDto.toPoint(addPointDto);
-        Mono<Point> pointMono;
+        newPoint.setGraphId(graph);
+        // points are never deleted: existence is checked before the document is made, outside the lock
+        Mono<Void> check;
+        Mono<Point> mutation;
 
         if (addPointDto.getOrigin() == null && addPointDto.getDestination() == null) {
             // Only adding a new point with no connections
-            pointMono = pointService.createPoint(newPoint);
+            check = Mono.empty();
+            mutation = pointService.createPoint(newPoint);
 
         } else if (addPointDto.getOrigin() == null || addPointDto.getDestination() == null) {
             // Connect point with one edge - validate existence of origin or destination
@@ -87,10 +111,11 @@ public class PointController {
                     ? addPointDto.getOrigin()
                     : addPointDto.getDestination());
 
-            pointMono = pointService.findExistingPoint(existingPointId)
-                    .then(pointService.createPoint(newPoint))
+            check = pointService.findExistingPoint(graph, existingPointId).then();
+            mutation = pointService.createPoint(newPoint)
                     .flatMap(savedPoint ->
                             edgeService.createEdge(
+                                    graph,
                                     addPointDto.getOrigin() != null ? Long.valueOf(addPointDto.getOrigin()) : savedPoint.getId(),
                                     addPointDto.getDestination() != null ? Long.valueOf(addPointDto.getDestination()) : savedPoint.getId()
                             ).thenReturn(savedPoint)
@@ -98,41 +123,48 @@ public class PointController {
 
         } else {
             // Both origin and destination provided: split edge
-            pointMono = pointService.convertPointsToLong(addPointDto.getOrigin(), addPointDto.getDestination())
-                    .flatMap(tuple -> {
-                        Long originId = tuple.getT1();
-                        Long destinationId = tuple.getT2();
-                        return edgeService.validateNotBackwardPath(originId, destinationId, 5)
-                                .then(pointService.createPoint(newPoint))
-                                .flatMap(savedMiddlePoint ->
-                                        edgeService.splitEdge(originId, destinationId, savedMiddlePoint.getId())
-                                                .then(Mono.just(savedMiddlePoint))
-                                );
-                    });
+            Mono<Tuple2<Long, Long>> ids = pointService.convertPointsToLong(addPointDto.getOrigin(), addPointDto.getDestination());
+            // 다른 graph 의 point 는 FK 오류 대신 NON_EXISTENT_POINTS
+            check = ids.flatMap(tuple -> pointService.validatePointsExist(graph, tuple.getT1(), tuple.getT2())).then();
+            // the backward path check must see every committed edge: under the lock
+            mutation = ids.flatMap(tuple -> edgeService.validateNotBackwardPath(tuple.getT1(), tuple.getT2())
+                    .then(pointService.createPoint(newPoint))
+                    .flatMap(savedMiddlePoint ->
+                            edgeService.splitEdge(graph, tuple.getT1(), tuple.getT2(), savedMiddlePoint.getId())
+                                    .then(Mono.just(savedMiddlePoint))
+                    ));
         }
 
-        return pointMono
-                .flatMap(savedPoint -> processDocument(token, savedPoint))
-                .flatMap(_saved -> lastUpdateService.update("path").thenReturn(_saved))
-                .map(updatedPoint -> ResponseEntity.status(HttpStatus.CREATED)
-                        .body(OutputPointDto.fromPoint(updatedPoint)));
+        // the sequencer commits the point, its edges and the version together
+        Mono<ResponseEntity<OutputPointDto>> sequenced = sequencer.sequence(graph, mutation
+                .flatMap(_saved -> lastUpdateService.update(graph)
+                        .map(_lastUpdate -> ResponseEntity.status(HttpStatus.CREATED)
+                                .header(PathController.GRAPH_VERSION_HEADER, String.valueOf(_lastUpdate.getVersion()))
+                                .body(OutputPointDto.fromPoint(_saved)))));
+
+        return check
+                .then(pointService.reservePointId())
+                .flatMap(id -> {
+                    newPoint.setId(id);
+                    if (newPoint.getDocument() != null) {
+                        return sequenced;
+                    }
+                    return createDocument(token, email, newPoint, sequenced);
+                });
     }
 
-    private Mono<Point> processDocument(String token, Point savedPoint) {
-        if (savedPoint.getDocument() == null) {
-            return driveService.copyDocs(
-                            token,
-                            "16ENglpBm0RpyVEEPLxAJS7K3jmAzBbcn2LnzTTJDlMY",
-                            "1K1BRxA00KcwnDovm5hyTK00QavH-oHvc",
-                            savedPoint.getId() + " // " + savedPoint.getTitle()
-                        //     String.valueOf(savedPoint.getId()) // + " // " + savedPoint.getTitle()
-                    )
-                    .flatMap(driveResponse -> {
-                        savedPoint.setDocument("https://docs.google.com/document/d/" + driveResponse.getId());
-                        return pointService.updatePoint(savedPoint);
-                    });
-        }
-        return Mono.just(savedPoint);
+    /**
+     * Makes the point's document before the graph is locked, so Drive latency never holds the lock;
+     * the document is deleted again when the point is not saved.
+     */
+    private <T> Mono<T> createDocument(String token, String email, Point newPoint, Mono<T> save) {
+        return documentPool.claim(token, email, newPoint.getGraphId(), newPoint.getId() + " // " + newPoint.getTitle().trim())
+                .flatMap(driveResponse -> {
+                    newPoint.setDocument("https://docs.google.com/document/d/" + driveResponse.getId());
+                    return save.onErrorResume(error -> driveService.deleteFile(token, driveResponse.getId())
+                            .onErrorResume(deleteError -> Mono.empty())
+                            .then(Mono.error(error)));
+                });
     }
 
     @GetMapping("/{pointId}")
@@ -157,14 +189,17 @@ public class PointController {
                     )
             }
     )
-    public Mono<ResponseWithTimestamp<OutputPointDto>> getPoint(@PathVariable Long pointId) {
-        return pointService.findExistingPoint(pointId)
+    public Mono<ResponseWithTimestamp<OutputPointDto>> getPoint(
+            @PathVariable(required = false) String graphId,
+            @PathVariable Long pointId
+    ) {
+        String graph = GraphNamespace.resolve(graphId);
+        return coalescer.coalesce("point", () -> pointService.findExistingPoint(graph, pointId), graph, pointId)
                 .map(point -> new ResponseWithTimestamp<>(OutputPointDto.fromPoint(point)));
     }
     
     @PutMapping("/{pointId}")
     @PrivateAccess
-    @Transactional
     @Operation(
             summary = "Update a point",
             description = "Updates a point by its ID using pointService. Converts the result into an OutputPointDto.",
@@ -181,18 +216,30 @@ public class PointController {
                     @ApiResponse(
                             responseCode = "500",
                             description = "An internal server error occurred"
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Google Drive did not respond in time or is failing (GOOGLE_UNAVAILABLE); "
+                                    + "the point itself is already updated"
                     )
             }
     )
-    public Mono<ResponseWithTimestamp<OutputPointDto>> updatePoint(
+    public Mono<ResponseEntity<ResponseWithTimestamp<OutputPointDto>>> updatePoint(
             @RequestAttribute("token") String token,
+            @PathVariable(required = false) String graphId,
             @PathVariable String pointId, 
             @RequestBody UpdatePointDto updatePointDto
     ) {
+        String graph = GraphNamespace.resolve(graphId);
         Point point = updatePointDto.toPoint(pointId);
+        point.setGraphId(graph);
 
-        return pointService.updatePoint(point)
-                .flatMap(existingPoint -> {
+        // the sequencer commits the point and the version together; Drive is only called after the commit
+        return sequencer.sequence(graph, pointService.updatePoint(point)
+                        .flatMap(_saved -> lastUpdateService.update(graph)
+                                .map(_lastUpdate -> Tuples.of(_saved, _lastUpdate))))
+                .flatMap(tuple -> {
+                    Point existingPoint = tuple.getT1();
                     String title = updatePointDto.getTitle();
                     String documentUrl = existingPoint.getDocument();
 
@@ -200,12 +247,13 @@ public class PointController {
                     if (title != null && documentUrl != null) {
                         // Extract file ID from Google Docs URL
                         String fileId = documentUrl.substring(documentUrl.lastIndexOf("/") + 1);
-                        return driveService.updateFileName(token, fileId, pointId + " // " + title).thenReturn(existingPoint);
+                        return driveService.updateFileName(token, fileId, pointId + " // " + title).thenReturn(tuple);
                     }
-                    return Mono.just(existingPoint);
+                    return Mono.just(tuple);
                 })
-                .flatMap(_saved -> lastUpdateService.update("path").thenReturn(_saved))
-                .map(updatedPoint -> new ResponseWithTimestamp<>(OutputPointDto.fromPoint(updatedPoint)));
+                .map(tuple -> ResponseEntity.ok()
+                        .header(PathController.GRAPH_VERSION_HEADER, String.valueOf(tuple.getT2().getVersion()))
+                        .body(new ResponseWithTimestamp<>(OutputPointDto.fromPoint(tuple.getT1()))));
     }
 
 }
@@ -18,6 +18,9 @@ public class Edge {
     @Column("id")
     private Long id;
 
+    @Column("graph_id")
+    private String graphId;
+
     @NonNull
     @Column("origin_point")
     private Long originPoint;
@@ -0,0 +1,31 @@
+package com.wizlit.path.entity;
+
+import io.r2dbc.postgresql.codec.Json;
+import lombok.*;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("graph_event") // written with last_update, see LastUpdateRepository#touch
+public class GraphEvent {
+
+    @Column("graph_id")
+    private String graphId;
+
+    // last_update.version the write committed
+    @Column("version")
+    private Long version;
+
+    @Column("occurred_at")
+    private Instant occurredAt;
+
+    // GraphDelta ops of the write
+    @Column("ops")
+    private Json ops;
+
+}
@@ -0,0 +1,27 @@
+package com.wizlit.path.entity;
+
+import io.r2dbc.postgresql.codec.Json;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("graph_json")
+public class GraphJson {
+
+    @Id
+    @Column("id")
+    private String id;
+
+    // last_update.version of the graph when the body was rendered
+    @Column("version")
+    private Long version;
+
+    @Column("body")
+    private Json body;
+
+}
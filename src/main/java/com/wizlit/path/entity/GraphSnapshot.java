@@ -0,0 +1,36 @@
+package com.wizlit.path.entity;
+
+import io.r2dbc.postgresql.codec.Json;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Table("graph_snapshot")
+public class GraphSnapshot {
+
+    @Id
+    @Column("id")
+    private Long id;
+
+    @Column("graph_id")
+    private String graphId;
+
+    @Column("version")
+    private Long version;
+
+    // when the graph reached this version
+    @Column("valid_from")
+    private Instant validFrom;
+
+    // GraphDelta ops rebuilding the whole graph: points, then edges
+    @Column("body")
+    private Json body;
+
+}
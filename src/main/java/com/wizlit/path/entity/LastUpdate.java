@@ -21,4 +21,8 @@ public class LastUpdate {
     @Column("updated_time")
     private Instant updated_time;
 
+    // committed writes so far; increases by one with every update
+    @Column("version")
+    private Long version;
+
 }
@@ -17,6 +17,9 @@ public class Point {
     @Column("id")
     private Long id; // auto generate string id
 
+    @Column("graph_id")
+    private String graphId; // graph (namespace) the point belongs to
+
     @NonNull
     @Column("title")
     private String title;
@@ -13,7 +13,15 @@ public enum ErrorCode {
 
     // path errors
     BACKWARD_PATH(HttpStatus.CONFLICT,
-            "It is a backward path from originPoint to destinationPoint within %d edges - origin: %d, destination: %d"),
+            "It is a backward path from originPoint to destinationPoint - origin: %d, destination: %d"),
+
+    // graph errors
+    INVALID_GRAPH_ID(HttpStatus.BAD_REQUEST,
+            "Graph id must be 1 to 64 letters, digits, '-' or '_' - graph: %s"),
+    HISTORY_NOT_AVAILABLE(HttpStatus.NOT_FOUND,
+            "The graph has no recorded history at this time - graph: %s, asOf: %s"),
+    HISTORY_COMPACTED(HttpStatus.GONE,
+            "The graph history at this time was compacted, the versions after %d and before %d are gone - graph: %s, asOf: %s"),
 
     // point errors
     NULL_INPUT(HttpStatus.BAD_REQUEST,
@@ -38,6 +46,8 @@ public enum ErrorCode {
     // drive errors
     COPY_FAILED(HttpStatus.BAD_REQUEST,
             "Copy failed: %s"),
+    GOOGLE_UNAVAILABLE(HttpStatus.SERVICE_UNAVAILABLE,
+            "Google is not responding, try again later - call: %s"),
 
     // Generic errors
     EMPTY(HttpStatus.BAD_REQUEST,
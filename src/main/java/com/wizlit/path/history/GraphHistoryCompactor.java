@@ -0,0 +1,79 @@
+package com.wizlit.path.history;
+
+import com.wizlit.path.service.GraphHistoryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Periodically snapshots graphs whose event log has grown by {@code snapshotEvery} events, so a time-travel read
+ * replays at most that many events. Events older than {@code retention} that a snapshot covers are dropped;
+ * a read that falls between two snapshots whose events were dropped then fails with HISTORY_COMPACTED.
+ * <p>
+ * Every node compacts; concurrent nodes write the same snapshot once.
+ */
+@Slf4j
+@Component
+public class GraphHistoryCompactor {
+
+    private final GraphHistoryService historyService;
+    private final int snapshotEvery;
+    private final Duration compactInterval;
+    private final Duration retention;
+    private final Counter snapshots;
+
+    private Disposable scheduled;
+
+    public GraphHistoryCompactor(
+            GraphHistoryService historyService,
+            @Value("${app.graph.history.snapshotEvery:100}") int snapshotEvery,
+            @Value("${app.graph.history.compactInterval:1m}") Duration compactInterval,
+            @Value("${app.graph.history.retention:0s}") Duration retention,
+            MeterRegistry registry
+    ) {
+        this.historyService = historyService;
+        this.snapshotEvery = snapshotEvery;
+        this.compactInterval = compactInterval;
+        this.retention = retention;
+        this.snapshots = Counter.builder("path.graph.history.snapshots")
+                .description("Graph snapshots written by compaction")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (compactInterval.isZero() || compactInterval.isNegative()) {
+            return;
+        }
+        scheduled = Flux.interval(compactInterval, compactInterval)
+                .concatMap(tick -> compact().onErrorResume(error -> {
+                    log.warn("Could not compact the graph history: {}", error.toString());
+                    return Mono.empty();
+                }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduled != null) {
+            scheduled.dispose();
+        }
+    }
+
+    // retention 0: events are kept forever
+    public Mono<Integer> compact() {
+        Instant dropBefore = retention.isZero() ? null : Instant.now().minus(retention);
+        return historyService.compact(snapshotEvery, dropBefore)
+                .doOnNext(snapshots::increment);
+    }
+}
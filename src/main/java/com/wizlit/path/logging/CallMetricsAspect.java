@@ -0,0 +1,153 @@
+package com.wizlit.path.logging;
+
+import com.wizlit.path.exception.ApiException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every reactive service, repository and Google call as {@code path.calls}, from subscription to termination.
+ * <p>
+ * Tags are bounded: {@code layer}, {@code class} and {@code method} come from the advised methods,
+ * {@code outcome} is {@code SUCCESS}, {@code CANCELLED}, the {@link com.wizlit.path.exception.ErrorCode}
+ * of an {@link ApiException} or the exception class name. Timers are resolved once per method and outcome.
+ * Repository calls made within a request are also added to its {@link RequestStats}.
+ */
+@Aspect
+@Component
+@Order(3)
+public class CallMetricsAspect {
+
+    public static final String METRIC = "path.calls";
+    private static final String BASE_PACKAGE = "com.wizlit.path.";
+
+    private final MeterRegistry registry;
+    // proxy 클래스별: 상속된 repository 메서드(findAll 등)는 Method 가 같아도 repository 마다 따로 집계
+    private final Map<Class<?>, Map<Method, CallTimers>> timers = new ConcurrentHashMap<>();
+
+    public CallMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Pointcut("execution(public (reactor.core.publisher.Mono || reactor.core.publisher.Flux) com.wizlit.path.service.*.*(..))")
+    public void serviceMethods() {}
+
+    @Pointcut("execution(public (reactor.core.publisher.Mono || reactor.core.publisher.Flux) com.wizlit.path.repository.*.*(..))")
+    public void repositoryMethods() {}
+
+    @Pointcut("execution(public (reactor.core.publisher.Mono || reactor.core.publisher.Flux) com.wizlit.path.temp.GoogleService.*(..))")
+    public void googleMethods() {}
+
+    @Around("serviceMethods()")
+    public Object timeService(ProceedingJoinPoint jp) throws Throwable {
+        return time(jp, "service");
+    }
+
+    @Around("repositoryMethods()")
+    public Object timeRepository(ProceedingJoinPoint jp) throws Throwable {
+        return time(jp, "repository");
+    }
+
+    @Around("googleMethods()")
+    public Object timeGoogle(ProceedingJoinPoint jp) throws Throwable {
+        return time(jp, "google");
+    }
+
+    private Object time(ProceedingJoinPoint jp, String layer) throws Throwable {
+        CallTimers callTimers = timers
+                .computeIfAbsent(jp.getThis().getClass(), type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(((MethodSignature) jp.getSignature()).getMethod(),
+                        method -> new CallTimers(layer, typeName(jp), method.getName()));
+        Object result = jp.proceed();
+
+        if (result instanceof Mono<?> mono) {
+            return Mono.deferContextual(ctx -> {
+                RequestStats stats = callTimers.statement ? RequestStats.from(ctx) : null;
+                long start = System.nanoTime();
+                return mono
+                        .doOnSuccess(r -> callTimers.record("SUCCESS", start, stats))
+                        .doOnError(e -> callTimers.record(outcome(e), start, stats))
+                        .doOnCancel(() -> callTimers.record("CANCELLED", start, stats));
+            });
+        }
+        if (result instanceof Flux<?> flux) {
+            return Flux.deferContextual(ctx -> {
+                RequestStats stats = callTimers.statement ? RequestStats.from(ctx) : null;
+                long start = System.nanoTime();
+                return flux
+                        .doOnComplete(() -> callTimers.record("SUCCESS", start, stats))
+                        .doOnError(e -> callTimers.record(outcome(e), start, stats))
+                        .doOnCancel(() -> callTimers.record("CANCELLED", start, stats));
+            });
+        }
+        return result;
+    }
+
+    // 상위 인터페이스(ReactiveCrudRepository 등)에 선언된 메서드는 우리 repository 이름으로 표시
+    private static String typeName(ProceedingJoinPoint jp) {
+        Class<?> declaring = jp.getSignature().getDeclaringType();
+        for (Class<?> face : ClassUtils.getAllInterfaces(jp.getThis())) {
+            if (face != declaring && declaring.isAssignableFrom(face) && face.getName().startsWith(BASE_PACKAGE)) {
+                return face.getSimpleName();
+            }
+        }
+        return declaring.getSimpleName();
+    }
+
+    private static String outcome(Throwable error) {
+        return error instanceof ApiException apiException
+                ? apiException.getErrorCode().name()
+                : error.getClass().getSimpleName();
+    }
+
+    private final class CallTimers {
+        private final String layer;
+        private final String type;
+        private final String method;
+        private final String query;
+        // repository 호출은 요청별 statement 수에도 집계
+        private final boolean statement;
+        private final Map<String, Timer> byOutcome = new ConcurrentHashMap<>();
+
+        CallTimers(String layer, String type, String method) {
+            this.layer = layer;
+            this.type = type;
+            this.method = method;
+            this.query = type + "." + method;
+            this.statement = "repository".equals(layer);
+        }
+
+        void record(String outcome, long start, RequestStats stats) {
+            long nanos = System.nanoTime() - start;
+            if (stats != null) {
+                stats.recordStatement(query, nanos);
+            }
+            byOutcome.computeIfAbsent(outcome, o -> Timer.builder(METRIC)
+                            .description("Reactive call duration from subscription to termination")
+                            .tag("layer", layer)
+                            .tag("class", type)
+                            .tag("method", method)
+                            .tag("outcome", o)
+                            .publishPercentileHistogram()
+                            .minimumExpectedValue(Duration.ofMillis(1))
+                            .maximumExpectedValue(Duration.ofSeconds(30))
+                            .register(registry))
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,49 +1,50 @@
 package com.wizlit.path.logging;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
-import org.slf4j.MDC;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.Flux;
 
+import static com.wizlit.path.logging.ServiceLoggingAspect.elapsed;
+
 @Aspect
 @Component
 @Slf4j
 @Order(1)
+@RequiredArgsConstructor
 public class ControllerLoggingAspect {
 
+    private final LogSampler sampler;
+
     @Around("within(@org.springframework.web.bind.annotation.RestController *)")
     public Object logWebFlux(ProceedingJoinPoint jp) throws Throwable {
+        if (!log.isInfoEnabled() || !sampler.sample(jp)) {
+            return jp.proceed();
+        }
         String signature = jp.getSignature().toShortString();
         Object result = jp.proceed();
 
+        // requestId 는 ReactorConfig 의 자동 context propagation 으로 MDC 에 복원됨
         if (result instanceof Mono<?> mono) {
-            return Mono.deferContextual(ctx -> {
-                String reqId = ctx.get(RequestContextFilter.REQUEST_ID);
-                MDC.put(RequestContextFilter.REQUEST_ID, reqId);
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
                 log.info("▶▶▶▶▶▶▶▶▶▶ Enter {}", signature);
-
-                return mono
-                        .doOnSuccess(k -> log.info("◀◀◀◀◀◀◀◀◀◀ Exit {}", signature))
-                        .doFinally(s -> MDC.remove(RequestContextFilter.REQUEST_ID));
+                return mono.doOnSuccess(k -> log.info("◀◀◀◀◀◀◀◀◀◀ Exit {} ({} ms)", signature, elapsed(start)));
             });
         }
         if (result instanceof Flux<?> flux) {
-            return Flux.deferContextual(ctx -> {
-                String reqId = ctx.get(RequestContextFilter.REQUEST_ID);
-                MDC.put(RequestContextFilter.REQUEST_ID, reqId);
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
                 log.info("▶▶▶▶▶▶▶▶▶▶ Enter {}", signature);
-
-                return flux
-                        .doOnComplete(() -> log.info("◀◀◀◀◀◀◀◀◀◀ Exit {}", signature))
-                        .doFinally(s -> MDC.remove(RequestContextFilter.REQUEST_ID));
+                return flux.doOnComplete(() -> log.info("◀◀◀◀◀◀◀◀◀◀ Exit {} ({} ms)", signature, elapsed(start)));
             });
         }
         return result;
     }
 
-}
\ No newline at end of file
+}
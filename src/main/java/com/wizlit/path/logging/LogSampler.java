@@ -0,0 +1,121 @@
+package com.wizlit.path.logging;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Decides which invocations the logging aspects observe.
+ * <p>
+ * Rates are configured per method as {@code SimpleClassName.method=rate} (class or interface name),
+ * falling back to a global rate.
+ * The rate of a method is resolved once and cached, so the decision for an unsampled call allocates nothing.
+ * A configured name that matches no service or controller method is logged at startup, since its rate would
+ * silently never apply (a renamed method, a typo).
+ */
+@Slf4j
+@Component
+public class LogSampler {
+
+    private final double defaultRate;
+    private final Map<String, Double> configuredRates;
+    private final boolean payloads;
+    private final Map<Method, Double> rates = new ConcurrentHashMap<>();
+
+    public LogSampler(
+            @Value("${app.logging.sampleRate:1.0}") double defaultRate,
+            @Value("${app.logging.sampleRates:}") String sampleRates,
+            @Value("${app.logging.payloads:false}") boolean payloads
+    ) {
+        this.defaultRate = defaultRate;
+        this.configuredRates = Arrays.stream(sampleRates.split(","))
+                .map(String::trim)
+                .filter(s -> s.contains("="))
+                .collect(Collectors.toMap(
+                        s -> s.substring(0, s.lastIndexOf('=')).trim(),
+                        s -> Double.parseDouble(s.substring(s.lastIndexOf('=') + 1).trim())
+                ));
+        this.payloads = payloads;
+    }
+
+    public boolean sample(ProceedingJoinPoint jp) {
+        double rate = rates.computeIfAbsent(((MethodSignature) jp.getSignature()).getMethod(), this::rateOf);
+        return rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+    }
+
+    @EventListener(ApplicationStartedEvent.class)
+    public void checkConfiguredRates(ApplicationStartedEvent event) {
+        ApplicationContext context = event.getApplicationContext();
+        // the types the logging aspects advise: services and controllers
+        List<Class<?>> advised = Arrays.stream(context.getBeanDefinitionNames())
+                .map(context::getType)
+                .filter(Objects::nonNull)
+                .map(ClassUtils::getUserClass)
+                .filter(type -> type.getPackageName().startsWith("com.wizlit.path.service")
+                        || type.isAnnotationPresent(RestController.class))
+                .collect(Collectors.toList());
+        Set<String> unmatched = unmatchedRates(advised);
+        if (!unmatched.isEmpty()) {
+            log.warn("app.logging.sampleRates names no advised method, these rates never apply: {}", unmatched);
+        }
+    }
+
+    // configured names that are not SimpleClassName.method of any of the types or their interfaces
+    Set<String> unmatchedRates(Collection<Class<?>> types) {
+        Set<String> names = new HashSet<>();
+        for (Class<?> type : types) {
+            addMethodNames(names, type);
+            ClassUtils.getAllInterfacesForClassAsSet(type).forEach(face -> addMethodNames(names, face));
+        }
+        return configuredRates.keySet().stream()
+                .filter(name -> !names.contains(name))
+                .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    private static void addMethodNames(Set<String> names, Class<?> type) {
+        for (Method method : type.getMethods()) {
+            names.add(type.getSimpleName() + "." + method.getName());
+        }
+    }
+
+    // whether arguments and emitted values are logged, or only a summary
+    public boolean payloads() {
+        return payloads;
+    }
+
+    // 구현체 이름과 인터페이스 이름 모두 허용 (PointServiceImpl.getAllPoints, PointService.getAllPoints)
+    private double rateOf(Method method) {
+        Class<?> type = method.getDeclaringClass();
+        Double rate = configuredRates.get(type.getSimpleName() + "." + method.getName());
+        if (rate != null) {
+            return rate;
+        }
+        for (Class<?> face : ClassUtils.getAllInterfacesForClassAsSet(type)) {
+            rate = configuredRates.get(face.getSimpleName() + "." + method.getName());
+            if (rate != null) {
+                return rate;
+            }
+        }
+        return defaultRate;
+    }
+}
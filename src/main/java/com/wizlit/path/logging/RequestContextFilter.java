@@ -1,15 +1,21 @@
 package com.wizlit.path.logging;
 
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.annotation.Order;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
 
+@Slf4j
 @Component
 @Order(-1)
 public class RequestContextFilter implements WebFilter {
@@ -17,19 +23,54 @@ public class RequestContextFilter implements WebFilter {
     public static final String REQUEST_ID = "requestId";
     public static final String USER_ID    = "userId";
 
+    private final int maxStatements;
+    private final int maxRepeats;
+
+    public RequestContextFilter(
+            @Value("${app.requestStats.maxStatements:20}") int maxStatements,
+            @Value("${app.requestStats.maxRepeats:5}") int maxRepeats
+    ) {
+        this.maxStatements = maxStatements;
+        this.maxRepeats = maxRepeats;
+    }
+
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
         String userId = "user1";
 //        String userId = exchange.getRequest().getHeaders().getFirst("X-User-Id");
-        String requestId = userId + "-" + UUID.randomUUID();
+        // not UUID.randomUUID(): SecureRandom reads /dev/urandom under a lock, on the event loop
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String requestId = userId + "-" + new UUID(random.nextLong(), random.nextLong());
+        RequestStats stats = new RequestStats();
 
         // Add to response header too (optional)
         exchange.getResponse().getHeaders().add("X-Request-Id", requestId);
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().add("Server-Timing", stats.serverTiming());
+            return Mono.empty();
+        });
 
         return chain.filter(exchange)
+                .doFinally(signal -> report(requestId, exchange, stats))
                 .contextWrite(ctx -> ctx
                         .put(REQUEST_ID, requestId)
                         .put(USER_ID, Objects.requireNonNull(userId))
+                        .put(RequestStats.KEY, stats)
                 );
     }
-}
\ No newline at end of file
+
+    // 요청당 한 줄: DB/HTTP 호출 수와 시간, 예산 초과 시 경고
+    private void report(String requestId, ServerWebExchange exchange, RequestStats stats) {
+        ServerHttpRequest request = exchange.getRequest();
+        log.info("request={} method={} path={} status={} db.statements={} db.ms={} http.calls={} http.ms={} total.ms={}",
+                requestId, request.getMethod(), request.getPath().value(), exchange.getResponse().getStatusCode(),
+                stats.statements(), Math.round(stats.statementMillis()),
+                stats.httpCalls(), Math.round(stats.httpMillis()), Math.round(stats.totalMillis()));
+
+        Map<String, Integer> repeated = stats.repeatedQueries(maxRepeats);
+        if (stats.statements() > maxStatements || !repeated.isEmpty()) {
+            log.warn("request={} path={} exceeded query budget: {} statements (max {}), repeated {} (max {} each, possible N+1)",
+                    requestId, request.getPath().value(), stats.statements(), maxStatements, repeated, maxRepeats);
+        }
+    }
+}
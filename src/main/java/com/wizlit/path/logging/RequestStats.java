@@ -0,0 +1,89 @@
+package com.wizlit.path.logging;
+
+import reactor.util.context.ContextView;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Database statements and outbound HTTP calls made on behalf of one request.
+ * <p>
+ * An instance is put in the Reactor context by {@link RequestContextFilter} next to the requestId;
+ * calls made outside a request (scheduled jobs, detached refills) find none and are not accounted.
+ */
+public class RequestStats {
+
+    public static final String KEY = RequestStats.class.getName();
+
+    private final long start = System.nanoTime();
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong statementNanos = new AtomicLong();
+    private final AtomicInteger httpCalls = new AtomicInteger();
+    private final AtomicLong httpNanos = new AtomicLong();
+    // 같은 repository 메서드의 반복 호출 횟수 (N+1 감지용)
+    private final Map<String, AtomicInteger> statementsByQuery = new ConcurrentHashMap<>();
+
+    public static RequestStats from(ContextView ctx) {
+        return ctx.getOrDefault(KEY, null);
+    }
+
+    public void recordStatement(String query, long nanos) {
+        statements.incrementAndGet();
+        statementNanos.addAndGet(nanos);
+        statementsByQuery.computeIfAbsent(query, q -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void recordHttpCall(long nanos) {
+        httpCalls.incrementAndGet();
+        httpNanos.addAndGet(nanos);
+    }
+
+    public int statements() {
+        return statements.get();
+    }
+
+    public int httpCalls() {
+        return httpCalls.get();
+    }
+
+    public double statementMillis() {
+        return millis(statementNanos.get());
+    }
+
+    public double httpMillis() {
+        return millis(httpNanos.get());
+    }
+
+    public double totalMillis() {
+        return millis(System.nanoTime() - start);
+    }
+
+    /**
+     * Queries issued more than {@code maxRepeats} times, with their counts.
+     */
+    public Map<String, Integer> repeatedQueries(int maxRepeats) {
+        Map<String, Integer> repeated = new TreeMap<>();
+        statementsByQuery.forEach((query, count) -> {
+            if (count.get() > maxRepeats) {
+                repeated.put(query, count.get());
+            }
+        });
+        return repeated;
+    }
+
+    // https://www.w3.org/TR/server-timing/
+    public String serverTiming() {
+        return String.format(Locale.ROOT,
+                "db;desc=\"%d statements\";dur=%.1f, http;desc=\"%d calls\";dur=%.1f, total;dur=%.1f",
+                statements(), statementMillis(), httpCalls(), httpMillis(), totalMillis());
+    }
+
+    private static double millis(long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,27 @@
+package com.wizlit.path.logging;
+
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Adds outbound WebClient calls made within a request to its {@link RequestStats},
+ * timed until the response headers arrive.
+ */
+public class RequestStatsExchangeFilter implements ExchangeFilterFunction {
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(ctx -> {
+            RequestStats stats = RequestStats.from(ctx);
+            if (stats == null) {
+                return next.exchange(request);
+            }
+            long start = System.nanoTime();
+            return next.exchange(request)
+                    .doFinally(signal -> stats.recordHttpCall(System.nanoTime() - start));
+        });
+    }
+}
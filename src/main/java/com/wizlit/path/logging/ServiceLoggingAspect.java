@@ -1,21 +1,30 @@
 package com.wizlit.path.logging;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.*;
-import org.slf4j.MDC;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Summary of sampled service calls: duration, outcome and, for a Flux, the number of emitted elements.
+ * Arguments and values are only logged with {@code app.logging.payloads=true}.
+ * The requestId in the MDC is restored by the automatic context propagation set up in {@link ReactorConfig}.
+ */
 @Aspect
 @Component
 @Slf4j
 @Order(2)
+@RequiredArgsConstructor
 public class ServiceLoggingAspect {
 
+    private final LogSampler sampler;
+
     // 1️⃣ Matches any public Mono-returning method in your services
     @Pointcut("execution(public reactor.core.publisher.Mono com.wizlit.path.service.*.*(..))")
     public void monoServiceMethods() {}
@@ -30,39 +39,53 @@ public class ServiceLoggingAspect {
 
     @Around("reactiveServiceMethods()")
     public Object logReactiveService(ProceedingJoinPoint jp) throws Throwable {
-        String className = jp.getSignature().toShortString();
-//        String method = jp.getSignature().getName();
-        Object[] args = jp.getArgs();
+        // 샘플링되지 않은 호출은 아무것도 만들지 않고 그대로 진행
+        if (!log.isInfoEnabled() || !sampler.sample(jp)) {
+            return jp.proceed();
+        }
+        String signature = jp.getSignature().toShortString();
+        boolean payloads = sampler.payloads();
+        if (payloads) {
+            log.info("▶▶ {} <= {}", signature, Arrays.toString(jp.getArgs()));
+        }
         Object result = jp.proceed();
 
         if (result instanceof Mono<?> mono) {
-            return Mono.deferContextual(ctx -> {
-                String reqId = ctx.get(RequestContextFilter.REQUEST_ID);
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
                 return mono
-                        .doOnSubscribe(s -> {
-                            MDC.put(RequestContextFilter.REQUEST_ID, reqId);
-                            log.info("▶▶ Mono ▶▶ {} <= {}", className, Arrays.toString(args));
+                        .doOnSuccess(r -> {
+                            if (payloads) {
+                                log.info("◀◀ Mono ◀◀ {} => {} ({} ms)", signature, r, elapsed(start));
+                            } else {
+                                log.info("◀◀ Mono ◀◀ {} ({} ms)", signature, elapsed(start));
+                            }
                         })
-                        .doOnSuccess(r -> log.info("◀◀ Mono ◀◀ {} => {}", className, r))
-                        .doOnError(e -> log.error("‼ {} failed: {}", className, e.toString()))
-                        .doFinally(s -> MDC.remove(RequestContextFilter.REQUEST_ID));
+                        .doOnError(e -> log.error("‼ {} failed after {} ms: {}", signature, elapsed(start), e.toString()));
             });
         }
         else if (result instanceof Flux<?> flux) {
-            return Flux.deferContextual(ctx -> {
-                    String reqId = ctx.get(RequestContextFilter.REQUEST_ID);
-                    return flux
-                            .doOnSubscribe(s -> {
-                                MDC.put(RequestContextFilter.REQUEST_ID, reqId);
-                                log.info("▶▶ Mono ▶▶ {} <= {}", className, Arrays.toString(args));
-                            })
-                            .doOnNext(r -> log.info("◀◀ Mono ◀◀ {} => {}", className, r))
-                            .doOnError(e -> log.error("‼ {} failed: {}", className, e.toString()))
-                            .doFinally(s -> MDC.remove(RequestContextFilter.REQUEST_ID));
-                });
+            return Flux.defer(() -> {
+                long start = System.nanoTime();
+                long[] count = {0};
+                return flux
+                        .doOnNext(r -> {
+                            count[0]++;
+                            if (payloads) {
+                                log.debug("◀◀ Flux ◀◀ {} => {}", signature, r);
+                            }
+                        })
+                        .doOnComplete(() -> log.info("◀◀ Flux ◀◀ {} => {} elements ({} ms)", signature, count[0], elapsed(start)))
+                        .doOnCancel(() -> log.info("◀◀ Flux ◀◀ {} cancelled after {} elements ({} ms)", signature, count[0], elapsed(start)))
+                        .doOnError(e -> log.error("‼ {} failed after {} elements ({} ms): {}", signature, count[0], elapsed(start), e.toString()));
+            });
         }
 
         return result;
     }
 
-}
\ No newline at end of file
+    static long elapsed(long start) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+}
@@ -3,8 +3,12 @@ package com.wizlit.path.model;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
+import java.util.List;
 
 @Data
 @AllArgsConstructor
@@ -12,4 +16,13 @@ import java.time.Instant;
 public class ResponseWithTimestamp<T> {
     private final Long serverTime = Instant.now().toEpochMilli();
     private final T data;
+
+    // the same document around data that already is JSON, joined without decoding or copying it
+    public static DataBuffer ofJson(byte[] data, DataBufferFactory factory) {
+        return factory.join(List.of(
+                factory.wrap(("{\"serverTime\":" + Instant.now().toEpochMilli() + ",\"data\":").getBytes(StandardCharsets.UTF_8)),
+                factory.wrap(data),
+                factory.wrap(new byte[]{'}'})
+        ));
+    }
 }
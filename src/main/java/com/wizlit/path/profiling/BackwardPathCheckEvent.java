@@ -0,0 +1,27 @@
+package com.wizlit.path.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.wizlit.path.BackwardPathCheck")
+@Label("Backward Path Check")
+@Description("Recursive search for a path from the destination back to the origin before connecting them")
+public class BackwardPathCheckEvent extends PathEvent {
+
+    @Label("Origin")
+    public long origin;
+
+    @Label("Destination")
+    public long destination;
+
+    @Label("Backward Path Found")
+    public boolean found;
+
+    public static BackwardPathCheckEvent of(Long origin, Long destination) {
+        BackwardPathCheckEvent event = new BackwardPathCheckEvent();
+        event.origin = origin;
+        event.destination = destination;
+        return event;
+    }
+}
@@ -0,0 +1,27 @@
+package com.wizlit.path.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.wizlit.path.DriveCall")
+@Label("Drive Call")
+@Description("Google Drive copy, rename or delete request")
+public class DriveCallEvent extends PathEvent {
+
+    @Label("Operation")
+    public String operation;
+
+    @Label("Source File")
+    public String sourceFileId;
+
+    @Label("Result File")
+    public String fileId;
+
+    public static DriveCallEvent of(String operation, String sourceFileId) {
+        DriveCallEvent event = new DriveCallEvent();
+        event.operation = operation;
+        event.sourceFileId = sourceFileId;
+        return event;
+    }
+}
@@ -0,0 +1,31 @@
+package com.wizlit.path.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.wizlit.path.EdgeSplit")
+@Label("Edge Split")
+@Description("Replacing an edge with two edges through a new middle point")
+public class EdgeSplitEvent extends PathEvent {
+
+    @Label("Origin")
+    public long origin;
+
+    @Label("Destination")
+    public long destination;
+
+    @Label("Middle")
+    public long middle;
+
+    @Label("Created Edges")
+    public long createdEdges;
+
+    public static EdgeSplitEvent of(Long origin, Long destination, Long middle) {
+        EdgeSplitEvent event = new EdgeSplitEvent();
+        event.origin = origin;
+        event.destination = destination;
+        event.middle = middle;
+        return event;
+    }
+}
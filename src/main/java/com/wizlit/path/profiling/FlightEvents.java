@@ -0,0 +1,72 @@
+package com.wizlit.path.profiling;
+
+import com.wizlit.path.exception.ApiException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.function.BiConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Wraps reactive calls in a {@link PathEvent}. When the event type is not enabled in a running recording,
+ * the source is subscribed to unchanged.
+ */
+public final class FlightEvents {
+
+    private FlightEvents() {}
+
+    public static <T, E extends PathEvent> Mono<T> record(Supplier<E> factory, Mono<T> source, BiConsumer<E, T> onSuccess) {
+        return Mono.defer(() -> {
+            E event = factory.get();
+            if (!event.isEnabled()) {
+                return source;
+            }
+            event.begin();
+            return source
+                    .doOnSuccess(value -> {
+                        event.outcome = "OK";
+                        if (value != null) {
+                            onSuccess.accept(event, value);
+                        }
+                    })
+                    .doOnError(error -> event.outcome = outcome(error))
+                    .doOnCancel(() -> event.outcome = "CANCELLED")
+                    .doFinally(signal -> commit(event));
+        });
+    }
+
+    // Flux 는 방출된 요소 수를 함께 기록
+    public static <T, E extends PathEvent> Flux<T> record(Supplier<E> factory, Flux<T> source, ObjLongConsumer<E> onComplete) {
+        return Flux.defer(() -> {
+            E event = factory.get();
+            if (!event.isEnabled()) {
+                return source;
+            }
+            long[] count = {0};
+            event.begin();
+            return source
+                    .doOnNext(value -> count[0]++)
+                    .doOnComplete(() -> event.outcome = "OK")
+                    .doOnError(error -> event.outcome = outcome(error))
+                    .doOnCancel(() -> event.outcome = "CANCELLED")
+                    .doFinally(signal -> {
+                        onComplete.accept(event, count[0]);
+                        commit(event);
+                    });
+        });
+    }
+
+    private static void commit(PathEvent event) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.commit();
+        }
+    }
+
+    private static String outcome(Throwable error) {
+        return error instanceof ApiException apiException
+                ? apiException.getErrorCode().name()
+                : error.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,108 @@
+package com.wizlit.path.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.boot.actuate.endpoint.Access;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * {@code /actuator/flightrecording}: POST starts a recording (JDK {@code default} or {@code profile} settings,
+ * kept for {@code maxAgeMinutes}), GET downloads what it has recorded so far as a .jfr file, DELETE stops it.
+ * <p>
+ * The recording includes the {@link PathEvent}s next to the JVM's GC and allocation events. A dump can hold
+ * request paths and Drive file ids, so the endpoint is off unless {@code management.endpoint.flightrecording.access}
+ * is set.
+ */
+@Component
+@Endpoint(id = "flightrecording", defaultAccess = Access.NONE)
+public class FlightRecordingEndpoint {
+
+    private Recording recording;
+    private Path lastDump;
+
+    @WriteOperation
+    public synchronized Map<String, Object> start(@Nullable String settings, @Nullable Integer maxAgeMinutes) throws IOException, ParseException {
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            return status();
+        }
+        close();
+        recording = new Recording(Configuration.getConfiguration(settings == null ? "profile" : settings));
+        recording.setName("path");
+        recording.setToDisk(true);
+        recording.setMaxAge(Duration.ofMinutes(maxAgeMinutes == null ? 10 : maxAgeMinutes));
+        recording.enable(GraphLoadEvent.class);
+        recording.enable(BackwardPathCheckEvent.class);
+        recording.enable(EdgeSplitEvent.class);
+        recording.enable(DriveCallEvent.class);
+        recording.enable(TokenVerificationEvent.class);
+        recording.start();
+        return status();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public synchronized Resource dump() throws IOException {
+        if (recording == null) {
+            return null;
+        }
+        // 이전 dump 파일은 다음 dump 때 정리
+        deleteLastDump();
+        lastDump = Files.createTempFile("path-", ".jfr");
+        recording.dump(lastDump);
+        return new FileSystemResource(lastDump);
+    }
+
+    @DeleteOperation
+    public synchronized Map<String, Object> stop() {
+        Map<String, Object> status = status();
+        if (recording != null && recording.getState() == RecordingState.RUNNING) {
+            recording.stop();
+            status = status();
+        }
+        return status;
+    }
+
+    private Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("state", recording == null ? "NONE" : recording.getState().name());
+        if (recording != null) {
+            status.put("started", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("size", recording.getSize());
+        }
+        return status;
+    }
+
+    private void close() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private void deleteLastDump() {
+        if (lastDump != null) {
+            try {
+                Files.deleteIfExists(lastDump);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.wizlit.path.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.wizlit.path.GraphLoad")
+@Label("Graph Load")
+@Description("Loading the points or the edges of one graph")
+public class GraphLoadEvent extends PathEvent {
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Graph")
+    public String graph;
+
+    @Label("Loaded Rows")
+    public long rows;
+
+    public static GraphLoadEvent points(String graph) {
+        GraphLoadEvent event = new GraphLoadEvent();
+        event.stage = "points";
+        event.graph = graph;
+        return event;
+    }
+
+    public static GraphLoadEvent edges(String graph) {
+        GraphLoadEvent event = new GraphLoadEvent();
+        event.stage = "edges";
+        event.graph = graph;
+        return event;
+    }
+}
@@ -0,0 +1,18 @@
+package com.wizlit.path.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Base of the application's flight recorder events. The duration covers the reactive call from subscription
+ * to termination; {@code outcome} is {@code OK}, {@code CANCELLED}, an error code or an exception class name.
+ */
+@Category("Path")
+@StackTrace(false)
+public abstract class PathEvent extends Event {
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,24 @@
+package com.wizlit.path.profiling;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.wizlit.path.TokenVerification")
+@Label("Token Verification")
+@Description("Verification of the bearer token of a private request")
+public class TokenVerificationEvent extends PathEvent {
+
+    @Label("Token Type")
+    public String tokenType;
+
+    @Label("Path")
+    public String path;
+
+    public static TokenVerificationEvent of(String tokenType, String path) {
+        TokenVerificationEvent event = new TokenVerificationEvent();
+        event.tokenType = tokenType;
+        event.path = path;
+        return event;
+    }
+}
@@ -0,0 +1,70 @@
+package com.wizlit.path.replication;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Changes of one committed write transaction, published on {@link GraphReplication#CHANNEL}.
+ * Field names are short since a NOTIFY payload is limited to 8000 bytes.
+ *
+ * @param graph   graph id ({@code last_update.id})
+ * @param version graph version the transaction committed
+ * @param at      publisher's clock when publishing, epoch millis
+ * @param ops     changes in the order they were made; null when they did not fit, receivers then resync
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record GraphDelta(
+        @JsonProperty("g") String graph,
+        @JsonProperty("v") long version,
+        @JsonProperty("at") long at,
+        @JsonProperty("ops") List<Op> ops
+) {
+
+    public enum Type {
+        /** point inserted or updated, carries the whole row */
+        @JsonProperty("p") POINT,
+        /** edge inserted */
+        @JsonProperty("e") EDGE,
+        /** edge deleted, identified by its points */
+        @JsonProperty("-e") REMOVE_EDGE
+    }
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record Op(
+            @JsonProperty("t") Type type,
+            @JsonProperty("id") Long id,
+            @JsonProperty("o") Long origin,
+            @JsonProperty("d") Long destination,
+            @JsonProperty("title") String title,
+            @JsonProperty("objective") String objective,
+            @JsonProperty("document") String document,
+            @JsonProperty("created") Timestamp createdOn
+    ) {
+
+        public static Op point(Point point) {
+            return new Op(Type.POINT, point.getId(), null, null,
+                    point.getTitle(), point.getObjective(), point.getDocument(), point.getCreatedOn());
+        }
+
+        public static Op edge(Edge edge) {
+            return new Op(Type.EDGE, edge.getId(), edge.getOriginPoint(), edge.getDestinationPoint(), null, null, null, null);
+        }
+
+        public static Op removeEdge(Edge edge) {
+            return new Op(Type.REMOVE_EDGE, null, edge.getOriginPoint(), edge.getDestinationPoint(), null, null, null, null);
+        }
+
+        public Point toPoint() {
+            return Point.builder().id(id).title(title).objective(objective).document(document).createdOn(createdOn).build();
+        }
+
+        public Edge toEdge() {
+            return Edge.builder().id(id).originPoint(origin).destinationPoint(destination).build();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.wizlit.path.replication;
+
+import com.wizlit.path.replication.GraphDelta.Op;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Collects the changes of the current transaction, to be recorded and published with its graph version by
+ * {@code LastUpdateService#update} and {@link GraphReplication#delta}. Writes outside a transaction are not replicated.
+ */
+public final class GraphDeltas {
+
+    private GraphDeltas() {
+    }
+
+    /**
+     * Records the change made by {@code write} once it succeeded.
+     */
+    public static <T> Mono<T> record(Mono<T> write, Function<T, Op> op) {
+        return write.flatMap(value -> add(op.apply(value)).thenReturn(value));
+    }
+
+    public static <T> Flux<T> record(Flux<T> write, Function<T, Op> op) {
+        return write.concatMap(value -> add(op.apply(value)).thenReturn(value));
+    }
+
+    public static Mono<Void> record(Mono<Void> write, Op op) {
+        return write.then(add(op));
+    }
+
+    // changes recorded so far in the current transaction, empty outside a transaction
+    public static Mono<List<Op>> collected() {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .map(GraphDeltas::ops)
+                .onErrorResume(NoTransactionException.class, none -> Mono.just(List.of()));
+    }
+
+    private static Mono<Void> add(Op op) {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .doOnNext(synchronization -> ops(synchronization).add(op))
+                .onErrorResume(NoTransactionException.class, none -> Mono.empty())
+                .then();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Op> ops(TransactionSynchronizationManager synchronization) {
+        List<Op> ops = (List<Op>) synchronization.getResource(GraphDeltas.class);
+        if (ops == null) {
+            ops = new ArrayList<>();
+            synchronization.bindResource(GraphDeltas.class, ops);
+        }
+        return ops;
+    }
+}
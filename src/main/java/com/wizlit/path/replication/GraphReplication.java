@@ -0,0 +1,256 @@
+package com.wizlit.path.replication;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.LastUpdate;
+import com.wizlit.path.entity.Point;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.postgresql.api.Notification;
+import io.r2dbc.postgresql.api.PostgresqlConnection;
+import io.r2dbc.postgresql.api.PostgresqlResult;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.springframework.data.relational.core.query.Criteria.where;
+import static org.springframework.data.relational.core.query.Query.query;
+
+/**
+ * Keeps an in-memory {@link GraphState} of every graph in sync across nodes.
+ * <p>
+ * Every write transaction publishes its changes and new graph version with {@code pg_notify}, which Postgres
+ * delivers on commit, in commit order. Each node listens on a dedicated connection of the primary and applies
+ * the deltas of each graph in version order. When a version of a graph is missing only that graph is reloaded;
+ * all graphs are reloaded from one consistent snapshot when it starts listening and after reconnecting, since
+ * notifications sent while not listening are lost.
+ * <p>
+ * Staleness is the time from publishing a delta to applying it on this node, across nodes' clocks.
+ */
+@Slf4j
+@Component
+public class GraphReplication {
+
+    public static final String CHANNEL = "graph_delta";
+
+    // NOTIFY payloads must stay below 8000 bytes
+    private static final int MAX_PAYLOAD = 7900;
+    private static final Object RESYNC = new Object();
+
+    private final boolean enabled;
+    private final ConnectionFactory listenerConnections;
+    private final R2dbcEntityTemplate template;
+    private final TransactionalOperator snapshot;
+    private final ObjectMapper mapper;
+    private final MeterRegistry registry;
+    private final Map<String, GraphState> states = new ConcurrentHashMap<>();
+    private final Timer staleness;
+
+    private Disposable listener;
+
+    public GraphReplication(
+            @Value("${app.graph.replication.enabled:false}") boolean enabled,
+            @Value("${spring.r2dbc.url:}") String url,
+            @Value("${spring.r2dbc.username:}") String username,
+            @Value("${spring.r2dbc.password:}") String password,
+            R2dbcEntityTemplate template,
+            R2dbcTransactionManager transactionManager,
+            ObjectMapper mapper,
+            MeterRegistry registry
+    ) {
+        this.enabled = enabled;
+        this.listenerConnections = enabled
+                ? ConnectionFactoryBuilder.withUrl(url).username(username).password(password).build()
+                : null;
+        this.template = template;
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition();
+        definition.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        definition.setReadOnly(true);
+        this.snapshot = TransactionalOperator.create(transactionManager, definition);
+        this.mapper = mapper;
+        this.registry = registry;
+        this.staleness = Timer.builder("path.graph.replication.staleness")
+                .description("Time from publishing a graph delta to applying it on this node")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+        Gauge.builder("path.graph.replication.graphs", states,
+                        graphs -> graphs.values().stream().filter(state -> state.version() >= 0).count())
+                .description("Graphs held in memory and in sync")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        listener = Flux.usingWhen(Mono.from(listenerConnections.create()),
+                        connection -> listen((PostgresqlConnection) connection),
+                        Connection::close)
+                .concatMap(this::handle)
+                .doOnError(error -> {
+                    states.values().forEach(GraphState::invalidate);
+                    log.warn("Graph replication listener failed, reconnecting: {}", error.toString());
+                })
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (listener != null) {
+            listener.dispose();
+        }
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * The in-memory graph, or null if replication is off, the graph is not in sync, or behind {@code minVersion}.
+     */
+    public GraphState.View view(String graphId, long minVersion) {
+        GraphState state = enabled ? states.get(graphId) : null;
+        return state == null ? null : state.view(minVersion);
+    }
+
+    /**
+     * Payload announcing the changes of the current transaction at the version it just took.
+     * Empty when replication is off.
+     */
+    public Mono<String> delta(LastUpdate lastUpdate) {
+        if (!enabled) {
+            return Mono.empty();
+        }
+        return GraphDeltas.collected().map(ops -> {
+            GraphDelta delta = new GraphDelta(lastUpdate.getId(), lastUpdate.getVersion(), System.currentTimeMillis(), ops);
+            String payload = encode(delta);
+            // 너무 크면 변경 내용 없이 보내고 받는 쪽이 다시 읽음
+            return payload.getBytes(StandardCharsets.UTF_8).length <= MAX_PAYLOAD
+                    ? payload
+                    : encode(new GraphDelta(delta.graph(), delta.version(), delta.at(), null));
+        });
+    }
+
+    // a resync first: anything committed before LISTEN took effect is only in the database
+    private Flux<Object> listen(PostgresqlConnection connection) {
+        return connection.createStatement("LISTEN " + CHANNEL)
+                .execute()
+                .flatMap(PostgresqlResult::getRowsUpdated)
+                .thenMany(Flux.just(RESYNC)
+                        .concatWith(connection.getNotifications()
+                                .onBackpressureBuffer()
+                                .map(Notification::getParameter))
+                        .concatWith(Mono.error(new IllegalStateException("listener connection closed"))));
+    }
+
+    private Mono<Void> handle(Object event) {
+        if (event == RESYNC) {
+            return resyncAll("listen");
+        }
+        GraphDelta delta;
+        try {
+            delta = mapper.readValue((String) event, GraphDelta.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Unreadable graph delta, resyncing: {}", e.getOriginalMessage());
+            return resyncAll("unreadable");
+        }
+        // 처음 보는 graph 는 GAP 으로 한 번 읽어옴
+        return switch (states.computeIfAbsent(delta.graph(), id -> new GraphState()).apply(delta)) {
+            case APPLIED -> {
+                staleness.record(Math.max(0, System.currentTimeMillis() - delta.at()), TimeUnit.MILLISECONDS);
+                yield Mono.empty();
+            }
+            case STALE -> Mono.empty();
+            case GAP -> resync("gap", delta.graph());
+        };
+    }
+
+    // version, points and edges of one graph from one snapshot, on the primary (a transaction)
+    private Mono<Void> resync(String reason, String graphId) {
+        registry.counter("path.graph.replication.resyncs", "reason", reason).increment();
+        long start = System.nanoTime();
+        return template.getDatabaseClient()
+                .sql("SELECT version FROM last_update WHERE id = :id")
+                .bind("id", graphId)
+                .map(row -> row.get("version", Long.class))
+                .one()
+                .defaultIfEmpty(0L)
+                .flatMap(version -> template.select(Point.class).matching(query(where("graphId").is(graphId))).all().collectList()
+                        .flatMap(points -> template.select(Edge.class).matching(query(where("graphId").is(graphId))).all().collectList()
+                                .doOnNext(edges -> {
+                                    states.computeIfAbsent(graphId, id -> new GraphState()).reset(version, points, edges);
+                                    log.info("Graph {} resynced ({}) at version {}: {} points, {} edges in {} ms", graphId, reason,
+                                            version, points.size(), edges.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                                })))
+                .as(snapshot::transactional)
+                .then();
+    }
+
+    // every graph from one snapshot; graphs that no longer have rows are dropped
+    private Mono<Void> resyncAll(String reason) {
+        registry.counter("path.graph.replication.resyncs", "reason", reason).increment();
+        long start = System.nanoTime();
+        return template.getDatabaseClient()
+                .sql("SELECT id, version FROM last_update")
+                .map(row -> Map.entry(row.get("id", String.class), row.get("version", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .flatMap(versions -> template.select(Point.class).all().collectList()
+                        .flatMap(points -> template.select(Edge.class).all().collectList()
+                                .doOnNext(edges -> {
+                                    Map<String, List<Point>> pointsByGraph = points.stream()
+                                            .collect(Collectors.groupingBy(Point::getGraphId));
+                                    Map<String, List<Edge>> edgesByGraph = edges.stream()
+                                            .collect(Collectors.groupingBy(Edge::getGraphId));
+                                    Set<String> graphs = new HashSet<>(versions.keySet());
+                                    graphs.addAll(pointsByGraph.keySet());
+                                    graphs.forEach(graphId -> states.computeIfAbsent(graphId, id -> new GraphState())
+                                            .reset(versions.getOrDefault(graphId, 0L),
+                                                    pointsByGraph.getOrDefault(graphId, List.of()),
+                                                    edgesByGraph.getOrDefault(graphId, List.of())));
+                                    states.keySet().retainAll(graphs);
+                                    log.info("Graphs resynced ({}): {} graphs, {} points, {} edges in {} ms", reason, graphs.size(),
+                                            points.size(), edges.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                                })))
+                .as(snapshot::transactional)
+                .then();
+    }
+
+    private String encode(GraphDelta delta) {
+        try {
+            return mapper.writeValueAsString(delta);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Graph delta is not serializable", e);
+        }
+    }
+}
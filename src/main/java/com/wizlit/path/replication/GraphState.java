@@ -0,0 +1,100 @@
+package com.wizlit.path.replication;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.replication.GraphDelta.Op;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory copy of one graph at a known version. Deltas are applied strictly in version order;
+ * anything else asks for a full reload.
+ */
+public final class GraphState {
+
+    public enum Outcome {
+        APPLIED,
+        /** already contained (duplicate or older than the last reload) */
+        STALE,
+        /** a version was skipped, or the delta has no changes: reload */
+        GAP
+    }
+
+    /**
+     * Copy of the graph for one read.
+     */
+    public record View(long version, List<Point> points, List<Edge> edges) {}
+
+    private record Link(long origin, long destination) {}
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Point> points = new HashMap<>();
+    private final Map<Link, Edge> edges = new HashMap<>();
+    // -1: not loaded, or no longer followed
+    private volatile long version = -1;
+
+    public long version() {
+        return version;
+    }
+
+    public void reset(long version, List<Point> points, List<Edge> edges) {
+        lock.writeLock().lock();
+        try {
+            this.points.clear();
+            this.edges.clear();
+            points.forEach(point -> this.points.put(point.getId(), point));
+            edges.forEach(edge -> this.edges.put(new Link(edge.getOriginPoint(), edge.getDestinationPoint()), edge));
+            this.version = version;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // deltas can no longer be followed (listener lost): nothing is served until the next reset
+    public void invalidate() {
+        version = -1;
+    }
+
+    public Outcome apply(GraphDelta delta) {
+        lock.writeLock().lock();
+        try {
+            if (version >= 0 && delta.version() <= version) {
+                return Outcome.STALE;
+            }
+            if (version < 0 || delta.version() > version + 1 || delta.ops() == null) {
+                return Outcome.GAP;
+            }
+            for (Op op : delta.ops()) {
+                switch (op.type()) {
+                    case POINT -> points.put(op.id(), op.toPoint());
+                    case EDGE -> edges.put(new Link(op.origin(), op.destination()), op.toEdge());
+                    case REMOVE_EDGE -> edges.remove(new Link(op.origin(), op.destination()));
+                }
+            }
+            version = delta.version();
+            return Outcome.APPLIED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The graph, or null if it is not loaded or older than {@code minVersion}.
+     */
+    public View view(long minVersion) {
+        lock.readLock().lock();
+        try {
+            if (version < 0 || version < minVersion) {
+                return null;
+            }
+            return new View(version, new ArrayList<>(points.values()), new ArrayList<>(edges.values()));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
@@ -8,29 +8,27 @@ import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
-import java.util.Collection;
-
 @Repository
 public interface EdgeRepository extends ReactiveCrudRepository<Edge, Long> {
     // You can add custom query methods, e.g.,
     // Flux<User> findByName(String name);
     
-    Mono<Edge> findByOriginPointAndDestinationPoint(Long originPoint, Long destinationPoint);
+    Mono<Edge> findByGraphIdAndOriginPointAndDestinationPoint(String graphId, Long originPoint, Long destinationPoint);
 
-    @Query("WITH RECURSIVE paths AS (" +
-            "  SELECT origin_point, destination_point, 1 AS depth FROM edge " +
-            "  WHERE origin_point = :origin_point " +
-            "  UNION ALL " +
-            "  SELECT p.origin_point, e.destination_point, p.depth + 1 " +
-            "  FROM paths p " +
-            "  INNER JOIN edge e ON p.destination_point = e.origin_point " +
-            "  WHERE p.depth < :depth" +
+    // edges never leave their graph (fk_graph_start, fk_graph_end), so the walk stays within the origin's graph
+    // every point reachable from origin, without a depth limit: UNION drops points already reached, so it ends
+    @Query("WITH RECURSIVE reachable (point) AS (" +
+            "  SELECT destination_point FROM edge WHERE origin_point = :origin_point " +
+            "  UNION " +
+            "  SELECT e.destination_point FROM reachable r " +
+            "  INNER JOIN edge e ON e.origin_point = r.point" +
             ") " +
-            "SELECT CASE WHEN COUNT(*) > 0 THEN TRUE ELSE FALSE END " +
-            "FROM paths " +
-            "WHERE destination_point = :destination_point")
-    Mono<Boolean> existsPathWithinDepth(@Param("origin_point") Long originPoint, @Param("destination_point") Long destinationPoint, @Param("depth") int depth);
+            "SELECT EXISTS (SELECT 1 FROM reachable WHERE point = :destination_point)")
+    Mono<Boolean> existsPath(@Param("origin_point") Long originPoint, @Param("destination_point") Long destinationPoint);
+
+    // transaction-scoped advisory lock: released by postgres on commit or rollback
+    @Query("SELECT 1 FROM pg_advisory_xact_lock(hashtext(:graph_id))")
+    Mono<Integer> lockGraph(@Param("graph_id") String graphId);
 
-    @Query("SELECT * FROM edge WHERE origin_point IN (:points) OR destination_point IN (:points)")
-    Flux<Edge> findAllByPointIdIn(@Param("points") Collection<Long> points);
+    Flux<Edge> findAllByGraphId(String graphId);
 }
\ No newline at end of file
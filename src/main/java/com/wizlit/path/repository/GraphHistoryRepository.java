@@ -0,0 +1,56 @@
+package com.wizlit.path.repository;
+
+import com.wizlit.path.entity.GraphEvent;
+import com.wizlit.path.entity.GraphSnapshot;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Repository
+public interface GraphHistoryRepository extends ReactiveCrudRepository<GraphSnapshot, Long> {
+
+    @Query("SELECT * FROM graph_snapshot WHERE graph_id = :graph_id AND valid_from <= :as_of " +
+            "ORDER BY version DESC LIMIT 1")
+    Mono<GraphSnapshot> findLatestSnapshot(@Param("graph_id") String graphId, @Param("as_of") Instant asOf);
+
+    @Query("SELECT * FROM graph_event WHERE graph_id = :graph_id AND version > :after AND occurred_at <= :as_of " +
+            "ORDER BY version")
+    Flux<GraphEvent> findEvents(@Param("graph_id") String graphId, @Param("after") long after, @Param("as_of") Instant asOf);
+
+    // oldest version with history, -1 for none
+    @Query("SELECT coalesce(min(version), -1) FROM (" +
+            "SELECT version FROM graph_event WHERE graph_id = :graph_id " +
+            "UNION ALL SELECT version FROM graph_snapshot WHERE graph_id = :graph_id) history")
+    Mono<Long> findFirstVersion(@Param("graph_id") String graphId);
+
+    // first version recorded after :as_of, by an event or a snapshot, -1 for none
+    @Query("SELECT coalesce(min(version), -1) FROM (" +
+            "SELECT version FROM graph_event WHERE graph_id = :graph_id AND occurred_at > :as_of " +
+            "UNION ALL SELECT version FROM graph_snapshot WHERE graph_id = :graph_id AND valid_from > :as_of) history")
+    Mono<Long> findFirstVersionAfter(@Param("graph_id") String graphId, @Param("as_of") Instant asOf);
+
+    // only graph_id and occurred_at (of the latest event) are set
+    @Query("SELECT e.graph_id, max(e.occurred_at) AS occurred_at FROM graph_event e " +
+            "WHERE e.version > coalesce((SELECT max(s.version) FROM graph_snapshot s WHERE s.graph_id = e.graph_id), -1) " +
+            "GROUP BY e.graph_id HAVING count(*) >= :every")
+    Flux<GraphEvent> findGraphsDueForSnapshot(@Param("every") int every);
+
+    // nodes compacting at the same time write the same snapshot
+    @Modifying
+    @Query("INSERT INTO graph_snapshot (graph_id, version, valid_from, body) " +
+            "VALUES (:graph_id, :version, :valid_from, CAST(:body AS json)) ON CONFLICT (graph_id, version) DO NOTHING")
+    Mono<Integer> insertSnapshot(@Param("graph_id") String graphId, @Param("version") long version,
+                                 @Param("valid_from") Instant validFrom, @Param("body") String body);
+
+    // events up to the last snapshot before :before: older reads are answered from snapshots alone
+    @Modifying
+    @Query("DELETE FROM graph_event e WHERE e.version <= " +
+            "(SELECT max(s.version) FROM graph_snapshot s WHERE s.graph_id = e.graph_id AND s.valid_from < :before)")
+    Mono<Integer> deleteEventsCoveredBefore(@Param("before") Instant before);
+}
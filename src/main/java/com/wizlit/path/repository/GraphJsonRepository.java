@@ -0,0 +1,45 @@
+package com.wizlit.path.repository;
+
+import com.wizlit.path.entity.GraphJson;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface GraphJsonRepository extends ReactiveCrudRepository<GraphJson, String> {
+
+    /**
+     * Expression of {@code OutputPathDto} as Jackson writes it: compact, ids as strings, {@code created_on} as
+     * ISO-8601 UTC with millis. Built as text since {@code json_build_object} pads keys and values with spaces.
+     * {@code :id} is the graph, {@code :zone} the application's time zone, which {@code TIMESTAMP} columns are read in.
+     */
+    String RENDER = "(CASE WHEN NOT EXISTS (SELECT 1 FROM point WHERE graph_id = :id) THEN '{\"nodes\":null,\"edges\":null}' " +
+            "ELSE '{\"nodes\":{' || (SELECT string_agg(" +
+            "to_json(p.id::text)::text || ':{\"id\":' || to_json(p.id::text)::text" +
+            " || ',\"title\":' || coalesce(to_json(p.title)::text, 'null')" +
+            " || ',\"objective\":' || coalesce(to_json(p.objective)::text, 'null')" +
+            " || ',\"document\":' || coalesce(to_json(p.document)::text, 'null')" +
+            " || ',\"created_on\":' || coalesce('\"' || to_char(p.created_on AT TIME ZONE :zone AT TIME ZONE 'UTC', " +
+            "'YYYY-MM-DD\"T\"HH24:MI:SS.MS\"+00:00\"') || '\"', 'null') || '}', ',') FROM point p WHERE p.graph_id = :id)" +
+            " || '},\"edges\":[' || coalesce((SELECT string_agg(" +
+            "'{\"origin\":\"' || e.origin_point || '\",\"destination\":\"' || e.destination_point || '\",\"trimmed\":false}', ',') " +
+            "FROM edge e WHERE e.graph_id = :id), '') || ']}' END)::json";
+
+    // only body is set
+    @Query("SELECT " + RENDER + " AS body")
+    Mono<GraphJson> render(@Param("id") String id, @Param("zone") String zone);
+
+    // stored body if it is at the graph's current version, otherwise rendered and stored in the same statement;
+    // empty when a concurrent reader stored a newer one first
+    @Query("WITH current AS (SELECT coalesce((SELECT version FROM last_update WHERE id = :id), 0) AS version), " +
+            "stored AS (SELECT s.* FROM graph_json s, current c WHERE s.id = :id AND s.version = c.version), " +
+            "rendered AS (INSERT INTO graph_json (id, version, body) " +
+            "SELECT :id, c.version, " + RENDER + " FROM current c WHERE NOT EXISTS (SELECT 1 FROM stored) " +
+            "ON CONFLICT (id) DO UPDATE SET version = EXCLUDED.version, body = EXCLUDED.body " +
+            "WHERE graph_json.version < EXCLUDED.version " +
+            "RETURNING *) " +
+            "SELECT * FROM stored UNION ALL SELECT * FROM rendered")
+    Mono<GraphJson> renderAtCurrentVersion(@Param("id") String id, @Param("zone") String zone);
+}
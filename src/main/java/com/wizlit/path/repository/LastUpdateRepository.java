@@ -1,9 +1,30 @@
 package com.wizlit.path.repository;
 
 import com.wizlit.path.entity.LastUpdate;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
 
 @Repository
 public interface LastUpdateRepository extends ReactiveCrudRepository<LastUpdate, String> {
+
+    // single statement upsert: the row lock orders concurrent writers, so no increment is lost.
+    // the write's changes go to graph_event under the new version; clock_timestamp() is read after the row lock,
+    // so occurred_at grows with the version
+    @Query("WITH touched AS (" +
+            "INSERT INTO last_update (id, updated_time, version) VALUES (:id, :updated_time, 1) " +
+            "ON CONFLICT (id) DO UPDATE SET updated_time = EXCLUDED.updated_time, version = last_update.version + 1 " +
+            "RETURNING *), " +
+            "recorded AS (INSERT INTO graph_event (graph_id, version, occurred_at, ops) " +
+            "SELECT id, version, clock_timestamp(), CAST(:ops AS json) FROM touched) " +
+            "SELECT * FROM touched")
+    Mono<LastUpdate> touch(@Param("id") String id, @Param("updated_time") Instant updatedTime, @Param("ops") String ops);
+
+    // delivered to listeners when the surrounding transaction commits
+    @Query("SELECT true FROM pg_notify(:channel, :payload)")
+    Mono<Boolean> publish(@Param("channel") String channel, @Param("payload") String payload);
 }
\ No newline at end of file
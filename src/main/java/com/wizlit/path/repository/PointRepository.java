@@ -1,15 +1,32 @@
 package com.wizlit.path.repository;
 
 import com.wizlit.path.entity.Point;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.Collection;
 
 @Repository
 public interface PointRepository extends ReactiveCrudRepository<Point, Long> {
-    Mono<Boolean> existsByIdIn(Collection<Long> id);
+    Mono<Long> countByGraphIdAndIdIn(String graphId, Collection<Long> id);
+
+    Mono<Point> findByGraphIdAndId(String graphId, Long id);
+
+    Flux<Point> findAllByGraphId(String graphId);
+
+    // an id taken before the insert, e.g. to name the point's document first
+    @Query("SELECT nextval(pg_get_serial_sequence('point', 'id'))")
+    Mono<Long> nextId();
+
+    // unlike save(), returns the columns set by the database (created_on); a null id is taken from the sequence
+    @Query("INSERT INTO point (id, graph_id, title, objective, document) " +
+            "VALUES (COALESCE(:id, nextval(pg_get_serial_sequence('point', 'id'))), :graph_id, :title, :objective, :document) RETURNING *")
+    Mono<Point> insert(@Param("id") Long id, @Param("graph_id") String graphId, @Param("title") String title,
+                       @Param("objective") String objective, @Param("document") String document);
     // You can add custom query methods, e.g.,
     // Flux<User> findByName(String name);
 }
\ No newline at end of file
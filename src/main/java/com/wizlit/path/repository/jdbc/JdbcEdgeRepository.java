@@ -0,0 +1,148 @@
+package com.wizlit.path.repository.jdbc;
+
+import com.wizlit.path.entity.Edge;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link com.wizlit.path.repository.EdgeRepository} over JDBC, with the same statements.
+ */
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+public class JdbcEdgeRepository {
+
+    private static final String INSERT = "INSERT INTO edge (graph_id, origin_point, destination_point) VALUES (?, ?, ?) RETURNING *";
+
+    private final JdbcSessions sessions;
+
+    public Mono<Edge> findByGraphIdAndOriginPointAndDestinationPoint(String graphId, Long originPoint, Long destinationPoint) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT * FROM edge WHERE graph_id = ? AND origin_point = ? AND destination_point = ?")) {
+                statement.setString(1, graphId);
+                statement.setLong(2, originPoint);
+                statement.setLong(3, destinationPoint);
+                try (ResultSet rows = statement.executeQuery()) {
+                    return rows.next() ? _edge(rows) : null;
+                }
+            }
+        });
+    }
+
+    // see EdgeRepository#existsPath
+    public Mono<Boolean> existsPath(Long originPoint, Long destinationPoint) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("WITH RECURSIVE reachable (point) AS (" +
+                    "  SELECT destination_point FROM edge WHERE origin_point = ? " +
+                    "  UNION " +
+                    "  SELECT e.destination_point FROM reachable r " +
+                    "  INNER JOIN edge e ON e.origin_point = r.point" +
+                    ") " +
+                    "SELECT EXISTS (SELECT 1 FROM reachable WHERE point = ?)")) {
+                statement.setLong(1, originPoint);
+                statement.setLong(2, destinationPoint);
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return rows.getBoolean(1);
+                }
+            }
+        });
+    }
+
+    // transaction-scoped advisory lock: released by postgres on commit or rollback
+    public Mono<Integer> lockGraph(String graphId) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT 1 FROM pg_advisory_xact_lock(hashtext(?))")) {
+                statement.setString(1, graphId);
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return rows.getInt(1);
+                }
+            }
+        });
+    }
+
+    public Flux<Edge> findAllByGraphId(String graphId) {
+        return sessions.stream(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM edge WHERE graph_id = ?")) {
+                statement.setString(1, graphId);
+                try (ResultSet rows = statement.executeQuery()) {
+                    List<Edge> edges = new ArrayList<>();
+                    while (rows.next()) {
+                        edges.add(_edge(rows));
+                    }
+                    return edges;
+                }
+            }
+        });
+    }
+
+    public Mono<Edge> save(Edge edge) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                return _insert(statement, edge);
+            }
+        });
+    }
+
+    // one statement per edge, as ReactiveCrudRepository#saveAll
+    public Flux<Edge> saveAll(List<Edge> edges) {
+        return sessions.stream(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT)) {
+                List<Edge> saved = new ArrayList<>();
+                for (Edge edge : edges) {
+                    saved.add(_insert(statement, edge));
+                }
+                return saved;
+            }
+        });
+    }
+
+    // by its points: an edge is unique per origin and destination, and callers may not know its id
+    public Mono<Void> delete(Edge edge) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "DELETE FROM edge WHERE graph_id = ? AND origin_point = ? AND destination_point = ?")) {
+                statement.setString(1, edge.getGraphId());
+                statement.setLong(2, edge.getOriginPoint());
+                statement.setLong(3, edge.getDestinationPoint());
+                statement.executeUpdate();
+                return null;
+            }
+        });
+    }
+
+    private static Edge _insert(PreparedStatement statement, Edge edge) throws SQLException {
+        statement.setString(1, edge.getGraphId());
+        statement.setLong(2, edge.getOriginPoint());
+        statement.setLong(3, edge.getDestinationPoint());
+        try (ResultSet rows = statement.executeQuery()) {
+            rows.next();
+            Edge saved = _edge(rows);
+            // save() 처럼 넘겨받은 객체에도 id 를 채움
+            edge.setId(saved.getId());
+            edge.setCreated_on(saved.getCreated_on());
+            return saved;
+        }
+    }
+
+    private static Edge _edge(ResultSet row) throws SQLException {
+        return Edge.builder()
+                .id(row.getLong("id"))
+                .graphId(row.getString("graph_id"))
+                .originPoint(row.getLong("origin_point"))
+                .destinationPoint(row.getLong("destination_point"))
+                .created_on(row.getTimestamp("created_on"))
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.wizlit.path.repository.jdbc;
+
+import com.wizlit.path.entity.LastUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * {@link com.wizlit.path.repository.LastUpdateRepository} over JDBC, with the same statements.
+ * {@code updated_time} is converted as R2DBC does: written as an instant, read back as UTC.
+ */
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+public class JdbcLastUpdateRepository {
+
+    private final JdbcSessions sessions;
+
+    public Mono<LastUpdate> findById(String id) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM last_update WHERE id = ?")) {
+                statement.setString(1, id);
+                return _one(statement);
+            }
+        });
+    }
+
+    // see LastUpdateRepository#touch
+    public Mono<LastUpdate> touch(String id, Instant updatedTime, String ops) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("WITH touched AS (" +
+                    "INSERT INTO last_update (id, updated_time, version) VALUES (?, ?, 1) " +
+                    "ON CONFLICT (id) DO UPDATE SET updated_time = EXCLUDED.updated_time, version = last_update.version + 1 " +
+                    "RETURNING *), " +
+                    "recorded AS (INSERT INTO graph_event (graph_id, version, occurred_at, ops) " +
+                    "SELECT id, version, clock_timestamp(), CAST(? AS json) FROM touched) " +
+                    "SELECT * FROM touched")) {
+                statement.setString(1, id);
+                statement.setObject(2, updatedTime.atOffset(ZoneOffset.UTC));
+                statement.setString(3, ops);
+                return _one(statement);
+            }
+        });
+    }
+
+    // delivered to listeners when the surrounding transaction commits
+    public Mono<Boolean> publish(String channel, String payload) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT true FROM pg_notify(?, ?)")) {
+                statement.setString(1, channel);
+                statement.setString(2, payload);
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return rows.getBoolean(1);
+                }
+            }
+        });
+    }
+
+    private static LastUpdate _one(PreparedStatement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery()) {
+            if (!rows.next()) {
+                return null;
+            }
+            return LastUpdate.builder()
+                    .id(rows.getString("id"))
+                    .updated_time(rows.getObject("updated_time", LocalDateTime.class).toInstant(ZoneOffset.UTC))
+                    .version(rows.getLong("version"))
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.wizlit.path.repository.jdbc;
+
+import com.wizlit.path.entity.Point;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * {@link com.wizlit.path.repository.PointRepository} over JDBC, with the same statements.
+ */
+@Repository
+@Profile("jdbc")
+@RequiredArgsConstructor
+public class JdbcPointRepository {
+
+    private final JdbcSessions sessions;
+
+    // one statement for any number of ids, so it stays prepared
+    public Mono<Long> countByGraphIdAndIdIn(String graphId, Collection<Long> ids) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT count(*) FROM point WHERE graph_id = ? AND id = ANY (?)")) {
+                statement.setString(1, graphId);
+                statement.setArray(2, connection.createArrayOf("bigint", ids.toArray()));
+                try (ResultSet rows = statement.executeQuery()) {
+                    rows.next();
+                    return rows.getLong(1);
+                }
+            }
+        });
+    }
+
+    public Mono<Point> findByGraphIdAndId(String graphId, Long id) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "SELECT * FROM point WHERE graph_id = ? AND id = ?")) {
+                statement.setString(1, graphId);
+                statement.setLong(2, id);
+                return _one(statement);
+            }
+        });
+    }
+
+    public Flux<Point> findAllByGraphId(String graphId) {
+        return sessions.stream(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT * FROM point WHERE graph_id = ?")) {
+                statement.setString(1, graphId);
+                try (ResultSet rows = statement.executeQuery()) {
+                    List<Point> points = new ArrayList<>();
+                    while (rows.next()) {
+                        points.add(_point(rows));
+                    }
+                    return points;
+                }
+            }
+        });
+    }
+
+    // see PointRepository#nextId
+    public Mono<Long> nextId() {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("SELECT nextval(pg_get_serial_sequence('point', 'id'))");
+                 ResultSet rows = statement.executeQuery()) {
+                rows.next();
+                return rows.getLong(1);
+            }
+        });
+    }
+
+    public Mono<Point> insert(Long id, String graphId, String title, String objective, String document) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("INSERT INTO point (id, graph_id, title, objective, document) " +
+                    "VALUES (COALESCE(?, nextval(pg_get_serial_sequence('point', 'id'))), ?, ?, ?, ?) RETURNING *")) {
+                statement.setObject(1, id, Types.BIGINT);
+                statement.setString(2, graphId);
+                statement.setString(3, title);
+                statement.setString(4, objective);
+                statement.setString(5, document);
+                return _one(statement);
+            }
+        });
+    }
+
+    // update of an existing point; graph and creation time do not change
+    public Mono<Point> save(Point point) {
+        return sessions.call(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "UPDATE point SET title = ?, objective = ?, document = ? WHERE id = ? RETURNING *")) {
+                statement.setString(1, point.getTitle());
+                statement.setString(2, point.getObjective());
+                statement.setString(3, point.getDocument());
+                statement.setLong(4, point.getId());
+                return _one(statement);
+            }
+        });
+    }
+
+    private static Point _one(PreparedStatement statement) throws SQLException {
+        try (ResultSet rows = statement.executeQuery()) {
+            return rows.next() ? _point(rows) : null;
+        }
+    }
+
+    private static Point _point(ResultSet row) throws SQLException {
+        return Point.builder()
+                .id(row.getLong("id"))
+                .graphId(row.getString("graph_id"))
+                .title(row.getString("title"))
+                .objective(row.getString("objective"))
+                .document(row.getString("document"))
+                .createdOn(row.getTimestamp("created_on"))
+                .build();
+    }
+}
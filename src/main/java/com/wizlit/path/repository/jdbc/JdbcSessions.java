@@ -0,0 +1,196 @@
+package com.wizlit.path.repository.jdbc;
+
+import com.wizlit.path.scheduling.WorkSchedulers;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Blocking JDBC access for the {@code jdbc} profile, run off the event loop on the bounded {@code blocking}
+ * scheduler. Its size ({@code app.schedulers.blocking.threads}) defaults to the pool size
+ * ({@code app.jdbc.pool.maxSize}), so every thread can hold a connection; set separately, they can differ.
+ * <p>
+ * Inside a transaction of {@link JdbcTransactionManager} ({@code @Transactional},
+ * {@link org.springframework.transaction.reactive.TransactionalOperator}) all work runs on one JDBC connection, taken on
+ * first use and committed or rolled back with the transaction, so advisory locks and {@code pg_notify} behave as with
+ * R2DBC. Outside a transaction every call borrows a pooled connection in auto-commit mode.
+ * <p>
+ * Statements are prepared on the server from their first execution ({@code app.jdbc.prepareThreshold}) and large
+ * results are read through a cursor of {@code app.jdbc.fetchSize} rows.
+ */
+@Component
+@Profile("jdbc")
+public class JdbcSessions {
+
+    @FunctionalInterface
+    public interface Work<T> {
+        T run(Connection connection) throws SQLException;
+    }
+
+    /**
+     * The connection of one transaction, taken on first use.
+     */
+    static final class Session {
+
+        private final TransactionDefinition definition;
+        private Connection connection;
+        private boolean rollbackOnly;
+
+        private Session(TransactionDefinition definition) {
+            this.definition = definition;
+        }
+
+        void setRollbackOnly() {
+            rollbackOnly = true;
+        }
+
+        boolean isRollbackOnly() {
+            return rollbackOnly;
+        }
+    }
+
+    private final HikariDataSource dataSource;
+    private final Scheduler scheduler;
+
+    public JdbcSessions(
+            @Value("${app.jdbc.url:${spring.flyway.url}}") String url,
+            @Value("${app.jdbc.username:${spring.flyway.user:}}") String username,
+            @Value("${app.jdbc.password:${spring.flyway.password:}}") String password,
+            @Value("${app.jdbc.pool.maxSize:${spring.r2dbc.pool.max-size:10}}") int maxSize,
+            @Value("${app.jdbc.prepareThreshold:1}") int prepareThreshold,
+            @Value("${app.jdbc.fetchSize:1000}") int fetchSize,
+            WorkSchedulers schedulers,
+            MeterRegistry registry
+    ) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("jdbc");
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maxSize);
+        config.addDataSourceProperty("prepareThreshold", prepareThreshold);
+        config.addDataSourceProperty("defaultRowFetchSize", fetchSize);
+        config.setMetricRegistry(registry);
+        this.dataSource = new HikariDataSource(config);
+        this.scheduler = schedulers.blocking();
+    }
+
+    @PreDestroy
+    public void close() {
+        dataSource.close();
+    }
+
+    /**
+     * Runs the work on the connection of the current transaction, or on its own auto-commit connection.
+     * A null result completes empty.
+     */
+    public <T> Mono<T> call(Work<T> work) {
+        return _session()
+                .flatMap(session -> session
+                        .map(bound -> Mono.fromCallable(() -> work.run(_connection(bound))))
+                        .orElseGet(() -> Mono.fromCallable(() -> {
+                            try (Connection connection = dataSource.getConnection()) {
+                                return work.run(connection);
+                            }
+                        }))
+                        .subscribeOn(scheduler));
+    }
+
+    /**
+     * As {@link #call}, for many rows. Outside a transaction the rows are read in a read-only transaction of their
+     * own, which the driver needs to fetch through a cursor.
+     */
+    public <T> Flux<T> stream(Work<List<T>> work) {
+        return _session()
+                .flatMap(session -> session
+                        .map(bound -> Mono.fromCallable(() -> work.run(_connection(bound))))
+                        .orElseGet(() -> Mono.fromCallable(() -> {
+                            try (Connection connection = dataSource.getConnection()) {
+                                connection.setAutoCommit(false);
+                                connection.setReadOnly(true);
+                                try {
+                                    return work.run(connection);
+                                } finally {
+                                    connection.commit();
+                                }
+                            }
+                        }))
+                        .subscribeOn(scheduler))
+                .flatMapIterable(rows -> rows);
+    }
+
+    Session begin(TransactionDefinition definition) {
+        return new Session(definition);
+    }
+
+    Mono<Void> commit(Session session) {
+        return _onConnection(session, Connection::commit);
+    }
+
+    Mono<Void> rollback(Session session) {
+        return _onConnection(session, Connection::rollback);
+    }
+
+    Mono<Void> release(Session session) {
+        return _onConnection(session, Connection::close)
+                .doFinally(signal -> session.connection = null);
+    }
+
+    // the session of the current JdbcTransactionManager transaction, if any
+    private Mono<Optional<Session>> _session() {
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .map(synchronization -> Optional.ofNullable((Session) synchronization.getResource(this)))
+                .onErrorResume(NoTransactionException.class, error -> Mono.empty())
+                .defaultIfEmpty(Optional.empty());
+    }
+
+    // statements of one transaction run one after another, so the lazy connection needs no lock
+    private Connection _connection(Session session) throws SQLException {
+        if (session.connection == null) {
+            Connection connection = dataSource.getConnection();
+            try {
+                connection.setAutoCommit(false);
+                connection.setReadOnly(session.definition.isReadOnly());
+                if (session.definition.getIsolationLevel() != TransactionDefinition.ISOLATION_DEFAULT) {
+                    connection.setTransactionIsolation(session.definition.getIsolationLevel());
+                }
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+            session.connection = connection;
+        }
+        return session.connection;
+    }
+
+    @FunctionalInterface
+    private interface ConnectionAction {
+        void run(Connection connection) throws SQLException;
+    }
+
+    // nothing to do when the transaction never ran a statement
+    private Mono<Void> _onConnection(Session session, ConnectionAction action) {
+        if (session.connection == null) {
+            return Mono.empty();
+        }
+        return Mono.<Void>fromCallable(() -> {
+            action.run(session.connection);
+            return null;
+        }).subscribeOn(scheduler);
+    }
+}
@@ -0,0 +1,108 @@
+package com.wizlit.path.repository.jdbc;
+
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.UnexpectedRollbackException;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive transactions on a JDBC connection of {@link JdbcSessions}, for the {@code jdbc} profile.
+ * <p>
+ * The default transaction manager in that profile: {@code @Transactional} and the {@code TransactionalOperator}
+ * begin a transaction without taking any connection, the first statement takes one JDBC connection and the
+ * transaction commits or rolls it back. No R2DBC connection is held alongside. Components that stay on R2DBC use
+ * {@code r2dbcTransactionManager} explicitly.
+ */
+@Primary
+@Component
+@Profile("jdbc")
+public class JdbcTransactionManager extends AbstractReactiveTransactionManager {
+
+    private final JdbcSessions sessions;
+
+    public JdbcTransactionManager(JdbcSessions sessions) {
+        this.sessions = sessions;
+    }
+
+    private static final class JdbcTransaction {
+
+        private JdbcSessions.Session session;
+
+        private JdbcTransaction(JdbcSessions.Session session) {
+            this.session = session;
+        }
+    }
+
+    @Override
+    protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+        return new JdbcTransaction((JdbcSessions.Session) synchronizationManager.getResource(sessions));
+    }
+
+    @Override
+    protected boolean isExistingTransaction(Object transaction) {
+        return ((JdbcTransaction) transaction).session != null;
+    }
+
+    @Override
+    protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                 TransactionDefinition definition) {
+        return Mono.fromRunnable(() -> {
+            JdbcSessions.Session session = sessions.begin(definition);
+            ((JdbcTransaction) transaction).session = session;
+            synchronizationManager.bindResource(sessions, session);
+        });
+    }
+
+    @Override
+    protected Mono<Object> doSuspend(TransactionSynchronizationManager synchronizationManager, Object transaction) {
+        return Mono.fromSupplier(() -> {
+            ((JdbcTransaction) transaction).session = null;
+            return synchronizationManager.unbindResource(sessions);
+        });
+    }
+
+    @Override
+    protected Mono<Void> doResume(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                  Object suspendedResources) {
+        return Mono.fromRunnable(() -> synchronizationManager.bindResource(sessions, suspendedResources));
+    }
+
+    @Override
+    protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                  GenericReactiveTransaction status) {
+        JdbcSessions.Session session = ((JdbcTransaction) status.getTransaction()).session;
+        // a participating scope failed: the whole transaction rolls back
+        if (session.isRollbackOnly()) {
+            return sessions.rollback(session)
+                    .then(Mono.error(new UnexpectedRollbackException("Transaction was marked as rollback-only")));
+        }
+        return sessions.commit(session);
+    }
+
+    @Override
+    protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                    GenericReactiveTransaction status) {
+        return sessions.rollback(((JdbcTransaction) status.getTransaction()).session);
+    }
+
+    @Override
+    protected Mono<Void> doSetRollbackOnly(TransactionSynchronizationManager synchronizationManager,
+                                           GenericReactiveTransaction status) {
+        return Mono.fromRunnable(() -> ((JdbcTransaction) status.getTransaction()).session.setRollbackOnly());
+    }
+
+    @Override
+    protected Mono<Void> doCleanupAfterCompletion(TransactionSynchronizationManager synchronizationManager,
+                                                  Object transaction) {
+        JdbcSessions.Session session = ((JdbcTransaction) transaction).session;
+        return Mono.defer(() -> {
+            synchronizationManager.unbindResourceIfPossible(sessions);
+            return sessions.release(session);
+        });
+    }
+}
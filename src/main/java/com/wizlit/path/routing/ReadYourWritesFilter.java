@@ -0,0 +1,43 @@
+package com.wizlit.path.routing;
+
+import com.wizlit.path.controller.PathController;
+import com.wizlit.path.utils.GraphNamespace;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reads the graph version a client last saw ({@code X-Graph-Version}, as returned by writes) and the graph it
+ * belongs to into the Reactor context, so that {@link ReplicaRoutingConnectionFactory} does not serve it from an
+ * older replica.
+ */
+public class ReadYourWritesFilter implements WebFilter {
+
+    public static final String GRAPH_VERSION = "graphVersion";
+    public static final String GRAPH_ID = "graphId";
+
+    private static final PathPattern SCOPED = PathPatternParser.defaultInstance.parse("/api/graphs/{graphId}/**");
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String header = exchange.getRequest().getHeaders().getFirst(PathController.GRAPH_VERSION_HEADER);
+        if (header == null) {
+            return chain.filter(exchange);
+        }
+        long version;
+        try {
+            version = Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            // 잘못된 값은 무시 (replica 에서 읽음)
+            return chain.filter(exchange);
+        }
+        // unscoped routes (/api/path, /api/point) are the default graph
+        PathPattern.PathMatchInfo scoped = SCOPED.matchAndExtract(exchange.getRequest().getPath().pathWithinApplication());
+        String graphId = scoped == null ? GraphNamespace.DEFAULT : scoped.getUriVariables().get("graphId");
+        return chain.filter(exchange)
+                .contextWrite(context -> context.put(GRAPH_VERSION, version).put(GRAPH_ID, graphId));
+    }
+}
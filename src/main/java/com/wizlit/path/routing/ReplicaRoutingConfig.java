@@ -0,0 +1,86 @@
+package com.wizlit.path.routing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Duration;
+
+/**
+ * Read replica, enabled by a non-empty {@code app.replica.url}. The primary pool is then built here from {@code spring.r2dbc.*}
+ * instead of by Boot, and the application's {@link ConnectionFactory} routes between the two.
+ * Flyway still only migrates the primary.
+ */
+@Configuration
+@ConditionalOnExpression("!'${app.replica.url:}'.isEmpty()")
+@EnableConfigurationProperties(R2dbcProperties.class)
+public class ReplicaRoutingConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool primaryConnectionFactory(R2dbcProperties properties) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        return pool("primary", properties.getUrl(), properties.getUsername(), properties.getPassword(),
+                pool.getInitialSize(), pool.getMaxSize(), pool.getMaxIdleTime());
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionPool replicaConnectionFactory(
+            R2dbcProperties properties,
+            @Value("${app.replica.url}") String url,
+            @Value("${app.replica.username:${spring.r2dbc.username:}}") String username,
+            @Value("${app.replica.password:${spring.r2dbc.password:}}") String password,
+            @Value("${app.replica.pool.maxSize:${spring.r2dbc.pool.max-size:10}}") int maxSize
+    ) {
+        R2dbcProperties.Pool pool = properties.getPool();
+        return pool("replica", url, username, password, Math.min(pool.getInitialSize(), maxSize), maxSize, pool.getMaxIdleTime());
+    }
+
+    @Bean
+    public ReplicaVersionTracker replicaVersionTracker(
+            @Qualifier("replicaConnectionFactory") ConnectionFactory replica,
+            @Value("${app.replica.versionPollInterval:500ms}") Duration pollInterval,
+            MeterRegistry registry
+    ) {
+        return new ReplicaVersionTracker(replica, pollInterval, registry);
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingConnectionFactory connectionFactory(
+            @Qualifier("primaryConnectionFactory") ConnectionFactory primary,
+            @Qualifier("replicaConnectionFactory") ConnectionFactory replica,
+            ReplicaVersionTracker replicaVersion,
+            MeterRegistry registry
+    ) {
+        return new ReplicaRoutingConnectionFactory(primary, replica, replicaVersion, registry);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter() {
+        return new ReadYourWritesFilter();
+    }
+
+    private static ConnectionPool pool(String name, String url, String username, String password,
+                                       int initialSize, int maxSize, Duration maxIdleTime) {
+        ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .name(name)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxIdleTime(maxIdleTime)
+                .build());
+    }
+}
@@ -0,0 +1,69 @@
+package com.wizlit.path.routing;
+
+import com.wizlit.path.utils.GraphNamespace;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.r2dbc.connection.lookup.AbstractRoutingConnectionFactory;
+import org.springframework.transaction.NoTransactionException;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Sends every transaction to the primary and other statements to the replica.
+ * <p>
+ * Writes are expected to run in {@code @Transactional} methods. A read still goes to the primary when the
+ * request carries a graph version ({@link ReadYourWritesFilter}) the replica has not replayed yet, or when
+ * the replica's version could not be read recently.
+ */
+public class ReplicaRoutingConnectionFactory extends AbstractRoutingConnectionFactory {
+
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    private final ReplicaVersionTracker replicaVersion;
+    private final Counter transactions;
+    private final Counter lagging;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingConnectionFactory(ConnectionFactory primary, ConnectionFactory replica,
+                                           ReplicaVersionTracker replicaVersion, MeterRegistry registry) {
+        this.replicaVersion = replicaVersion;
+        setTargetConnectionFactories(Map.of(PRIMARY, primary, REPLICA, replica));
+        setDefaultTargetConnectionFactory(primary);
+        setLenientFallback(false);
+        this.transactions = route(registry, PRIMARY, "transaction");
+        this.lagging = route(registry, PRIMARY, "lag");
+        this.replicaReads = route(registry, REPLICA, "read");
+    }
+
+    private static Counter route(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("path.db.route")
+                .description("Connections handed out, by target database and reason")
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        // 트랜잭션 시작(doBegin) 시점에도 context 에 트랜잭션이 있으므로 커넥션은 primary 에서 받음
+        return TransactionSynchronizationManager.forCurrentTransaction()
+                .<Object>map(synchronization -> {
+                    transactions.increment();
+                    return PRIMARY;
+                })
+                .onErrorResume(NoTransactionException.class, none -> Mono.deferContextual(context -> {
+                    long required = context.getOrDefault(ReadYourWritesFilter.GRAPH_VERSION, 0L);
+                    String graphId = context.getOrDefault(ReadYourWritesFilter.GRAPH_ID, GraphNamespace.DEFAULT);
+                    if (!replicaVersion.covers(graphId, required)) {
+                        lagging.increment();
+                        return Mono.just(PRIMARY);
+                    }
+                    replicaReads.increment();
+                    return Mono.just(REPLICA);
+                }));
+    }
+}
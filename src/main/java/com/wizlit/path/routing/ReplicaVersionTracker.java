@@ -0,0 +1,79 @@
+package com.wizlit.path.routing;
+
+import com.wizlit.path.utils.GraphNamespace;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.r2dbc.core.DatabaseClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Graph versions the replica has replayed, polled from its {@code last_update} rows (one per graph).
+ * <p>
+ * The version is trusted for three poll intervals; after that (replica down or stuck) no version is covered
+ * and reads fall back to the primary until a poll succeeds again.
+ */
+@Slf4j
+public class ReplicaVersionTracker {
+
+    private final DatabaseClient replica;
+    private final Duration pollInterval;
+    private final long maxAgeNanos;
+
+    private volatile Map<String, Long> versions = Map.of();
+    private volatile long polledAt = System.nanoTime() - Long.MAX_VALUE / 2;
+    private Disposable scheduledPoll;
+
+    public ReplicaVersionTracker(ConnectionFactory replica, Duration pollInterval, MeterRegistry registry) {
+        this.replica = DatabaseClient.create(replica);
+        this.pollInterval = pollInterval;
+        this.maxAgeNanos = pollInterval.multipliedBy(3).toNanos();
+        Gauge.builder("path.db.replica.version", this, tracker -> tracker.versions.getOrDefault(GraphNamespace.DEFAULT, -1L))
+                .description("Version of the default graph last read from the replica")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduledPoll = Flux.interval(Duration.ZERO, pollInterval)
+                .concatMap(tick -> refresh().onErrorResume(error -> {
+                    log.warn("Could not read the graph version of the replica: {}", error.toString());
+                    return Mono.empty();
+                }))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduledPoll != null) {
+            scheduledPoll.dispose();
+        }
+    }
+
+    /**
+     * Whether the replica has replayed at least the given version of the graph, as of the last successful poll.
+     * A graph without a row is at version 0.
+     */
+    public boolean covers(String graphId, long required) {
+        return System.nanoTime() - polledAt < maxAgeNanos && versions.getOrDefault(graphId, 0L) >= required;
+    }
+
+    public Mono<Map<String, Long>> refresh() {
+        return replica.sql("SELECT id, version FROM last_update")
+                .map(row -> Map.entry(row.get("id", String.class), row.get("version", Long.class)))
+                .all()
+                .collectMap(Map.Entry::getKey, Map.Entry::getValue)
+                .doOnNext(polled -> {
+                    versions = polled;
+                    polledAt = System.nanoTime();
+                });
+    }
+}
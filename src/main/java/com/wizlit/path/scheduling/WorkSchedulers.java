@@ -0,0 +1,97 @@
+package com.wizlit.path.scheduling;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.NonBlocking;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Where work that must not run on the Netty event loop goes.
+ * <p>
+ * {@link #compute()} runs CPU-bound work (graph computation, token parsing and signatures) on one thread per CPU;
+ * its threads are non-blocking like the event loop, so BlockHound also watches them. {@link #blocking()} runs
+ * calls that block (JDBC on platform threads). Both have a fixed number of threads and a bounded queue: work
+ * beyond the queue is rejected instead of piling up. Queue depth, active threads, wait time ({@code executor.idle})
+ * and run time ({@code executor}) are exported with {@code name=compute|blocking}.
+ */
+@Component
+public class WorkSchedulers {
+
+    private final Scheduler compute;
+    private final Scheduler blocking;
+    private final int inlineBelow;
+
+    public WorkSchedulers(
+            @Value("${app.schedulers.compute.threads:0}") int computeThreads,
+            @Value("${app.schedulers.compute.queue:1000}") int computeQueue,
+            @Value("${app.schedulers.compute.inlineBelow:1000}") int inlineBelow,
+            @Value("${app.schedulers.blocking.threads:${app.jdbc.pool.maxSize:${spring.r2dbc.pool.max-size:10}}}") int blockingThreads,
+            @Value("${app.schedulers.blocking.queue:1000}") int blockingQueue,
+            MeterRegistry registry
+    ) {
+        int threads = computeThreads > 0 ? computeThreads : Runtime.getRuntime().availableProcessors();
+        this.compute = scheduler("compute", threads, computeQueue, true, registry);
+        this.blocking = scheduler("blocking", blockingThreads, blockingQueue, false, registry);
+        this.inlineBelow = inlineBelow;
+    }
+
+    @PreDestroy
+    public void close() {
+        compute.dispose();
+        blocking.dispose();
+    }
+
+    public Scheduler compute() {
+        return compute;
+    }
+
+    public Scheduler blocking() {
+        return blocking;
+    }
+
+    /**
+     * CPU-bound work over {@code size} elements: inline below {@code inlineBelow}, where the hop to another thread
+     * costs more than the work, otherwise on {@link #compute()}.
+     */
+    public <T> Mono<T> compute(int size, Supplier<T> work) {
+        return size < inlineBelow
+                ? Mono.fromSupplier(work)
+                : Mono.fromSupplier(work).subscribeOn(compute);
+    }
+
+    private static Scheduler scheduler(String name, int threads, int queue, boolean nonBlocking, MeterRegistry registry) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queue), threadFactory(name, nonBlocking));
+        executor.allowCoreThreadTimeOut(true);
+        return Schedulers.fromExecutorService(ExecutorServiceMetrics.monitor(registry, executor, name), name);
+    }
+
+    private static ThreadFactory threadFactory(String name, boolean nonBlocking) {
+        AtomicInteger sequence = new AtomicInteger();
+        return task -> {
+            String threadName = name + "-" + sequence.incrementAndGet();
+            Thread thread = nonBlocking ? new NonBlockingThread(task, threadName) : new Thread(task, threadName);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    // reactor (and BlockHound) treat threads with this marker like the event loop
+    private static final class NonBlockingThread extends Thread implements NonBlocking {
+        NonBlockingThread(Runnable task, String name) {
+            super(task, name);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.wizlit.path.service;
+
+import com.wizlit.path.replication.GraphState;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface GraphHistoryService {
+    Mono<GraphState.View> getGraphAsOf(String graphId, Instant asOf);
+    Mono<Integer> compact(int snapshotEvery, Instant dropEventsBefore);
+}
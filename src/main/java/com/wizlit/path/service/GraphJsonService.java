@@ -0,0 +1,8 @@
+package com.wizlit.path.service;
+
+import reactor.core.publisher.Mono;
+
+public interface GraphJsonService {
+    // data of GET /api/path as JSON bytes rendered by the database; empty when the application renders it
+    Mono<byte[]> getPathJson(String id);
+}
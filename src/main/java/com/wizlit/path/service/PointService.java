@@ -7,9 +7,10 @@ import reactor.util.function.Tuple2;
 
 public interface PointService {
     Mono<Tuple2<Long, Long>> convertPointsToLong(String originPointId, String destinationPointId);
-    Mono<Point> findExistingPoint(Long id);
-    Flux<Point> getAllPoints();
+    Mono<Point> findExistingPoint(String graphId, Long id);
+    Flux<Point> getAllPoints(String graphId);
+    Mono<Long> reservePointId();
     Mono<Point> createPoint(Point point);
     Mono<Point> updatePoint(Point point);
-    Mono<Boolean> validatePointsExist(Long... pointIds);
+    Mono<Boolean> validatePointsExist(String graphId, Long... pointIds);
 }
@@ -1,21 +1,27 @@
 package com.wizlit.path.service.impl;
 
 import com.wizlit.path.entity.Edge;
-import com.wizlit.path.entity.Point;
 import com.wizlit.path.exception.ApiException;
 import com.wizlit.path.exception.ErrorCode;
 import com.wizlit.path.repository.EdgeRepository;
 import com.wizlit.path.service.EdgeService;
 import com.wizlit.path.utils.Validator;
+import com.wizlit.path.profiling.BackwardPathCheckEvent;
+import com.wizlit.path.profiling.EdgeSplitEvent;
+import com.wizlit.path.profiling.FlightEvents;
+import com.wizlit.path.profiling.GraphLoadEvent;
+import com.wizlit.path.replication.GraphDelta;
+import com.wizlit.path.replication.GraphDeltas;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.Objects;
 
 @Service
+@Profile("!jdbc")
 @RequiredArgsConstructor
 public class EdgeServiceImpl implements EdgeService {
 
@@ -28,30 +34,28 @@ public class EdgeServiceImpl implements EdgeService {
 
     private final EdgeRepository repository;
 
-    // get all edges that are related to input points
+    // get all edges of the graph
     @Override
-    public Flux<Edge> getAllEdgesByPoints(List<Point> points) {
-        List<Long> pointIds = points.stream()
-                .map(Point::getId)
-                .filter(Objects::nonNull)
-                .toList();
-        return repository.findAllByPointIdIn(pointIds)
-                .onErrorMap(error -> Validator.from(error)
-                        .toException());
+    public Flux<Edge> getAllEdges(String graphId) {
+        return FlightEvents.record(() -> GraphLoadEvent.edges(graphId),
+                repository.findAllByGraphId(graphId)
+                        .onErrorMap(error -> Validator.from(error)
+                                .toException()),
+                (event, rows) -> event.rows = rows);
     }
 
     @Override
-    public Mono<Edge> findExistingEdge(Long originPointId, Long destinationPointId) {
-        return _validateOrGetEdgeExists(originPointId, destinationPointId, false);
+    public Mono<Edge> findExistingEdge(String graphId, Long originPointId, Long destinationPointId) {
+        return _validateOrGetEdgeExists(graphId, originPointId, destinationPointId, false);
     }
 
     @Override
-    public Mono<Edge> validateEdgeExists(Long originPointId, Long destinationPointId) {
-        return _validateOrGetEdgeExists(originPointId, destinationPointId, true);
+    public Mono<Edge> validateEdgeExists(String graphId, Long originPointId, Long destinationPointId) {
+        return _validateOrGetEdgeExists(graphId, originPointId, destinationPointId, true);
     }
 
-    private Mono<Edge> _validateOrGetEdgeExists(Long originPointId, Long destinationPointId, Boolean throwException) {
-        return repository.findByOriginPointAndDestinationPoint(originPointId, destinationPointId)
+    private Mono<Edge> _validateOrGetEdgeExists(String graphId, Long originPointId, Long destinationPointId, Boolean throwException) {
+        return repository.findByGraphIdAndOriginPointAndDestinationPoint(graphId, originPointId, destinationPointId)
                 .onErrorMap(error -> Validator.from(error)
                         .toException())
                 .flatMap(existingEdge -> {
@@ -68,13 +72,15 @@ public class EdgeServiceImpl implements EdgeService {
 
     // Helper method to check for backward paths between the points
     @Override
-    public Mono<Boolean> validateNotBackwardPath(Long originPointId, Long destinationPointId, int depth) {
-        return repository.existsPathWithinDepth(destinationPointId, originPointId, depth)
-                .onErrorMap(error -> Validator.from(error)
-                        .toException())
+    public Mono<Boolean> validateNotBackwardPath(Long originPointId, Long destinationPointId) {
+        return FlightEvents.record(() -> BackwardPathCheckEvent.of(originPointId, destinationPointId),
+                        repository.existsPath(destinationPointId, originPointId)
+                                .onErrorMap(error -> Validator.from(error)
+                                        .toException()),
+                        (event, found) -> event.found = found)
                 .flatMap(backwardPathExists -> {
                     if (Boolean.TRUE.equals(backwardPathExists)) {
-                        return Mono.error(new ApiException(ErrorCode.BACKWARD_PATH, depth, originPointId, destinationPointId));
+                        return Mono.error(new ApiException(ErrorCode.BACKWARD_PATH, originPointId, destinationPointId));
                     }
                     return Mono.just(true);
                 });
@@ -92,8 +98,9 @@ public class EdgeServiceImpl implements EdgeService {
 
     // Helper method to create and save a new edge
     @Override
-    public Mono<Edge> createEdge(Long originPointId, Long destinationPointId) {
+    public Mono<Edge> createEdge(String graphId, Long originPointId, Long destinationPointId) {
         Edge newEdge = Edge.builder()
+                .graphId(graphId)
                 .originPoint(originPointId)
                 .destinationPoint(destinationPointId)
                 .build();
@@ -102,34 +109,38 @@ public class EdgeServiceImpl implements EdgeService {
 
     // Helper method to create and save a new edge
     @Override
-    public Flux<Edge> splitEdge(Long originPointId, Long destinationPointId, Long middlePointId) {
+    public Flux<Edge> splitEdge(String graphId, Long originPointId, Long destinationPointId, Long middlePointId) {
         Edge toMiddle = Edge.builder()
+                .graphId(graphId)
                 .originPoint(originPointId)
                 .destinationPoint(middlePointId)
                 .build();
 
         Edge fromMiddle = Edge.builder()
+                .graphId(graphId)
                 .originPoint(middlePointId)
                 .destinationPoint(destinationPointId)
                 .build();
 
-        return _validateOrGetEdgeExists(originPointId, destinationPointId, false)
-                .flatMapMany(this::_deleteEdge)
-                .switchIfEmpty(Flux.empty())
-                .thenMany(_createEdge(toMiddle, fromMiddle))
-                .thenMany(Flux.just(toMiddle, fromMiddle));
+        return FlightEvents.record(() -> EdgeSplitEvent.of(originPointId, destinationPointId, middlePointId),
+                _validateOrGetEdgeExists(graphId, originPointId, destinationPointId, false)
+                        .flatMapMany(this::_deleteEdge)
+                        .switchIfEmpty(Flux.empty())
+                        .thenMany(_createEdge(toMiddle, fromMiddle))
+                        .thenMany(Flux.just(toMiddle, fromMiddle)),
+                (event, created) -> event.createdEdges = created);
     }
 
     private Mono<Edge> _createEdge(Edge newEdge) {
-        return repository.save(newEdge)
+        return GraphDeltas.record(repository.save(newEdge)
                 .onErrorMap(error -> Validator.from(error)
-                        .toException());
+                        .toException()), GraphDelta.Op::edge);
     }
 
     private Flux<Edge> _createEdge(Edge... newEdges) {
-        return repository.saveAll(List.of(newEdges))
+        return GraphDeltas.record(repository.saveAll(List.of(newEdges))
                 .onErrorMap(error -> Validator.from(error)
-                        .toException());
+                        .toException()), GraphDelta.Op::edge);
     }
 
     // Helper method to create and save a new edge
@@ -140,8 +151,9 @@ public class EdgeServiceImpl implements EdgeService {
 
     // Helper method to create and save a new edge
     @Override
-    public Mono<Void> deleteEdge(Long originPointId, Long destinationPointId) {
+    public Mono<Void> deleteEdge(String graphId, Long originPointId, Long destinationPointId) {
         Edge targetEdge = Edge.builder()
+                .graphId(graphId)
                 .originPoint(originPointId)
                 .destinationPoint(destinationPointId)
                 .build();
@@ -149,8 +161,17 @@ public class EdgeServiceImpl implements EdgeService {
     }
 
     private Mono<Void> _deleteEdge(Edge edge) {
-        return repository.delete(edge)
+        return GraphDeltas.record(repository.delete(edge)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException()), GraphDelta.Op.removeEdge(edge));
+    }
+
+    // Serializes graph-structure changes across nodes until the surrounding transaction ends
+    @Override
+    public Mono<Void> lockGraph(String graphId) {
+        return repository.lockGraph(graphId)
                 .onErrorMap(error -> Validator.from(error)
-                        .toException());
+                        .toException())
+                .then();
     }
 }
\ No newline at end of file
@@ -0,0 +1,165 @@
+package com.wizlit.path.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.entity.GraphEvent;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.replication.GraphDelta;
+import com.wizlit.path.replication.GraphState;
+import com.wizlit.path.repository.GraphHistoryRepository;
+import com.wizlit.path.service.GraphHistoryService;
+import com.wizlit.path.utils.Validator;
+import io.r2dbc.postgresql.codec.Json;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+@Service
+public class GraphHistoryServiceImpl implements GraphHistoryService {
+
+    /**
+     * Service 규칙:
+     * 1. 1개의 repository 만 정의
+     * 2. repository 의 각 기능은 반드시 한 번만 호출
+     * 3. repository 기능에는 .onErrorMap(error -> Validator.from(error).toException()) 필수
+     */
+
+    private static final TypeReference<List<GraphDelta.Op>> OPS = new TypeReference<>() {};
+
+    private final GraphHistoryRepository repository;
+    private final ObjectMapper mapper;
+    private final TransactionalOperator transactionalOperator;
+
+    // compaction writes over R2DBC, also in the jdbc profile
+    public GraphHistoryServiceImpl(
+            GraphHistoryRepository repository,
+            ObjectMapper mapper,
+            R2dbcTransactionManager transactionManager
+    ) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+    }
+
+    /**
+     * The graph as of the last write committed at asOf: latest snapshot, then the events after it. Fails with
+     * HISTORY_COMPACTED when retention dropped events between that snapshot and the next one, since the state at
+     * asOf can then no longer be told apart from the snapshot's.
+     */
+    @Override
+    public Mono<GraphState.View> getGraphAsOf(String graphId, Instant asOf) {
+        return _rebuild(graphId, asOf)
+                .flatMap(view -> repository.findFirstVersionAfter(graphId, asOf)
+                        .onErrorMap(error -> Validator.from(error)
+                                .toException())
+                        .flatMap(next -> next > view.version() + 1
+                                ? Mono.error(new ApiException(ErrorCode.HISTORY_COMPACTED, view.version(), next, graphId, asOf))
+                                : Mono.just(view)));
+    }
+
+    /**
+     * Snapshots every graph with at least {@code snapshotEvery} events since its latest snapshot, then drops the
+     * events a snapshot older than {@code dropEventsBefore} makes redundant (null keeps all events). Runs in one
+     * transaction, so it reads and writes the primary even when reads outside transactions go to the replica.
+     *
+     * @return snapshots taken
+     */
+    @Override
+    public Mono<Integer> compact(int snapshotEvery, Instant dropEventsBefore) {
+        Mono<Integer> snapshots = repository.findGraphsDueForSnapshot(snapshotEvery)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException())
+                .concatMap(latest -> _rebuild(latest.getGraphId(), latest.getOccurredAt())
+                        .flatMap(view -> _saveSnapshot(latest.getGraphId(), view, latest.getOccurredAt())))
+                .reduce(0, Integer::sum);
+        if (dropEventsBefore == null) {
+            return snapshots.as(transactionalOperator::transactional);
+        }
+        return snapshots.flatMap(taken -> repository.deleteEventsCoveredBefore(dropEventsBefore)
+                        .onErrorMap(error -> Validator.from(error)
+                                .toException())
+                        .thenReturn(taken))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<GraphState.View> _rebuild(String graphId, Instant asOf) {
+        return repository.findLatestSnapshot(graphId, asOf)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException())
+                .map(snapshot -> _state(snapshot.getVersion(), _decode(snapshot.getBody())))
+                .switchIfEmpty(Mono.defer(() -> _beforeFirstSnapshot(graphId, asOf)))
+                .flatMap(state -> repository.findEvents(graphId, state.version(), asOf)
+                        .onErrorMap(error -> Validator.from(error)
+                                .toException())
+                        .concatMap(event -> _apply(state, graphId, event, asOf))
+                        .then(Mono.fromSupplier(() -> state.view(0))));
+    }
+
+    // the graph is empty before its first write, unless its history starts later (recorded from a snapshot)
+    private Mono<GraphState> _beforeFirstSnapshot(String graphId, Instant asOf) {
+        return repository.findFirstVersion(graphId)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException())
+                .flatMap(first -> first == -1 || first == 1
+                        ? Mono.just(_state(0, List.of()))
+                        : Mono.error(new ApiException(ErrorCode.HISTORY_NOT_AVAILABLE, graphId, asOf)));
+    }
+
+    // a missing version (events dropped without a later snapshot) cannot be replayed over
+    private Mono<Void> _apply(GraphState state, String graphId, GraphEvent event, Instant asOf) {
+        GraphDelta delta = new GraphDelta(graphId, event.getVersion(), event.getOccurredAt().toEpochMilli(), _decode(event.getOps()));
+        if (state.apply(delta) != GraphState.Outcome.APPLIED) {
+            return Mono.error(new ApiException(ErrorCode.HISTORY_NOT_AVAILABLE, graphId, asOf));
+        }
+        return Mono.empty();
+    }
+
+    private Mono<Integer> _saveSnapshot(String graphId, GraphState.View view, Instant validFrom) {
+        List<GraphDelta.Op> ops = Stream.concat(
+                view.points().stream().map(GraphDelta.Op::point),
+                view.edges().stream().map(GraphDelta.Op::edge)
+        ).toList();
+        return repository.insertSnapshot(graphId, view.version(), validFrom, _encode(ops))
+                .onErrorMap(error -> Validator.from(error)
+                        .toException());
+    }
+
+    private static GraphState _state(long version, List<GraphDelta.Op> ops) {
+        List<com.wizlit.path.entity.Point> points = new ArrayList<>();
+        List<com.wizlit.path.entity.Edge> edges = new ArrayList<>();
+        for (GraphDelta.Op op : ops) {
+            switch (op.type()) {
+                case POINT -> points.add(op.toPoint());
+                case EDGE -> edges.add(op.toEdge());
+                case REMOVE_EDGE -> throw new IllegalStateException("A snapshot only adds points and edges");
+            }
+        }
+        GraphState state = new GraphState();
+        state.reset(version, points, edges);
+        return state;
+    }
+
+    private List<GraphDelta.Op> _decode(Json json) {
+        try {
+            return mapper.readValue(json.asArray(), OPS);
+        } catch (java.io.IOException e) {
+            throw new IllegalStateException("Unreadable graph history", e);
+        }
+    }
+
+    private String _encode(List<GraphDelta.Op> ops) {
+        try {
+            return mapper.writeValueAsString(ops);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Graph snapshot is not serializable", e);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.wizlit.path.service.impl;
+
+import com.wizlit.path.repository.GraphJsonRepository;
+import com.wizlit.path.service.GraphJsonService;
+import com.wizlit.path.utils.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.time.ZoneId;
+import java.util.Locale;
+
+@Service
+public class GraphJsonServiceImpl implements GraphJsonService {
+
+    /**
+     * Service 규칙:
+     * 1. 1개의 repository 만 정의
+     * 2. repository 의 각 기능은 반드시 한 번만 호출
+     * 3. repository 기능에는 .onErrorMap(error -> Validator.from(error).toException()) 필수
+     */
+
+    public enum Mode {
+        /** entities are loaded and serialized by the application */
+        APPLICATION,
+        /** the database builds the JSON on every read */
+        DATABASE,
+        /** the database builds the JSON once per graph version and keeps it in graph_json */
+        SNAPSHOT
+    }
+
+    private final GraphJsonRepository repository;
+    private final TransactionalOperator transactionalOperator;
+    private final Mode mode;
+    private final String zone = ZoneId.systemDefault().getId();
+
+    public GraphJsonServiceImpl(
+            GraphJsonRepository repository,
+            R2dbcTransactionManager transactionManager,
+            @Value("${app.graph.render:application}") String mode
+    ) {
+        this.repository = repository;
+        // graph_json is written over R2DBC, also in the jdbc profile
+        this.transactionalOperator = TransactionalOperator.create(transactionManager);
+        this.mode = Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @Override
+    public Mono<byte[]> getPathJson(String id) {
+        return switch (mode) {
+            case APPLICATION -> Mono.empty();
+            case DATABASE -> _render(id);
+            // 다른 요청이 더 새로운 버전을 먼저 저장했으면 직접 렌더링
+            case SNAPSHOT -> _renderAtCurrentVersion(id).switchIfEmpty(Mono.defer(() -> _render(id)));
+        };
+    }
+
+    private Mono<byte[]> _render(String id) {
+        return repository.render(id, zone)
+                .map(graphJson -> graphJson.getBody().asArray())
+                .onErrorMap(error -> Validator.from(error)
+                        .toException());
+    }
+
+    // writes graph_json: a transaction, so it runs on the primary when reads go to a replica
+    private Mono<byte[]> _renderAtCurrentVersion(String id) {
+        return repository.renderAtCurrentVersion(id, zone)
+                .map(graphJson -> graphJson.getBody().asArray())
+                .as(transactionalOperator::transactional)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException());
+    }
+}
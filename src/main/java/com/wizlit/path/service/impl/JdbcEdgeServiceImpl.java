@@ -0,0 +1,180 @@
+package com.wizlit.path.service.impl;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.repository.jdbc.JdbcEdgeRepository;
+import com.wizlit.path.service.EdgeService;
+import com.wizlit.path.utils.Validator;
+import com.wizlit.path.profiling.BackwardPathCheckEvent;
+import com.wizlit.path.profiling.EdgeSplitEvent;
+import com.wizlit.path.profiling.FlightEvents;
+import com.wizlit.path.profiling.GraphLoadEvent;
+import com.wizlit.path.replication.GraphDelta;
+import com.wizlit.path.replication.GraphDeltas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * {@link EdgeServiceImpl} on {@link com.wizlit.path.repository.jdbc.JdbcSessions JDBC}, for the {@code jdbc} profile.
+ */
+@Service
+@Profile("jdbc")
+@RequiredArgsConstructor
+public class JdbcEdgeServiceImpl implements EdgeService {
+
+    /**
+     * Service 규칙:
+     * 1. 1개의 repository 만 정의
+     * 2. repository 의 각 기능은 반드시 한 번만 호출
+     * 3. repository 기능에는 .onErrorMap(error -> Validator.from(error).toException()) 필수
+     */
+
+    private final JdbcEdgeRepository repository;
+
+    // get all edges of the graph
+    @Override
+    public Flux<Edge> getAllEdges(String graphId) {
+        return FlightEvents.record(() -> GraphLoadEvent.edges(graphId),
+                repository.findAllByGraphId(graphId)
+                        .onErrorMap(error -> Validator.from(error)
+                                .toException()),
+                (event, rows) -> event.rows = rows);
+    }
+
+    @Override
+    public Mono<Edge> findExistingEdge(String graphId, Long originPointId, Long destinationPointId) {
+        return _validateOrGetEdgeExists(graphId, originPointId, destinationPointId, false);
+    }
+
+    @Override
+    public Mono<Edge> validateEdgeExists(String graphId, Long originPointId, Long destinationPointId) {
+        return _validateOrGetEdgeExists(graphId, originPointId, destinationPointId, true);
+    }
+
+    private Mono<Edge> _validateOrGetEdgeExists(String graphId, Long originPointId, Long destinationPointId, Boolean throwException) {
+        return repository.findByGraphIdAndOriginPointAndDestinationPoint(graphId, originPointId, destinationPointId)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException())
+                .flatMap(existingEdge -> {
+                    if (existingEdge != null) {
+                        if (throwException) {
+                            return Mono.error(new ApiException(ErrorCode.EDGE_ALREADY_EXISTS, originPointId, destinationPointId));
+                        } else {
+                            return Mono.just(existingEdge);
+                        }
+                    }
+                    return Mono.empty();
+                });
+    }
+
+    // Helper method to check for backward paths between the points
+    @Override
+    public Mono<Boolean> validateNotBackwardPath(Long originPointId, Long destinationPointId) {
+        return FlightEvents.record(() -> BackwardPathCheckEvent.of(originPointId, destinationPointId),
+                        repository.existsPath(destinationPointId, originPointId)
+                                .onErrorMap(error -> Validator.from(error)
+                                        .toException()),
+                        (event, found) -> event.found = found)
+                .flatMap(backwardPathExists -> {
+                    if (Boolean.TRUE.equals(backwardPathExists)) {
+                        return Mono.error(new ApiException(ErrorCode.BACKWARD_PATH, originPointId, destinationPointId));
+                    }
+                    return Mono.just(true);
+                });
+    }
+
+    @Override
+    public Mono<Edge> createEdge(Edge newEdge) {
+        return _createEdge(newEdge);
+    }
+
+    @Override
+    public Flux<Edge> createEdge(Edge... newEdges) {
+        return _createEdge(newEdges);
+    }
+
+    // Helper method to create and save a new edge
+    @Override
+    public Mono<Edge> createEdge(String graphId, Long originPointId, Long destinationPointId) {
+        Edge newEdge = Edge.builder()
+                .graphId(graphId)
+                .originPoint(originPointId)
+                .destinationPoint(destinationPointId)
+                .build();
+        return _createEdge(newEdge);
+    }
+
+    // Helper method to create and save a new edge
+    @Override
+    public Flux<Edge> splitEdge(String graphId, Long originPointId, Long destinationPointId, Long middlePointId) {
+        Edge toMiddle = Edge.builder()
+                .graphId(graphId)
+                .originPoint(originPointId)
+                .destinationPoint(middlePointId)
+                .build();
+
+        Edge fromMiddle = Edge.builder()
+                .graphId(graphId)
+                .originPoint(middlePointId)
+                .destinationPoint(destinationPointId)
+                .build();
+
+        return FlightEvents.record(() -> EdgeSplitEvent.of(originPointId, destinationPointId, middlePointId),
+                _validateOrGetEdgeExists(graphId, originPointId, destinationPointId, false)
+                        .flatMapMany(this::_deleteEdge)
+                        .switchIfEmpty(Flux.empty())
+                        .thenMany(_createEdge(toMiddle, fromMiddle))
+                        .thenMany(Flux.just(toMiddle, fromMiddle)),
+                (event, created) -> event.createdEdges = created);
+    }
+
+    private Mono<Edge> _createEdge(Edge newEdge) {
+        return GraphDeltas.record(repository.save(newEdge)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException()), GraphDelta.Op::edge);
+    }
+
+    private Flux<Edge> _createEdge(Edge... newEdges) {
+        return GraphDeltas.record(repository.saveAll(List.of(newEdges))
+                .onErrorMap(error -> Validator.from(error)
+                        .toException()), GraphDelta.Op::edge);
+    }
+
+    // Helper method to create and save a new edge
+    @Override
+    public Mono<Void> deleteEdge(Edge edgeToDelete) {
+        return _deleteEdge(edgeToDelete);
+    }
+
+    // Helper method to create and save a new edge
+    @Override
+    public Mono<Void> deleteEdge(String graphId, Long originPointId, Long destinationPointId) {
+        Edge targetEdge = Edge.builder()
+                .graphId(graphId)
+                .originPoint(originPointId)
+                .destinationPoint(destinationPointId)
+                .build();
+        return _deleteEdge(targetEdge);
+    }
+
+    private Mono<Void> _deleteEdge(Edge edge) {
+        return GraphDeltas.record(repository.delete(edge)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException()), GraphDelta.Op.removeEdge(edge));
+    }
+
+    // Serializes graph-structure changes across nodes until the surrounding transaction ends
+    @Override
+    public Mono<Void> lockGraph(String graphId) {
+        return repository.lockGraph(graphId)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException())
+                .then();
+    }
+}
\ No newline at end of file
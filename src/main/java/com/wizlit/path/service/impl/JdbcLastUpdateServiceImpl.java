@@ -0,0 +1,77 @@
+package com.wizlit.path.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.entity.LastUpdate;
+import com.wizlit.path.replication.GraphDelta;
+import com.wizlit.path.replication.GraphDeltas;
+import com.wizlit.path.replication.GraphReplication;
+import com.wizlit.path.repository.jdbc.JdbcLastUpdateRepository;
+import com.wizlit.path.service.LastUpdateService;
+import com.wizlit.path.utils.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@link LastUpdateServiceImpl} on {@link com.wizlit.path.repository.jdbc.JdbcSessions JDBC}, for the {@code jdbc} profile.
+ */
+@Service
+@Profile("jdbc")
+@RequiredArgsConstructor
+public class JdbcLastUpdateServiceImpl implements LastUpdateService {
+
+    /**
+     * Service 규칙:
+     * 1. 1개의 repository 만 정의
+     * 2. repository 의 각 기능은 반드시 한 번만 호출
+     * 3. repository 기능에는 .onErrorMap(error -> Validator.from(error).toException()) 필수
+     */
+
+    private final JdbcLastUpdateRepository repository;
+    private final GraphReplication replication;
+    private final ObjectMapper mapper;
+
+    @Override
+    public Mono<LastUpdate> getLastUpdate(String id) {
+        return _get(id);
+    }
+
+    @Override
+    public Mono<Boolean> hasUpdate(String id, Instant timestamp) {
+        return _get(id)
+                .map(lastUpdate -> lastUpdate.getUpdated_time().isAfter(timestamp))
+                .defaultIfEmpty(false);
+    }
+
+    private Mono<LastUpdate> _get(String id) {
+        return repository.findById(id)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException());
+    }
+
+    @Override
+    public Mono<LastUpdate> update(String id) {
+        // 같은 트랜잭션에서 변경 내용을 기록하고 알림: commit 될 때만 이력에 남고 다른 노드에 전달됨
+        return GraphDeltas.collected()
+                .flatMap(ops -> repository.touch(id, Instant.now(), _encode(ops)))
+                .flatMap(lastUpdate -> replication.delta(lastUpdate)
+                        .flatMap(payload -> repository.publish(GraphReplication.CHANNEL, payload))
+                        .thenReturn(lastUpdate))
+                .onErrorMap(error -> Validator.from(error)
+                        .toException());
+    }
+
+    private String _encode(List<GraphDelta.Op> ops) {
+        try {
+            return mapper.writeValueAsString(ops);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Graph changes are not serializable", e);
+        }
+    }
+
+}
\ No newline at end of file
@@ -0,0 +1,139 @@
+package com.wizlit.path.service.impl;
+
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.repository.jdbc.JdbcPointRepository;
+import com.wizlit.path.service.PointService;
+import com.wizlit.path.utils.Validator;
+import com.wizlit.path.profiling.FlightEvents;
+import com.wizlit.path.profiling.GraphLoadEvent;
+import com.wizlit.path.replication.GraphDelta;
+import com.wizlit.path.replication.GraphDeltas;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link PointServiceImpl} on {@link com.wizlit.path.repository.jdbc.JdbcSessions JDBC}, for the {@code jdbc} profile.
+ */
+@Service
+@Profile("jdbc")
+@RequiredArgsConstructor
+public class JdbcPointServiceImpl implements PointService {
+
+    /**
+     * Service 규칙:
+     * 1. 1개의 repository 만 정의
+     * 2. repository 의 각 기능은 반드시 한 번만 호출
+     * 3. repository 기능에는 .onErrorMap(error -> Validator.from(error).toException()) 필수
+     */
+
+    private final JdbcPointRepository repository;
+
+    @Override
+    public Mono<Tuple2<Long, Long>> convertPointsToLong(String originPointId, String destinationPointId) {
+        if (originPointId == null || destinationPointId == null) {
+            return Mono.error(new ApiException(ErrorCode.NULL_POINTS, originPointId, destinationPointId));
+        }
+
+        if (originPointId.equals(destinationPointId)) {
+            return Mono.error(new ApiException(ErrorCode.SAME_POINTS));
+        }
+
+        try {
+            Long origin = Long.valueOf(originPointId);
+            Long destination = Long.valueOf(destinationPointId);
+            return Mono.just(Tuples.of(origin, destination));
+        } catch (NumberFormatException ex) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_NUMERIC_IDS, originPointId, destinationPointId));
+        }
+    }
+
+    // Helper method to check whether all points exist in the graph
+    @Override
+    public Mono<Boolean> validatePointsExist(String graphId, Long... pointIds) {
+        List<Long> ids = Arrays.stream(pointIds).distinct().toList();
+        return repository.countByGraphIdAndIdIn(graphId, ids)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException())
+                .flatMap(count -> {
+                    if (count < ids.size()) {
+                        return Mono.error(new ApiException(ErrorCode.NON_EXISTENT_POINTS, Arrays.toString(pointIds)));
+                    }
+                    return Mono.just(true);
+                });
+    }
+
+    @Override
+    public Mono<Point> findExistingPoint(String graphId, Long id) {
+        return repository.findByGraphIdAndId(graphId, id)
+                .onErrorMap(error -> Validator.from(error)
+                        .toException())
+                .switchIfEmpty(Mono.error(new ApiException(ErrorCode.POINT_NOT_FOUND, id)));
+    }
+
+    @Override
+    public Flux<Point> getAllPoints(String graphId) {
+        return FlightEvents.record(() -> GraphLoadEvent.points(graphId),
+                repository.findAllByGraphId(graphId)
+                        .onErrorMap(error -> Validator.from(error)
+                                .toException()),
+                (event, rows) -> event.rows = rows);
+    }
+
+    @Override
+    public Mono<Long> reservePointId() {
+        return repository.nextId()
+                .onErrorMap(error -> Validator.from(error)
+                        .toException());
+    }
+
+    /**
+     * Inserts the point, with its id if one was reserved.
+     */
+    @Override
+    public Mono<Point> createPoint(Point point) {
+        // todo already existing point
+        return _savePoint(point, true);
+    }
+
+    @Override
+    public Mono<Point> updatePoint(Point updatePoint) {
+        if (updatePoint.getId() == null || updatePoint.getGraphId() == null) {
+            return Mono.error(new ApiException(ErrorCode.NULL_INPUT));
+        }
+
+        return findExistingPoint(updatePoint.getGraphId(), updatePoint.getId())
+               .flatMap(existingPoint -> {
+                    if (updatePoint.getTitle() != null) existingPoint.setTitle(updatePoint.getTitle());
+                    if (updatePoint.getObjective() != null) existingPoint.setObjective(updatePoint.getObjective());
+                    if (updatePoint.getDocument() != null) existingPoint.setDocument(updatePoint.getDocument());
+                    return _savePoint(existingPoint, false);
+                });
+    }
+
+    private Mono<Point> _savePoint(Point newPoint, boolean insert) {
+        newPoint.setTitle(newPoint.getTitle().trim());
+        if (newPoint.getObjective() != null) newPoint.setObjective(newPoint.getObjective().trim());
+        if (newPoint.getDocument() != null) newPoint.setDocument(newPoint.getDocument().trim());
+
+        Mono<Point> saved = insert
+                ? repository.insert(newPoint.getId(), newPoint.getGraphId(), newPoint.getTitle(), newPoint.getObjective(), newPoint.getDocument())
+                : repository.save(newPoint);
+        return GraphDeltas.record(saved
+                .onErrorMap(error -> Validator.from(error)
+                        .containsAllElseError(
+                                new ApiException(ErrorCode.POINT_NAME_DUPLICATED, newPoint.getTitle()),
+                                "unique", "key"
+                        )
+                        .toException()), GraphDelta.Op::point);
+    }
+}
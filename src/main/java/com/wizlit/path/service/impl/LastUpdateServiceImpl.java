@@ -1,17 +1,24 @@
 package com.wizlit.path.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wizlit.path.entity.LastUpdate;
+import com.wizlit.path.replication.GraphDelta;
+import com.wizlit.path.replication.GraphDeltas;
+import com.wizlit.path.replication.GraphReplication;
 import com.wizlit.path.repository.LastUpdateRepository;
 import com.wizlit.path.service.LastUpdateService;
 import com.wizlit.path.utils.Validator;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
 import java.time.Instant;
+import java.util.List;
 
 @Service
+@Profile("!jdbc")
 @RequiredArgsConstructor
 public class LastUpdateServiceImpl implements LastUpdateService {
 
@@ -23,7 +30,8 @@ public class LastUpdateServiceImpl implements LastUpdateService {
      */
 
     private final LastUpdateRepository repository;
-    private final R2dbcEntityTemplate template;
+    private final GraphReplication replication;
+    private final ObjectMapper mapper;
 
     @Override
     public Mono<LastUpdate> getLastUpdate(String id) {
@@ -45,15 +53,22 @@ public class LastUpdateServiceImpl implements LastUpdateService {
 
     @Override
     public Mono<LastUpdate> update(String id) {
-        return repository.findById(id)
-                .flatMap(existing -> {
-                    existing.setUpdated_time(Instant.now());
-                    return repository.save(existing);
-                })
-                .switchIfEmpty(template.insert(LastUpdate.class)
-                        .using(LastUpdate.builder().id(id).updated_time(Instant.now()).build()))
+        // 같은 트랜잭션에서 변경 내용을 기록하고 알림: commit 될 때만 이력에 남고 다른 노드에 전달됨
+        return GraphDeltas.collected()
+                .flatMap(ops -> repository.touch(id, Instant.now(), _encode(ops)))
+                .flatMap(lastUpdate -> replication.delta(lastUpdate)
+                        .flatMap(payload -> repository.publish(GraphReplication.CHANNEL, payload))
+                        .thenReturn(lastUpdate))
                 .onErrorMap(error -> Validator.from(error)
                         .toException());
     }
 
+    private String _encode(List<GraphDelta.Op> ops) {
+        try {
+            return mapper.writeValueAsString(ops);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Graph changes are not serializable", e);
+        }
+    }
+
 }
\ No newline at end of file
@@ -6,8 +6,14 @@ import com.wizlit.path.exception.ErrorCode;
 import com.wizlit.path.repository.PointRepository;
 import com.wizlit.path.service.PointService;
 import com.wizlit.path.utils.Validator;
+import com.wizlit.path.profiling.FlightEvents;
+import com.wizlit.path.profiling.GraphLoadEvent;
+import com.wizlit.path.replication.GraphDelta;
+import com.wizlit.path.replication.GraphDeltas;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.util.function.Tuple2;
@@ -17,6 +23,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @Service
+@Profile("!jdbc")
 @RequiredArgsConstructor
 public class PointServiceImpl implements PointService {
 
@@ -28,6 +35,7 @@ public class PointServiceImpl implements PointService {
      */
 
     private final PointRepository repository;
+    private final TransactionalOperator transactionalOperator;
 
     @Override
     public Mono<Tuple2<Long, Long>> convertPointsToLong(String originPointId, String destinationPointId) {
@@ -48,14 +56,15 @@ public class PointServiceImpl implements PointService {
         }
     }
 
-    // Helper method to check whether both points exist in the repository
+    // Helper method to check whether all points exist in the graph
     @Override
-    public Mono<Boolean> validatePointsExist(Long... pointIds) {
-        return repository.existsByIdIn(List.of(pointIds))
+    public Mono<Boolean> validatePointsExist(String graphId, Long... pointIds) {
+        List<Long> ids = Arrays.stream(pointIds).distinct().toList();
+        return repository.countByGraphIdAndIdIn(graphId, ids)
                 .onErrorMap(error -> Validator.from(error)
                         .toException())
-                .flatMap(exists -> {
-                    if (Boolean.FALSE.equals(exists)) {
+                .flatMap(count -> {
+                    if (count < ids.size()) {
                         return Mono.error(new ApiException(ErrorCode.NON_EXISTENT_POINTS, Arrays.toString(pointIds)));
                     }
                     return Mono.just(true);
@@ -63,52 +72,69 @@ public class PointServiceImpl implements PointService {
     }
 
     @Override
-    public Mono<Point> findExistingPoint(Long id) {
-        return repository.findById(id)
+    public Mono<Point> findExistingPoint(String graphId, Long id) {
+        return repository.findByGraphIdAndId(graphId, id)
                 .onErrorMap(error -> Validator.from(error)
                         .toException())
                 .switchIfEmpty(Mono.error(new ApiException(ErrorCode.POINT_NOT_FOUND, id)));
     }
 
     @Override
-    public Flux<Point> getAllPoints() {
-        return repository.findAll()
+    public Flux<Point> getAllPoints(String graphId) {
+        return FlightEvents.record(() -> GraphLoadEvent.points(graphId),
+                repository.findAllByGraphId(graphId)
+                        .onErrorMap(error -> Validator.from(error)
+                                .toException()),
+                (event, rows) -> event.rows = rows);
+    }
+
+    // nextval writes: a transaction, so it runs on the primary when reads go to a replica
+    @Override
+    public Mono<Long> reservePointId() {
+        return repository.nextId()
+                .as(transactionalOperator::transactional)
                 .onErrorMap(error -> Validator.from(error)
                         .toException());
     }
 
+    /**
+     * Inserts the point, with its id if one was reserved.
+     */
     @Override
     public Mono<Point> createPoint(Point point) {
         // todo already existing point
-        return _savePoint(point);
+        return _savePoint(point, true);
     }
 
     @Override
     public Mono<Point> updatePoint(Point updatePoint) {
-        if (updatePoint.getId() == null) {
+        if (updatePoint.getId() == null || updatePoint.getGraphId() == null) {
             return Mono.error(new ApiException(ErrorCode.NULL_INPUT));
         }
 
-        return findExistingPoint(updatePoint.getId())
+        return findExistingPoint(updatePoint.getGraphId(), updatePoint.getId())
                .flatMap(existingPoint -> {
                     if (updatePoint.getTitle() != null) existingPoint.setTitle(updatePoint.getTitle());
                     if (updatePoint.getObjective() != null) existingPoint.setObjective(updatePoint.getObjective());
                     if (updatePoint.getDocument() != null) existingPoint.setDocument(updatePoint.getDocument());
-                    return _savePoint(existingPoint);
+                    return _savePoint(existingPoint, false);
                 });
     }
 
-    private Mono<Point> _savePoint(Point newPoint) {
+    private Mono<Point> _savePoint(Point newPoint, boolean insert) {
         newPoint.setTitle(newPoint.getTitle().trim());
         if (newPoint.getObjective() != null) newPoint.setObjective(newPoint.getObjective().trim());
         if (newPoint.getDocument() != null) newPoint.setDocument(newPoint.getDocument().trim());
 
-        return repository.save(newPoint)
+        Mono<Point> saved = insert
+                ? repository.insert(newPoint.getId(), newPoint.getGraphId(), newPoint.getTitle(), newPoint.getObjective(), newPoint.getDocument())
+                : repository.save(newPoint);
+        return GraphDeltas.record(saved
                 .onErrorMap(error -> Validator.from(error)
                         .containsAllElseError(
                                 new ApiException(ErrorCode.POINT_NAME_DUPLICATED, newPoint.getTitle()),
                                 "unique", "key"
                         )
-                        .toException());
+                        .toException()), GraphDelta.Op::point);
     }
 }
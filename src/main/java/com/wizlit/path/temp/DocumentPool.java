@@ -0,0 +1,260 @@
+package com.wizlit.path.temp;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Warm pool of pre-copied template documents.
+ * <p>
+ * Creating a point claims an unassigned copy and only renames it, instead of waiting on a full
+ * {@link GoogleService#copyDocs} call. Whenever the pool drops below the low watermark it is refilled
+ * up to the high watermark in the background.
+ * <p>
+ * Copies belong to the user whose token made them, so each user has a pool of their own per folder, refilled
+ * with that user's latest token: a claim never renames another user's document. Documents of a graph go to its
+ * own folder when one is configured ({@code app.document.folderIds} as {@code graphId=folderId}), otherwise to
+ * the default folder.
+ * <p>
+ * A pool nobody claimed from for {@code idleTimeout} is evicted and its copies deleted, so a user who made one point
+ * does not keep copies in their Drive. Unclaimed copies only live in memory: they are also deleted on shutdown.
+ * Copies that cannot be deleted (an expired token, a crash) stay in the folder named {@link #UNASSIGNED_NAME}.
+ */
+@Slf4j
+@Component
+public class DocumentPool {
+
+    public static final String UNASSIGNED_NAME = "[unassigned]";
+
+    private static final int REFILL_CONCURRENCY = 2;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final GoogleService driveService;
+    private final String templateId;
+    private final String defaultFolderId;
+    private final Map<String, String> folderIds;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final Duration idleTimeout;
+
+    private final Map<Key, Pool> pools = new ConcurrentHashMap<>();
+
+    private final Timer refillTimer;
+    private final Counter hits;
+    private final Counter misses;
+
+    private Disposable evicting;
+
+    public DocumentPool(
+            GoogleService driveService,
+            MeterRegistry registry,
+            @Value("${app.document.templateId}") String templateId,
+            @Value("${app.document.folderId}") String folderId,
+            @Value("${app.document.folderIds:}") String folderIds,
+            @Value("${app.document.pool.lowWatermark:2}") int lowWatermark,
+            @Value("${app.document.pool.highWatermark:5}") int highWatermark,
+            @Value("${app.document.pool.idleTimeout:10m}") Duration idleTimeout
+    ) {
+        if (lowWatermark < 0 || highWatermark < lowWatermark) {
+            throw new IllegalArgumentException("Invalid document pool watermarks - low: " + lowWatermark + ", high: " + highWatermark);
+        }
+        this.driveService = driveService;
+        this.templateId = templateId;
+        this.defaultFolderId = folderId;
+        this.folderIds = Arrays.stream(folderIds.split(","))
+                .map(String::trim)
+                .filter(entry -> entry.contains("="))
+                .collect(Collectors.toMap(
+                        entry -> entry.substring(0, entry.indexOf('=')).trim(),
+                        entry -> entry.substring(entry.indexOf('=') + 1).trim()
+                ));
+        this.lowWatermark = lowWatermark;
+        this.highWatermark = highWatermark;
+        this.idleTimeout = idleTimeout;
+
+        Gauge.builder("document.pool.depth", this, DocumentPool::depth)
+                .description("Pre-copied documents waiting to be claimed")
+                .register(registry);
+        this.refillTimer = Timer.builder("document.pool.refill")
+                .description("Latency of a single background template copy")
+                .register(registry);
+        this.hits = Counter.builder("document.pool.claims").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("document.pool.claims").tag("result", "miss").register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        Duration every = idleTimeout.dividedBy(2);
+        evicting = Flux.interval(every, every)
+                .concatMap(tick -> evictIdle(System.nanoTime()))
+                .subscribe();
+    }
+
+    /**
+     * Claims a document of {@code owner} (the user of {@code token}) for a new point of the graph and gives it its
+     * final name. Falls back to a direct copy when the pool is empty or the pooled copy can no longer be renamed.
+     */
+    public Mono<GoogleDriveFileResponse> claim(String token, String owner, String graphId, String title) {
+        return Mono.defer(() -> {
+            Pool pool = pool(owner, graphId);
+            String pooledId = pool.available.poll();
+            refill(token, pool);
+
+            if (pooledId == null) {
+                misses.increment();
+                return copy(token, pool.key.folderId(), title);
+            }
+            hits.increment();
+            return driveService.updateFileName(token, pooledId, title)
+                    .onErrorResume(error -> {
+                        log.warn("Pooled document {} could not be claimed, copying a new one: {}", pooledId, error.toString());
+                        return copy(token, pool.key.folderId(), title);
+                    });
+        });
+    }
+
+    // pooled documents across all users and folders
+    public int depth() {
+        return pools.values().stream().mapToInt(pool -> pool.available.size()).sum();
+    }
+
+    // marks the pool used, atomically with eviction: a pool being claimed from is never evicted
+    Pool pool(String owner, String graphId) {
+        return pools.compute(new Key(owner, folderIds.getOrDefault(graphId, defaultFolderId)), (key, pool) -> {
+            Pool used = pool != null ? pool : new Pool(key);
+            used.lastUsed = System.nanoTime();
+            return used;
+        });
+    }
+
+    /**
+     * Removes the pools last claimed from {@code idleTimeout} before {@code now} (nanos) and deletes their copies.
+     *
+     * @return copies deleted
+     */
+    Mono<Integer> evictIdle(long now) {
+        List<Pool> idle = new ArrayList<>();
+        pools.keySet().forEach(key -> pools.computeIfPresent(key, (k, pool) -> {
+            if (now - pool.lastUsed < idleTimeout.toNanos()) {
+                return pool;
+            }
+            idle.add(pool);
+            return null;
+        }));
+        if (idle.isEmpty()) {
+            return Mono.just(0);
+        }
+        return delete(idle)
+                .doOnNext(deleted -> log.info("Evicted {} idle document pools, {} unclaimed copies deleted", idle.size(), deleted));
+    }
+
+    /**
+     * Tops the pool up to the high watermark once it falls below the low watermark, with the owner's latest token.
+     * Only one refill per pool runs at a time; it is detached from the request that triggered it.
+     */
+    void refill(String token, Pool pool) {
+        pool.token = token;
+        if (pool.available.size() >= lowWatermark || !pool.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        int missing = highWatermark - pool.available.size();
+        pool.refill = Flux.range(0, missing)
+                .flatMap(i -> timedCopy(token, pool.key.folderId()), REFILL_CONCURRENCY)
+                .doOnNext(copied -> pool.available.offer(copied.getId()))
+                .doFinally(signal -> pool.refilling.set(false))
+                .subscribe(
+                        copied -> {},
+                        error -> log.warn("Document pool refill stopped: {}", error.toString())
+                );
+    }
+
+    /**
+     * Deletes the unclaimed copies, each with its owner's latest token, so that they do not pile up in the folders.
+     */
+    @PreDestroy
+    public void drain() {
+        if (evicting != null) {
+            evicting.dispose();
+        }
+        int pooled = depth();
+        List<Pool> all = new ArrayList<>(pools.values());
+        pools.clear();
+        Integer deleted = delete(all)
+                .timeout(DRAIN_TIMEOUT, Mono.fromRunnable(() -> log.warn("Document pool drain timed out after {}", DRAIN_TIMEOUT)))
+                .block();
+        if (pooled > 0) {
+            log.info("Document pool drained: {} of {} unclaimed copies deleted", deleted == null ? 0 : deleted, pooled);
+        }
+    }
+
+    // stops their refills, then deletes their copies
+    private Mono<Integer> delete(List<Pool> removed) {
+        removed.forEach(pool -> {
+            Disposable refill = pool.refill;
+            if (refill != null) {
+                refill.dispose();
+            }
+        });
+        AtomicInteger deleted = new AtomicInteger();
+        return Flux.fromIterable(removed)
+                .flatMap(pool -> Flux.fromStream(Stream.generate(pool.available::poll).takeWhile(Objects::nonNull))
+                        .flatMap(id -> driveService.deleteFile(pool.token, id)
+                                .doOnSuccess(nothing -> deleted.incrementAndGet())
+                                .onErrorResume(error -> {
+                                    log.warn("Pooled document {} could not be deleted, left as {}: {}", id, UNASSIGNED_NAME, error.toString());
+                                    return Mono.empty();
+                                }), REFILL_CONCURRENCY))
+                .then(Mono.fromSupplier(deleted::get));
+    }
+
+    private Mono<GoogleDriveFileResponse> timedCopy(String token, String folderId) {
+        return Mono.defer(() -> {
+            Timer.Sample sample = Timer.start();
+            return copy(token, folderId, UNASSIGNED_NAME)
+                    .doOnSuccess(copied -> sample.stop(refillTimer));
+        });
+    }
+
+    private Mono<GoogleDriveFileResponse> copy(String token, String folderId, String title) {
+        return driveService.copyDocs(token, templateId, folderId, title);
+    }
+
+    record Key(String owner, String folderId) {
+    }
+
+    static final class Pool {
+        final Key key;
+        final Queue<String> available = new ConcurrentLinkedQueue<>();
+        final AtomicBoolean refilling = new AtomicBoolean(false);
+        volatile String token;
+        volatile Disposable refill;
+        volatile long lastUsed;
+
+        Pool(Key key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.wizlit.path.temp;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.ConnectTimeoutException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ClientHttpRequest;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.client.HttpClientRequest;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquirePendingLimitException;
+import reactor.netty.internal.shaded.reactor.pool.PoolAcquireTimeoutException;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.util.retry.Retry;
+
+import java.net.ConnectException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+/**
+ * Connections and failure handling of the calls {@link GoogleService} makes.
+ * <p>
+ * Google gets its own Reactor Netty pool, so a slow Google holds at most {@code maxConnections} connections and
+ * queues at most twice as many requests for {@code pendingAcquireTimeout}. Each call has its own response timeout.
+ * Idempotent calls (userinfo, rename, delete) are retried on transient failures (I/O errors, timeouts, 429, 5xx) with
+ * jittered exponential backoff; a copy only when the request was never sent. A circuit breaker per API (oauth,
+ * drive) fails calls fast while most recent calls failed, and a bulkhead bounds the Drive calls in flight.
+ * Timeouts, an open breaker and a full bulkhead surface as {@code GOOGLE_UNAVAILABLE}, see {@link #unavailable}.
+ */
+@Component
+public class GoogleClients {
+
+    public enum Call {
+        USERINFO(true, false),
+        COPY(false, true),
+        RENAME(true, true),
+        DELETE(true, true);
+
+        private final boolean idempotent;
+        private final boolean drive;
+
+        Call(boolean idempotent, boolean drive) {
+            this.idempotent = idempotent;
+            this.drive = drive;
+        }
+    }
+
+    private static final Duration MAX_IDLE_TIME = Duration.ofSeconds(30);
+
+    private final ConnectionProvider connections;
+    private final ClientHttpConnector connector;
+    private final Duration userinfoTimeout;
+    private final Duration copyTimeout;
+    private final Duration renameTimeout;
+    private final int maxRetries;
+    private final Duration retryBackoff;
+    private final CircuitBreaker oauthBreaker;
+    private final CircuitBreaker driveBreaker;
+    private final Bulkhead driveBulkhead;
+    private final MeterRegistry registry;
+
+    // defaults, for a GoogleService built outside the context; close() it when done
+    public GoogleClients() {
+        this(Duration.ofSeconds(2), 50, Duration.ofSeconds(2),
+                Duration.ofSeconds(3), Duration.ofSeconds(10), Duration.ofSeconds(5),
+                2, Duration.ofMillis(200), 16, 20, 50, Duration.ofSeconds(10),
+                new SimpleMeterRegistry());
+    }
+
+    @Autowired
+    public GoogleClients(
+            @Value("${app.google.client.connectTimeout:2s}") Duration connectTimeout,
+            @Value("${app.google.client.maxConnections:50}") int maxConnections,
+            @Value("${app.google.client.pendingAcquireTimeout:2s}") Duration pendingAcquireTimeout,
+            @Value("${app.google.client.timeout.userinfo:3s}") Duration userinfoTimeout,
+            @Value("${app.google.client.timeout.copy:10s}") Duration copyTimeout,
+            @Value("${app.google.client.timeout.rename:5s}") Duration renameTimeout,
+            @Value("${app.google.client.retry.maxRetries:2}") int maxRetries,
+            @Value("${app.google.client.retry.backoff:200ms}") Duration retryBackoff,
+            @Value("${app.google.client.drive.maxConcurrentCalls:16}") int driveMaxConcurrentCalls,
+            @Value("${app.google.client.breaker.window:20}") int breakerWindow,
+            @Value("${app.google.client.breaker.failureRate:50}") float breakerFailureRate,
+            @Value("${app.google.client.breaker.openDuration:10s}") Duration breakerOpenDuration,
+            MeterRegistry registry
+    ) {
+        this.connections = ConnectionProvider.builder("google")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(maxConnections * 2)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(MAX_IDLE_TIME)
+                .evictInBackground(MAX_IDLE_TIME)
+                .metrics(true)
+                .build();
+        this.connector = new ReactorClientHttpConnector(HttpClient.create(connections)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis()));
+        this.userinfoTimeout = userinfoTimeout;
+        this.copyTimeout = copyTimeout;
+        this.renameTimeout = renameTimeout;
+        this.maxRetries = maxRetries;
+        this.retryBackoff = retryBackoff;
+
+        // 실패로 세는 건 일시적인 오류뿐: 401 같은 응답은 성공으로 셈
+        CircuitBreakerRegistry breakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(breakerWindow)
+                .minimumNumberOfCalls(Math.max(1, breakerWindow / 2))
+                .failureRateThreshold(breakerFailureRate)
+                .waitDurationInOpenState(breakerOpenDuration)
+                .permittedNumberOfCallsInHalfOpenState(2)
+                .recordException(GoogleClients::transientFailure)
+                .build());
+        this.oauthBreaker = breakers.circuitBreaker("google-oauth");
+        this.driveBreaker = breakers.circuitBreaker("google-drive");
+        // 대기 없이 거절: 기다리면 event loop 가 막힘
+        BulkheadRegistry bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(driveMaxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        this.driveBulkhead = bulkheads.bulkhead("google-drive");
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(breakers).bindTo(registry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+        this.registry = registry;
+    }
+
+    @PreDestroy
+    public void close() {
+        connections.dispose();
+    }
+
+    public ClientHttpConnector connector() {
+        return connector;
+    }
+
+    // response timeout of one attempt, set on the Reactor Netty request
+    public Consumer<ClientHttpRequest> timeout(Call call) {
+        Duration timeout = switch (call) {
+            case USERINFO -> userinfoTimeout;
+            case COPY -> copyTimeout;
+            // 삭제도 rename 처럼 metadata 만 바꾸는 호출
+            case RENAME, DELETE -> renameTimeout;
+        };
+        return request -> request.<HttpClientRequest>getNativeRequest().responseTimeout(timeout);
+    }
+
+    /**
+     * One call to Google: every attempt goes through the API's circuit breaker, retries follow {@link Call},
+     * and Drive calls hold a bulkhead permit across their attempts.
+     */
+    public <T> Mono<T> protect(Call call, Mono<T> attempt) {
+        Mono<T> guarded = attempt
+                .transformDeferred(CircuitBreakerOperator.of(call.drive ? driveBreaker : oauthBreaker))
+                .retryWhen(Retry.backoff(maxRetries, retryBackoff)
+                        .jitter(0.5)
+                        .filter(error -> call.idempotent ? transientFailure(error) : notSent(error))
+                        .doBeforeRetry(signal -> registry.counter("path.google.retries", "call", call.name().toLowerCase()).increment())
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()));
+        return call.drive ? guarded.transformDeferred(BulkheadOperator.of(driveBulkhead)) : guarded;
+    }
+
+    // Google could not serve the call now: worth retrying later, not a fault of the request
+    public static boolean unavailable(Throwable error) {
+        return error instanceof CallNotPermittedException
+                || error instanceof BulkheadFullException
+                || transientFailure(error);
+    }
+
+    static boolean transientFailure(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().is5xxServerError() || response.getStatusCode().value() == 429;
+        }
+        return error instanceof WebClientRequestException || error instanceof TimeoutException;
+    }
+
+    // failed before the request reached Google (or rejected by its rate limit), so repeating cannot duplicate it
+    static boolean notSent(Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            return response.getStatusCode().value() == 429;
+        }
+        Throwable cause = error instanceof WebClientRequestException ? error.getCause() : null;
+        return cause instanceof ConnectException
+                || cause instanceof ConnectTimeoutException
+                || cause instanceof PoolAcquireTimeoutException
+                || cause instanceof PoolAcquirePendingLimitException;
+    }
+}
@@ -2,7 +2,11 @@ package com.wizlit.path.temp;
 
 import com.wizlit.path.exception.ApiException;
 import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.profiling.DriveCallEvent;
+import com.wizlit.path.profiling.FlightEvents;
+import com.wizlit.path.temp.GoogleClients.Call;
 import com.wizlit.path.utils.Validator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
@@ -18,23 +22,40 @@ public class GoogleService {
 
     private final WebClient driveClient;
     private final WebClient oauthClient;
+    private final GoogleClients clients;
 
-    public GoogleService(WebClient.Builder oauthBuilder, WebClient.Builder driveBuilder) {
+    private static final String OAUTH_URL = "https://www.googleapis.com/oauth2/v3";
+    private static final String DRIVE_URL = "https://www.googleapis.com/drive/v3";
+
+    // base urls are configurable so that tests can point the service at a local stand-in;
+    // the connection pool belongs to clients, which whoever created it closes
+    public GoogleService(
+            WebClient.Builder oauthBuilder,
+            WebClient.Builder driveBuilder,
+            @Value("${app.google.oauthUrl:" + OAUTH_URL + "}") String oauthUrl,
+            @Value("${app.google.driveUrl:" + DRIVE_URL + "}") String driveUrl,
+            GoogleClients clients
+    ) {
         this.oauthClient = oauthBuilder
-                .baseUrl("https://www.googleapis.com/oauth2/v3")
+                .baseUrl(oauthUrl)
+                .clientConnector(clients.connector())
                 .build();
         this.driveClient = driveBuilder
-                .baseUrl("https://www.googleapis.com/drive/v3")
+                .baseUrl(driveUrl)
+                .clientConnector(clients.connector())
                 .build();
+        this.clients = clients;
     }
 
     public Mono<String> getUserInfo(String accessToken) {
-        return oauthClient.get()
-                .uri("/userinfo")
-                .headers(h -> h.setBearerAuth(accessToken))
-                .retrieve()
-                .bodyToMono(String.class)
+        return clients.protect(Call.USERINFO, oauthClient.get()
+                        .uri("/userinfo")
+                        .headers(h -> h.setBearerAuth(accessToken))
+                        .httpRequest(clients.timeout(Call.USERINFO))
+                        .retrieve()
+                        .bodyToMono(String.class))
                 .onErrorMap(error -> Validator.from(error)
+                        .matchesElseError(new ApiException(ErrorCode.GOOGLE_UNAVAILABLE, "userinfo"), GoogleClients::unavailable)
                         .containsAllElseError(new ApiException(ErrorCode.INVALID_TOKEN), "Unauthorized")
                         .toException());
     }
@@ -44,35 +65,57 @@ public class GoogleService {
         body.put("name", title);
         body.put("parents", List.of(folderId));
 
-        return driveClient.post()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/files/{fileId}/copy")
-                        .queryParam("supportsAllDrives", "true")
-                        .build(sourceDocId))
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(GoogleDriveFileResponse.class)
+        return FlightEvents.record(() -> DriveCallEvent.of("copy", sourceDocId), clients.protect(Call.COPY, driveClient.post()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/files/{fileId}/copy")
+                                .queryParam("supportsAllDrives", "true")
+                                .build(sourceDocId))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .bodyValue(body)
+                        .httpRequest(clients.timeout(Call.COPY))
+                        .retrieve()
+                        .bodyToMono(GoogleDriveFileResponse.class))
                 .onErrorMap(error -> Validator.from(error)
-                        .toException());
+                        .matchesElseError(new ApiException(ErrorCode.GOOGLE_UNAVAILABLE, "copy"), GoogleClients::unavailable)
+                        .toException()),
+                (event, file) -> event.fileId = file.getId());
     }
 
     public Mono<GoogleDriveFileResponse> updateFileName(String accessToken, String fileId, String newName) {
         Map<String, Object> body = new HashMap<>();
         body.put("name", newName);
         
-        return driveClient.patch()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/files/{fileId}")
-                        .queryParam("supportsAllDrives", "true")
-                        .queryParam("fields", "id,name")
-                        .build(fileId))
-                .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
-                .header(HttpHeaders.CONTENT_TYPE, "application/json")
-                .bodyValue(body)
-                .retrieve()
-                .bodyToMono(GoogleDriveFileResponse.class)
+        return FlightEvents.record(() -> DriveCallEvent.of("rename", fileId), clients.protect(Call.RENAME, driveClient.patch()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/files/{fileId}")
+                                .queryParam("supportsAllDrives", "true")
+                                .queryParam("fields", "id,name")
+                                .build(fileId))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .header(HttpHeaders.CONTENT_TYPE, "application/json")
+                        .bodyValue(body)
+                        .httpRequest(clients.timeout(Call.RENAME))
+                        .retrieve()
+                        .bodyToMono(GoogleDriveFileResponse.class))
                 .onErrorMap(error -> Validator.from(error)
-                        .toException());
+                        .matchesElseError(new ApiException(ErrorCode.GOOGLE_UNAVAILABLE, "rename"), GoogleClients::unavailable)
+                        .toException()),
+                (event, file) -> event.fileId = file.getId());
+    }
+
+    public Mono<Void> deleteFile(String accessToken, String fileId) {
+        return FlightEvents.record(() -> DriveCallEvent.of("delete", fileId), clients.protect(Call.DELETE, driveClient.delete()
+                        .uri(uriBuilder -> uriBuilder
+                                .path("/files/{fileId}")
+                                .queryParam("supportsAllDrives", "true")
+                                .build(fileId))
+                        .header(HttpHeaders.AUTHORIZATION, "Bearer " + accessToken)
+                        .httpRequest(clients.timeout(Call.DELETE))
+                        .retrieve()
+                        .bodyToMono(Void.class))
+                .onErrorMap(error -> Validator.from(error)
+                        .matchesElseError(new ApiException(ErrorCode.GOOGLE_UNAVAILABLE, "delete"), GoogleClients::unavailable)
+                        .toException()),
+                (event, nothing) -> {});
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,87 @@
+package com.wizlit.path.utils;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.result.method.RequestMappingInfo;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Access policy of every mapped route, computed once from the handler mappings.
+ * <p>
+ * Literal routes are resolved with a single hash lookup. Routes with path variables are matched against the
+ * few templated patterns of the request method, most specific first, like the handler mapping itself does.
+ * Actuator endpoints are private, except health, which load balancers and probes call without a token. Other
+ * unmapped routes are public: they are answered by other handlers (swagger) or end in a 404.
+ */
+public final class AccessPolicyTable {
+
+    private final Map<HttpMethod, Map<String, Boolean>> literalRoutes = new HashMap<>();
+    private final Map<HttpMethod, List<TemplatedRoute>> templatedRoutes = new HashMap<>();
+    // any method, checked in order when no controller route matched
+    private final List<TemplatedRoute> managementRoutes = new ArrayList<>();
+
+    private record TemplatedRoute(PathPattern pattern, boolean isPrivate) {}
+
+    /**
+     * @param managementBasePath base path of the actuator endpoints ({@code management.endpoints.web.base-path})
+     */
+    public static AccessPolicyTable from(Map<RequestMappingInfo, HandlerMethod> handlerMethods, String managementBasePath) {
+        AccessPolicyTable table = new AccessPolicyTable();
+        String base = managementBasePath.endsWith("/")
+                ? managementBasePath.substring(0, managementBasePath.length() - 1)
+                : managementBasePath;
+        table.managementRoutes.add(new TemplatedRoute(PathPatternParser.defaultInstance.parse(base + "/health/**"), false));
+        table.managementRoutes.add(new TemplatedRoute(PathPatternParser.defaultInstance.parse(base + "/**"), true));
+        handlerMethods.forEach((info, handlerMethod) -> {
+            boolean isPrivate = handlerMethod.getMethod().isAnnotationPresent(PrivateAccess.class);
+            Set<RequestMethod> methods = info.getMethodsCondition().getMethods();
+            for (RequestMethod method : methods.isEmpty() ? Set.of(RequestMethod.values()) : methods) {
+                for (PathPattern pattern : info.getPatternsCondition().getPatterns()) {
+                    table.add(method.asHttpMethod(), pattern, isPrivate);
+                }
+            }
+        });
+        table.templatedRoutes.values().forEach(routes ->
+                routes.sort((a, b) -> PathPattern.SPECIFICITY_COMPARATOR.compare(a.pattern(), b.pattern())));
+        return table;
+    }
+
+    private void add(HttpMethod method, PathPattern pattern, boolean isPrivate) {
+        if (pattern.hasPatternSyntax()) {
+            templatedRoutes.computeIfAbsent(method, m -> new ArrayList<>()).add(new TemplatedRoute(pattern, isPrivate));
+        } else {
+            literalRoutes.computeIfAbsent(method, m -> new HashMap<>()).merge(pattern.getPatternString(), isPrivate, Boolean::logicalOr);
+        }
+    }
+
+    public boolean isPrivate(HttpMethod method, PathContainer path) {
+        Map<String, Boolean> literals = literalRoutes.get(method);
+        Boolean literal = literals == null ? null : literals.get(path.value());
+        if (literal != null) {
+            return literal;
+        }
+        List<TemplatedRoute> routes = templatedRoutes.get(method);
+        if (routes != null) {
+            for (TemplatedRoute route : routes) {
+                if (route.pattern().matches(path)) {
+                    return route.isPrivate();
+                }
+            }
+        }
+        for (TemplatedRoute route : managementRoutes) {
+            if (route.pattern().matches(path)) {
+                return route.isPrivate();
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,161 @@
+package com.wizlit.path.utils;
+
+import com.wizlit.path.service.EdgeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * Serializes graph mutations per graph: structure changes and point updates.
+ * <p>
+ * Within one node, mutations of the same graph wait in a striped FIFO queue, so they never compete for a
+ * database connection. Across nodes, the holder of a stripe additionally takes a transaction-scoped postgres
+ * advisory lock for the graph. Validation and insert of a mutation both run inside this critical section,
+ * which makes check-then-insert sequences such as the backward path check race-free under READ COMMITTED.
+ * <p>
+ * The sequencer owns the mutation's transaction: it begins once the stripe is held and commits (releasing the
+ * advisory lock) before the stripe is handed on, so a waiter holds neither a connection nor a lock. Call it
+ * outside any transaction, and keep calls to other services (Google) out of the mutation: make them before the
+ * call or after it completes.
+ */
+@Component
+public class GraphMutationSequencer {
+
+    private final Function<String, Mono<Void>> globalLock;
+    private final TransactionalOperator transactions;
+    private final Stripe[] stripes;
+
+    @Autowired
+    public GraphMutationSequencer(EdgeService edgeService, TransactionalOperator transactions,
+                                  @Value("${app.graph.sequencer.stripes:64}") int stripes) {
+        this(edgeService::lockGraph, transactions, stripes);
+    }
+
+    public GraphMutationSequencer(Function<String, Mono<Void>> globalLock, TransactionalOperator transactions, int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Sequencer needs at least one stripe - stripes: " + stripes);
+        }
+        this.globalLock = globalLock;
+        this.transactions = transactions;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Runs the mutation in a transaction of its own once every earlier mutation of the same graph has committed
+     * or rolled back. The stripe is released only after this transaction has ended.
+     */
+    public <T> Mono<T> sequence(String graphId, Mono<T> mutation) {
+        Stripe stripe = stripes[Math.floorMod(graphId.hashCode(), stripes.length)];
+        return Mono.usingWhen(
+                stripe.acquire(),
+                permit -> globalLock.apply(graphId).then(mutation).as(transactions::transactional),
+                Permit::release
+        );
+    }
+
+    /**
+     * Asynchronous FIFO mutex: waiters are parked as sinks instead of threads.
+     */
+    private static final class Stripe {
+
+        private final Queue<Waiter> waiters = new ArrayDeque<>();
+        private boolean held;
+
+        Mono<Permit> acquire() {
+            return Mono.<Permit>create(sink -> {
+                        Waiter waiter = new Waiter(sink, this);
+                        boolean grantNow;
+                        synchronized (this) {
+                            grantNow = !held;
+                            if (grantNow) {
+                                held = true;
+                            } else {
+                                waiters.add(waiter);
+                            }
+                        }
+                        if (grantNow) {
+                            waiter.grant();
+                        } else {
+                            sink.onCancel(() -> cancel(waiter));
+                        }
+                    })
+                    // a permit granted to an already cancelled waiter is discarded, hand it on
+                    .doOnDiscard(Permit.class, Permit::releaseNow);
+        }
+
+        void release() {
+            while (true) {
+                Waiter next;
+                synchronized (this) {
+                    next = waiters.poll();
+                    if (next == null) {
+                        held = false;
+                        return;
+                    }
+                }
+                if (next.grant()) {
+                    return;
+                }
+            }
+        }
+
+        private void cancel(Waiter waiter) {
+            if (waiter.done.compareAndSet(false, true)) {
+                synchronized (this) {
+                    waiters.remove(waiter);
+                }
+            }
+        }
+    }
+
+    private static final class Waiter {
+
+        private final MonoSink<Permit> sink;
+        private final Stripe stripe;
+        private final AtomicBoolean done = new AtomicBoolean(false);
+
+        Waiter(MonoSink<Permit> sink, Stripe stripe) {
+            this.sink = sink;
+            this.stripe = stripe;
+        }
+
+        boolean grant() {
+            if (!done.compareAndSet(false, true)) {
+                return false;
+            }
+            sink.success(new Permit(stripe));
+            return true;
+        }
+    }
+
+    private static final class Permit {
+
+        private final Stripe stripe;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        Permit(Stripe stripe) {
+            this.stripe = stripe;
+        }
+
+        Mono<Void> release() {
+            return Mono.fromRunnable(this::releaseNow);
+        }
+
+        void releaseNow() {
+            if (released.compareAndSet(false, true)) {
+                stripe.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.wizlit.path.utils;
+
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+
+import java.util.regex.Pattern;
+
+/**
+ * Graph (namespace) ids. Every point and edge belongs to one graph; versions, locks and rendered or
+ * replicated copies are kept per graph. The unscoped routes ({@code /api/path}, {@code /api/point})
+ * address {@link #DEFAULT}, the graph all rows belonged to before namespaces.
+ */
+public final class GraphNamespace {
+
+    public static final String DEFAULT = "path";
+
+    private static final Pattern ID = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private GraphNamespace() {}
+
+    // null: unscoped route
+    public static String resolve(String graphId) {
+        if (graphId == null) {
+            return DEFAULT;
+        }
+        if (!ID.matcher(graphId).matches()) {
+            throw new ApiException(ErrorCode.INVALID_GRAPH_ID, graphId);
+        }
+        return graphId;
+    }
+}
@@ -0,0 +1,160 @@
+package com.wizlit.path.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.security.AlgorithmParameters;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.ECParameterSpec;
+import java.security.spec.ECPoint;
+import java.security.spec.ECPublicKeySpec;
+import java.security.spec.RSAPublicKeySpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Signing keys of the token issuer, fetched from its JWKS endpoint.
+ * <p>
+ * Keys are refreshed in the background. A token signed with an unknown {@code kid} triggers an early refresh,
+ * at most once per {@code minRefreshInterval}, so that key rotation is picked up without hammering the issuer.
+ * Concurrent refreshes share one request, and a failed refresh keeps the previous keys.
+ */
+@Slf4j
+@Component
+public class JwksKeySource {
+
+    private static final ECParameterSpec P256 = p256();
+
+    private final WebClient client;
+    private final ObjectMapper mapper;
+    private final Duration refreshInterval;
+    private final Duration minRefreshInterval;
+
+    private final AtomicReference<Map<String, PublicKey>> keys = new AtomicReference<>(Map.of());
+    private final AtomicReference<Mono<Map<String, PublicKey>>> inFlight = new AtomicReference<>();
+    private volatile Instant lastRefresh = Instant.EPOCH;
+    private Disposable scheduledRefresh;
+
+    public JwksKeySource(
+            WebClient.Builder builder,
+            ObjectMapper mapper,
+            @Value("${app.privateAccess.jwksUri:https://www.googleapis.com/oauth2/v3/certs}") String jwksUri,
+            @Value("${app.privateAccess.jwksRefreshInterval:1h}") Duration refreshInterval,
+            @Value("${app.privateAccess.jwksMinRefreshInterval:1m}") Duration minRefreshInterval
+    ) {
+        this.client = builder.baseUrl(jwksUri).build();
+        this.mapper = mapper;
+        this.refreshInterval = refreshInterval;
+        this.minRefreshInterval = minRefreshInterval;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduledRefresh = Flux.interval(Duration.ZERO, refreshInterval)
+                .concatMap(tick -> refresh().onErrorResume(error -> Mono.empty()))
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduledRefresh != null) {
+            scheduledRefresh.dispose();
+        }
+    }
+
+    /**
+     * Returns the key with the given id, refreshing the key set once if the id is unknown.
+     */
+    public Mono<PublicKey> key(String kid) {
+        PublicKey known = keys.get().get(kid);
+        if (known != null) {
+            return Mono.just(known);
+        }
+        if (Instant.now().isBefore(lastRefresh.plus(minRefreshInterval))) {
+            return Mono.empty();
+        }
+        return refresh()
+                .onErrorResume(error -> Mono.just(keys.get()))
+                .flatMap(refreshed -> Mono.justOrEmpty(refreshed.get(kid)));
+    }
+
+    Mono<Map<String, PublicKey>> refresh() {
+        Mono<Map<String, PublicKey>> current = inFlight.get();
+        if (current != null) {
+            return current;
+        }
+        Mono<Map<String, PublicKey>> request = client.get()
+                .retrieve()
+                .bodyToMono(String.class)
+                .map(this::parse)
+                .doOnNext(parsed -> {
+                    keys.set(parsed);
+                    lastRefresh = Instant.now();
+                })
+                .doOnError(error -> {
+                    lastRefresh = Instant.now();
+                    log.warn("JWKS refresh failed, keeping {} known keys: {}", keys.get().size(), error.toString());
+                })
+                .doFinally(signal -> inFlight.set(null))
+                .cache();
+        return inFlight.compareAndSet(null, request) ? request : refresh();
+    }
+
+    private Map<String, PublicKey> parse(String json) {
+        try {
+            Map<String, PublicKey> parsed = new HashMap<>();
+            for (JsonNode jwk : mapper.readTree(json).path("keys")) {
+                String kid = jwk.path("kid").asText(null);
+                if (kid == null) {
+                    continue;
+                }
+                switch (jwk.path("kty").asText()) {
+                    case "RSA" -> parsed.put(kid, KeyFactory.getInstance("RSA").generatePublic(new RSAPublicKeySpec(
+                            unsigned(jwk.path("n")), unsigned(jwk.path("e")))));
+                    case "EC" -> {
+                        if ("P-256".equals(jwk.path("crv").asText())) {
+                            parsed.put(kid, KeyFactory.getInstance("EC").generatePublic(new ECPublicKeySpec(
+                                    new ECPoint(unsigned(jwk.path("x")), unsigned(jwk.path("y"))), P256)));
+                        }
+                    }
+                    default -> log.debug("Skipping JWK {} with unsupported key type {}", kid, jwk.path("kty").asText());
+                }
+            }
+            return Map.copyOf(parsed);
+        } catch (IOException | GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid JWKS document", e);
+        }
+    }
+
+    private static BigInteger unsigned(JsonNode base64Url) {
+        return new BigInteger(1, Base64.getUrlDecoder().decode(base64Url.asText()));
+    }
+
+    private static ECParameterSpec p256() {
+        try {
+            AlgorithmParameters parameters = AlgorithmParameters.getInstance("EC");
+            parameters.init(new ECGenParameterSpec("secp256r1"));
+            return parameters.getParameterSpec(ECParameterSpec.class);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
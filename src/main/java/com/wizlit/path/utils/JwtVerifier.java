@@ -0,0 +1,198 @@
+package com.wizlit.path.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.scheduling.WorkSchedulers;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Verifies signed JWTs locally against the keys of {@link JwksKeySource}.
+ * <p>
+ * Supports RS256 and ES256. Signature, issuer, audience, expiry and not-before are checked before the email claim
+ * is trusted. The audience is required: without it a token issued to any other client of the same issuer would pass.
+ * Expiry and not-before both allow the same clock skew. Verified claims are cached per token hash until the token
+ * expires, so repeated requests with the same token skip both the JSON parsing and the signature check; a token not
+ * in the cache is parsed and checked on the compute scheduler, off the event loop.
+ */
+@Component
+public class JwtVerifier {
+
+    private final JwksKeySource keySource;
+    private final ObjectMapper mapper;
+    private final Set<String> issuers;
+    private final String audience;
+    private final long clockSkew;
+    private final Cache<String, VerifiedClaims> verified;
+    private final WorkSchedulers schedulers;
+
+    public JwtVerifier(
+            JwksKeySource keySource,
+            ObjectMapper mapper,
+            WorkSchedulers schedulers,
+            MeterRegistry registry,
+            @Value("${app.privateAccess.jwtIssuers:https://accounts.google.com,accounts.google.com}") String issuers,
+            @Value("${app.privateAccess.jwtAudience:}") String audience,
+            @Value("${app.privateAccess.jwtClockSkew:30s}") Duration clockSkew,
+            @Value("${app.privateAccess.tokenCache.maxSize:10000}") long maxSize
+    ) {
+        this.keySource = keySource;
+        this.mapper = mapper;
+        this.schedulers = schedulers;
+        this.issuers = Arrays.stream(issuers.split(","))
+                .map(String::trim)
+                .filter(s -> !s.isEmpty())
+                .collect(Collectors.toSet());
+        if (audience.isBlank()) {
+            throw new IllegalArgumentException("app.privateAccess.jwtAudience (JWT_AUDIENCE) must be set to this app's client id");
+        }
+        this.audience = audience.trim();
+        this.clockSkew = clockSkew.toSeconds();
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, verified, "jwtClaims");
+    }
+
+    public Mono<String> verify(String token) {
+        String key = TokenVerifier.hash(token);
+        VerifiedClaims cached = verified.getIfPresent(key);
+        if (cached != null) {
+            return Mono.just(cached.email());
+        }
+        return Mono.defer(() -> verifyUncached(key, token))
+                .subscribeOn(schedulers.compute());
+    }
+
+    private Mono<String> verifyUncached(String key, String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length != 3) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
+        }
+        JsonNode header;
+        JsonNode payload;
+        byte[] signature;
+        try {
+            header = decode(parts[0]);
+            payload = decode(parts[1]);
+            signature = Base64.getUrlDecoder().decode(parts[2]);
+        } catch (IOException | IllegalArgumentException e) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN, e));
+        }
+
+        String algorithm = switch (header.path("alg").asText()) {
+            case "RS256" -> "SHA256withRSA";
+            case "ES256" -> "SHA256withECDSAinP1363Format";
+            default -> null;
+        };
+        if (algorithm == null) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
+        }
+
+        byte[] signingInput = (parts[0] + "." + parts[1]).getBytes(StandardCharsets.US_ASCII);
+        return keySource.key(header.path("kid").asText())
+                .switchIfEmpty(Mono.error(new ApiException(ErrorCode.INVALID_TOKEN)))
+                .flatMap(publicKey -> {
+                    if (!signatureMatches(algorithm, publicKey, signingInput, signature)) {
+                        return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
+                    }
+                    return validateClaims(key, payload);
+                });
+    }
+
+    private Mono<String> validateClaims(String key, JsonNode payload) {
+        long now = Instant.now().getEpochSecond();
+        long exp = payload.path("exp").asLong(0);
+        if (exp + clockSkew < now) {
+            return Mono.error(new ApiException(ErrorCode.EXPIRED_TOKEN));
+        }
+        // not valid yet
+        if (payload.path("nbf").asLong(0) - clockSkew > now) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
+        }
+        if (!issuers.isEmpty() && !issuers.contains(payload.path("iss").asText())) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
+        }
+        if (!hasAudience(payload.path("aud"))) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
+        }
+        String email = payload.path("email").asText(null);
+        if (email == null) {
+            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
+        }
+        verified.put(key, new VerifiedClaims(email, exp));
+        return Mono.just(email);
+    }
+
+    private boolean hasAudience(JsonNode aud) {
+        if (aud.isArray()) {
+            for (JsonNode value : aud) {
+                if (audience.equals(value.asText())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return audience.equals(aud.asText());
+    }
+
+    private JsonNode decode(String part) throws IOException {
+        return mapper.readTree(Base64.getUrlDecoder().decode(part));
+    }
+
+    private static boolean signatureMatches(String algorithm, PublicKey key, byte[] signingInput, byte[] signature) {
+        try {
+            Signature verifier = Signature.getInstance(algorithm);
+            verifier.initVerify(key);
+            verifier.update(signingInput);
+            return verifier.verify(signature);
+        } catch (GeneralSecurityException e) {
+            // wrong key type for the algorithm, or a malformed signature
+            return false;
+        }
+    }
+
+    private record VerifiedClaims(String email, long exp) {}
+
+    private static final class UntilExpiry implements Expiry<String, VerifiedClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedClaims value, long currentTime) {
+            long seconds = Math.max(0, value.exp() - Instant.now().getEpochSecond());
+            return TimeUnit.SECONDS.toNanos(seconds);
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedClaims value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -1,80 +1,64 @@
 package com.wizlit.path.utils;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.wizlit.path.exception.ApiException;
 import com.wizlit.path.exception.ErrorCode;
-import com.wizlit.path.temp.GoogleService;
+import com.wizlit.path.profiling.FlightEvents;
+import com.wizlit.path.profiling.TokenVerificationEvent;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpRequest;
 import org.springframework.stereotype.Component;
-import org.springframework.web.method.HandlerMethod;
 import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
 import org.springframework.web.server.ServerWebExchange;
 import org.springframework.web.server.WebFilter;
 import org.springframework.web.server.WebFilterChain;
 import reactor.core.publisher.Mono;
 
-import java.io.IOException;
-import java.nio.charset.StandardCharsets;
-import java.time.Instant;
 import java.util.Arrays;
-import java.util.Base64;
-import java.util.List;
 import java.util.Set;
 import java.util.stream.Collectors;
 
 @Component
 public class PrivateAccessFilter implements WebFilter {
 
-    // List of path prefixes for Swagger and related endpoints/resources.
-    private static final List<String> SWAGGER_PATHS = Arrays.asList(
-            "/swagger-ui", "/swagger-ui/", "/v3/api-docs", "/swagger-resources", "/webjars/"
-    );
-
-    private final RequestMappingHandlerMapping handlerMapping;
+    private final AccessPolicyTable accessPolicy;
     private final Set<String> allowedEmails;
-    private final ObjectMapper mapper = new ObjectMapper();
-    private final GoogleService googleService;
+    private final TokenVerifier tokenVerifier;
+    private final JwtVerifier jwtVerifier;
 
     public PrivateAccessFilter(
             @Qualifier("requestMappingHandlerMapping") RequestMappingHandlerMapping handlerMapping,
             @Value("${app.privateAccess.allowedEmails}") String emails,
-            GoogleService googleService
+            @Value("${management.endpoints.web.base-path:/actuator}") String managementBasePath,
+            TokenVerifier tokenVerifier,
+            JwtVerifier jwtVerifier
     ) {
-        this.handlerMapping = handlerMapping;
+        // routes are fixed once the handler mapping is initialized, so their policy is resolved up front
+        this.accessPolicy = AccessPolicyTable.from(handlerMapping.getHandlerMethods(), managementBasePath);
         this.allowedEmails = Arrays.stream(emails.split(","))
                 .map(String::trim)
                 .filter(s -> !s.isEmpty())
                 .collect(Collectors.toSet());
-        this.googleService = googleService;
+        this.tokenVerifier = tokenVerifier;
+        this.jwtVerifier = jwtVerifier;
     }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
-        String path = exchange.getRequest().getURI().getPath();
-
-        // Exclude Swagger UI and related resources from authentication filtering.
-        if (SWAGGER_PATHS.stream().anyMatch(path::startsWith)) {
-            return chain.filter(exchange);
-        }
+        ServerHttpRequest request = exchange.getRequest();
 
         // 1️⃣ Allow preflight requests to bypass authentication
-        if (HttpMethod.OPTIONS.equals(exchange.getRequest().getMethod())) {
+        if (HttpMethod.OPTIONS.equals(request.getMethod())) {
             return chain.filter(exchange);
         }
 
-        return handlerMapping.getHandler(exchange)
-                .cast(HandlerMethod.class)
-                .flatMap(handlerMethod -> {
-                    if (handlerMethod.getMethod().isAnnotationPresent(PrivateAccess.class)) {
-                        return authenticate(exchange, chain);
-                    } else {
-                        return chain.filter(exchange);
-                    }
-                });
+        // Swagger UI, actuator health and unmapped paths are never private
+        if (accessPolicy.isPrivate(request.getMethod(), request.getPath().pathWithinApplication())) {
+            return authenticate(exchange, chain);
+        }
+        return chain.filter(exchange);
     }
 
     private Mono<Void> authenticate(ServerWebExchange exchange, WebFilterChain chain) {
@@ -94,41 +78,15 @@ public class PrivateAccessFilter implements WebFilter {
     }
 
     private Mono<Void> processGoogleToken(String token, ServerWebExchange exchange, WebFilterChain chain) {
-        return googleService.getUserInfo(token)
-                .flatMap(json -> {
-                    try {
-                        JsonNode userInfo = mapper.readTree(json);
-                        String email = userInfo.path("email").asText(null);
-                        if (email == null) {
-                            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
-                        }
-                        return validateAndProceed(email, token, exchange, chain);
-                    } catch (IOException e) {
-                        return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN, e));
-                    }
-                });
+        return FlightEvents.record(() -> TokenVerificationEvent.of("google", exchange.getRequest().getPath().value()),
+                        tokenVerifier.verifyGoogleToken(token), (event, email) -> {})
+                .flatMap(email -> validateAndProceed(email, token, exchange, chain));
     }
 
     private Mono<Void> processJwtToken(String token, ServerWebExchange exchange, WebFilterChain chain) {
-        try {
-            String[] parts = token.split("\\.");
-            if (parts.length < 2) {
-                return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN));
-            }
-            String payloadJson = new String(
-                    Base64.getUrlDecoder().decode(parts[1]),
-                    StandardCharsets.UTF_8
-            );
-            JsonNode payload = mapper.readTree(payloadJson);
-            long exp = payload.get("exp").asLong();
-            if (exp < Instant.now().getEpochSecond()) {
-                return Mono.error(new ApiException(ErrorCode.EXPIRED_TOKEN));
-            }
-            String email = payload.get("email").asText();
-            return validateAndProceed(email, token, exchange, chain);
-        } catch (IOException | IllegalArgumentException e) {
-            return Mono.error(new ApiException(ErrorCode.INVALID_TOKEN, e));
-        }
+        return FlightEvents.record(() -> TokenVerificationEvent.of("jwt", exchange.getRequest().getPath().value()),
+                        jwtVerifier.verify(token), (event, email) -> {})
+                .flatMap(email -> validateAndProceed(email, token, exchange, chain));
     }
 
     private Mono<Void> validateAndProceed(String email, String token, ServerWebExchange exchange, WebFilterChain chain) {
@@ -0,0 +1,78 @@
+package com.wizlit.path.utils;
+
+import com.wizlit.path.routing.ReadYourWritesFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent identical reads into one upstream call.
+ * <p>
+ * A read is identified by its endpoint, its arguments and the graph version the client has seen (the
+ * {@code X-Graph-Version} put in the context by {@link ReadYourWritesFilter}), so a client is never handed a result
+ * read from a replica older than its own write. While a read is in flight every identical one subscribes to it
+ * instead of calling upstream; each gets the same value, the same error or the same empty result. Nothing is kept
+ * once the call ends, so the next read after a new version queries again and errors are not cached.
+ * <p>
+ * The call runs in the context of the request that started it. A request that goes away only cancels the call
+ * when no other request still waits on it. Shared values are read concurrently and must not be modified.
+ */
+@Component
+public class RequestCoalescer {
+
+    private record Key(String endpoint, List<Object> arguments, long version) {
+    }
+
+    private final boolean enabled;
+    private final MeterRegistry registry;
+    private final Map<Key, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(
+            @Value("${app.coalesce.enabled:true}") boolean enabled,
+            MeterRegistry registry
+    ) {
+        this.enabled = enabled;
+        this.registry = registry;
+    }
+
+    /**
+     * The in-flight call of {@code endpoint} with these arguments, or a new one from {@code call}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(String endpoint, Supplier<Mono<T>> call, Object... arguments) {
+        if (!enabled) {
+            return Mono.defer(call);
+        }
+        return Mono.deferContextual(context -> {
+            Key key = new Key(endpoint, List.of(arguments), context.getOrDefault(ReadYourWritesFilter.GRAPH_VERSION, 0L));
+            Mono<T> started = start(key, call);
+            Mono<?> running = inFlight.putIfAbsent(key, started);
+            if (running == null) {
+                return started;
+            }
+            registry.counter("path.requests.coalesced", "endpoint", endpoint).increment();
+            return (Mono<T>) running;
+        });
+    }
+
+    // share(): one subscription upstream, cancelled once every subscriber has cancelled
+    private <T> Mono<T> start(Key key, Supplier<Mono<T>> call) {
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        Mono<T> shared = Mono.defer(call)
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .share();
+        self.set(shared);
+        return shared;
+    }
+
+    int inFlight() {
+        return inFlight.size();
+    }
+}
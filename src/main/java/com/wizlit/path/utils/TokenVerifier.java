@@ -0,0 +1,113 @@
+package com.wizlit.path.utils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.temp.GoogleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+/**
+ * Resolves Google access tokens to the email of their owner.
+ * <p>
+ * Results are cached per token hash, so a burst of requests from one user costs a single userinfo call.
+ * Concurrent lookups of the same token share one in-flight call. Rejected tokens are cached for a
+ * shorter time; transient failures (network, 5xx) are not cached at all.
+ */
+@Component
+public class TokenVerifier {
+
+    private final GoogleService googleService;
+    private final ObjectMapper mapper;
+    private final AsyncCache<String, Verification> googleTokens;
+
+    public TokenVerifier(
+            GoogleService googleService,
+            ObjectMapper mapper,
+            MeterRegistry registry,
+            @Value("${app.privateAccess.tokenCache.ttl:5m}") Duration ttl,
+            @Value("${app.privateAccess.tokenCache.negativeTtl:10s}") Duration negativeTtl,
+            @Value("${app.privateAccess.tokenCache.maxSize:10000}") long maxSize
+    ) {
+        this.googleService = googleService;
+        this.mapper = mapper;
+        this.googleTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new VerificationExpiry(ttl, negativeTtl))
+                .recordStats()
+                .buildAsync();
+        CaffeineCacheMetrics.monitor(registry, googleTokens, "googleTokens");
+    }
+
+    public Mono<String> verifyGoogleToken(String token) {
+        String key = hash(token);
+        // suppressCancel: one cancelled request must not cancel the lookup shared with the others
+        return Mono.fromFuture(() -> googleTokens.get(key, (k, executor) -> lookup(token).toFuture()), true)
+                .flatMap(verification -> verification.email() == null
+                        ? Mono.error(new ApiException(ErrorCode.INVALID_TOKEN))
+                        : Mono.just(verification.email()));
+    }
+
+    private Mono<Verification> lookup(String token) {
+        return googleService.getUserInfo(token)
+                .map(json -> {
+                    try {
+                        JsonNode userInfo = mapper.readTree(json);
+                        return new Verification(userInfo.path("email").asText(null));
+                    } catch (IOException e) {
+                        return Verification.REJECTED;
+                    }
+                })
+                .onErrorResume(
+                        error -> error instanceof ApiException apiException
+                                && apiException.getErrorCode() == ErrorCode.INVALID_TOKEN,
+                        error -> Mono.just(Verification.REJECTED)
+                );
+    }
+
+    static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // email is null for tokens rejected by Google
+    record Verification(String email) {
+        static final Verification REJECTED = new Verification(null);
+    }
+
+    private record VerificationExpiry(Duration ttl, Duration negativeTtl) implements Expiry<String, Verification> {
+
+        @Override
+        public long expireAfterCreate(String key, Verification value, long currentTime) {
+            return (value.email() == null ? negativeTtl : ttl).toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Verification value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Verification value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.wizlit.path.utils;
 import com.wizlit.path.exception.ApiException;
 import com.wizlit.path.exception.ErrorCode;
 
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 
 public class Validator {
@@ -27,6 +28,13 @@ public class Validator {
         return this;
     }
 
+    public Validator matchesElseError(ApiException apiException, Predicate<Throwable> condition) {
+        if (exception == null && condition.test(cause)) {
+            exception = apiException;
+        }
+        return this;
+    }
+
     public Throwable toException() {
         return (exception != null)
                 ? exception
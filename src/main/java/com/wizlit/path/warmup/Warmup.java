@@ -0,0 +1,178 @@
+package com.wizlit.path.warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.wizlit.path.replication.GraphReplication;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.pool.ConnectionPool;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Warms the application up once it has started, before the {@code warmup} health indicator lets the readiness
+ * probe pass: opens the R2DBC pools, waits for the replicated graphs, then sends batches of the main read requests
+ * to its own port until the p90 of {@code GET /path} settles (two batches within {@code tolerance} of the one before)
+ * or {@code maxDuration} passes. Only reads are sent, so warm-up leaves the graph as it is.
+ * <p>
+ * Failing or running out of time still ends the warm-up; the outcome is a tag of {@code path.warmup}.
+ */
+@Slf4j
+@Component
+public class Warmup {
+
+    public enum State { PENDING, RUNNING, DONE }
+
+    // a batch of 50 holds too few samples for a p99 (its largest sample): p90 is its 5th largest
+    private static final double PERCENTILE = 0.9;
+
+    private final boolean enabled;
+    private final List<String> graphs;
+    private final int batchSize;
+    private final int concurrency;
+    private final double tolerance;
+    private final Duration maxDuration;
+    private final ObjectProvider<ConnectionPool> pools;
+    private final GraphReplication replication;
+    private final WebClient.Builder clients;
+    private final MeterRegistry registry;
+    private final AtomicReference<State> state;
+
+    private Disposable running;
+
+    public Warmup(
+            @Value("${app.warmup.enabled:false}") boolean enabled,
+            @Value("${app.warmup.graphs:path}") String graphs,
+            @Value("${app.warmup.batchSize:50}") int batchSize,
+            @Value("${app.warmup.concurrency:4}") int concurrency,
+            @Value("${app.warmup.tolerance:0.1}") double tolerance,
+            @Value("${app.warmup.maxDuration:60s}") Duration maxDuration,
+            ObjectProvider<ConnectionPool> pools,
+            GraphReplication replication,
+            WebClient.Builder clients,
+            MeterRegistry registry
+    ) {
+        this.enabled = enabled;
+        this.graphs = Arrays.stream(graphs.split(",")).map(String::trim).filter(graph -> !graph.isEmpty()).toList();
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.tolerance = tolerance;
+        this.maxDuration = maxDuration;
+        this.pools = pools;
+        this.replication = replication;
+        this.clients = clients;
+        this.registry = registry;
+        this.state = new AtomicReference<>(enabled ? State.PENDING : State.DONE);
+    }
+
+    public State state() {
+        return state.get();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start(ApplicationReadyEvent event) {
+        if (!enabled || !state.compareAndSet(State.PENDING, State.RUNNING)) {
+            return;
+        }
+        int port = ((WebServerApplicationContext) event.getApplicationContext()).getWebServer().getPort();
+        WebClient client = clients.clone().baseUrl("http://localhost:" + port).build();
+        long start = System.nanoTime();
+        running = openPools()
+                .then(awaitReplicatedGraphs())
+                .then(Flux.fromIterable(graphs).concatMap(graph -> untilSteady(client, graph)).all(Boolean::booleanValue))
+                .map(steady -> steady ? "steady" : "maxDuration")
+                .timeout(maxDuration.multipliedBy(2), Mono.just("maxDuration"))
+                .onErrorResume(error -> {
+                    log.warn("Warm-up failed, taking traffic anyway: {}", error.toString());
+                    return Mono.just("failed");
+                })
+                .subscribe(outcome -> {
+                    long nanos = System.nanoTime() - start;
+                    Timer.builder("path.warmup")
+                            .description("Time from application start to the end of warm-up")
+                            .tag("outcome", outcome)
+                            .register(registry)
+                            .record(nanos, TimeUnit.NANOSECONDS);
+                    state.set(State.DONE);
+                    log.info("Warm-up {} in {} ms", outcome, TimeUnit.NANOSECONDS.toMillis(nanos));
+                });
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (running != null) {
+            running.dispose();
+        }
+    }
+
+    // initial-size connections of every pool (primary and replica)
+    private Mono<Void> openPools() {
+        return Flux.fromStream(pools.orderedStream())
+                .flatMap(ConnectionPool::warmup)
+                .then();
+    }
+
+    private Mono<Void> awaitReplicatedGraphs() {
+        if (!replication.enabled()) {
+            return Mono.empty();
+        }
+        return Flux.interval(Duration.ZERO, Duration.ofMillis(50))
+                .filter(tick -> graphs.stream().allMatch(graph -> replication.view(graph, 0) != null))
+                .next()
+                .timeout(maxDuration)
+                .then();
+    }
+
+    // batches until the p90 of the graph read settles; false when maxDuration passed first
+    private Mono<Boolean> untilSteady(WebClient client, String graph) {
+        String path = "/api/graphs/" + graph + "/path";
+        long deadline = System.nanoTime() + maxDuration.toNanos();
+        return client.get().uri(path).retrieve().bodyToMono(JsonNode.class)
+                .map(body -> body.path("data").path("nodes").fieldNames())
+                .map(ids -> ids.hasNext() ? "/api/graphs/" + graph + "/point/" + ids.next() : "")
+                .defaultIfEmpty("")
+                .flatMap(pointPath -> Mono.defer(() -> batch(client, path, pointPath))
+                        .repeat()
+                        .scan(new long[]{-1, -1, 0}, (previous, p90) -> new long[]{previous[1], p90,
+                                previous[1] >= 0 && Math.abs(p90 - previous[1]) <= previous[1] * tolerance ? previous[2] + 1 : 0})
+                        .takeUntil(settled -> settled[2] >= 2 || System.nanoTime() > deadline)
+                        .last()
+                        .map(settled -> settled[2] >= 2));
+    }
+
+    // p90 in nanos of GET /path in one batch; the other reads only warm their code paths
+    private Mono<Long> batch(WebClient client, String path, String pointPath) {
+        return Flux.range(0, batchSize)
+                .flatMap(i -> {
+                    long start = System.nanoTime();
+                    return client.get().uri(path).retrieve().toBodilessEntity()
+                            .map(response -> System.nanoTime() - start)
+                            .flatMap(latency -> other(client, path, pointPath, i).thenReturn(latency));
+                }, concurrency)
+                .collectSortedList()
+                .map(latencies -> latencies.get(Math.max(0, (int) Math.ceil(latencies.size() * PERCENTILE) - 1)))
+                .doOnNext(p90 -> log.debug("Warm-up batch of {}: p90 {} us", path, TimeUnit.NANOSECONDS.toMicros(p90)));
+    }
+
+    private Mono<Void> other(WebClient client, String path, String pointPath, int i) {
+        if (i % 2 == 0) {
+            return client.get().uri(path + "/changed?timestamp=" + System.currentTimeMillis()).retrieve().toBodilessEntity().then();
+        }
+        return pointPath.isEmpty() ? Mono.empty() : client.get().uri(pointPath).retrieve().toBodilessEntity().then();
+    }
+}
@@ -0,0 +1,24 @@
+package com.wizlit.path.warmup;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code warmup} in the readiness group: out of service until {@link Warmup} is done.
+ */
+@Component
+@RequiredArgsConstructor
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final Warmup warmup;
+
+    @Override
+    public Health health() {
+        Warmup.State state = warmup.state();
+        return (state == Warmup.State.DONE ? Health.up() : Health.outOfService())
+                .withDetail("state", state)
+                .build();
+    }
+}
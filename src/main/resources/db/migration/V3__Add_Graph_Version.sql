@@ -0,0 +1,2 @@
+-- Counts committed writes of a graph: increased by every update of its `last_update` row
+ALTER TABLE last_update ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- GET /api/path body rendered by the database, kept per graph at the version it was rendered at
+-- (json, not jsonb: keeps the key order of the rendered document)
+CREATE TABLE IF NOT EXISTS graph_json (
+    id VARCHAR(255) PRIMARY KEY,
+    version BIGINT NOT NULL,
+    body JSON NOT NULL
+);
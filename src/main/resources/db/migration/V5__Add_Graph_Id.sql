@@ -0,0 +1,13 @@
+-- Every point and edge belongs to one graph (namespace); existing rows form the default graph 'path'
+ALTER TABLE point ADD COLUMN IF NOT EXISTS graph_id VARCHAR(255) NOT NULL DEFAULT 'path';
+ALTER TABLE edge ADD COLUMN IF NOT EXISTS graph_id VARCHAR(255) NOT NULL DEFAULT 'path';
+
+-- Titles are unique within a graph; the index also serves reads of one graph's points
+ALTER TABLE point DROP CONSTRAINT IF EXISTS point_title_key;
+ALTER TABLE point ADD CONSTRAINT point_graph_title_key UNIQUE (graph_id, title);
+
+-- An edge only connects points of its own graph
+ALTER TABLE point ADD CONSTRAINT point_graph_id_key UNIQUE (graph_id, id);
+ALTER TABLE edge ADD CONSTRAINT fk_graph_start FOREIGN KEY (graph_id, origin_point) REFERENCES point (graph_id, id) ON DELETE CASCADE;
+ALTER TABLE edge ADD CONSTRAINT fk_graph_end FOREIGN KEY (graph_id, destination_point) REFERENCES point (graph_id, id) ON DELETE CASCADE;
+CREATE INDEX IF NOT EXISTS edge_graph_id_idx ON edge (graph_id);
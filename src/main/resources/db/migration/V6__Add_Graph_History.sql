@@ -0,0 +1,37 @@
+-- Append-only log of graph writes: one row per committed version, with the changes it made (GraphDelta ops)
+CREATE TABLE IF NOT EXISTS graph_event (
+    graph_id VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL,
+    occurred_at TIMESTAMPTZ NOT NULL,
+    ops JSON NOT NULL,
+    PRIMARY KEY (graph_id, version)
+);
+CREATE INDEX IF NOT EXISTS graph_event_occurred_at_idx ON graph_event (graph_id, occurred_at);
+
+-- Whole graph at a version, as the ops that rebuild it, valid from the time that version was written
+CREATE TABLE IF NOT EXISTS graph_snapshot (
+    id BIGSERIAL PRIMARY KEY,
+    graph_id VARCHAR(255) NOT NULL,
+    version BIGINT NOT NULL,
+    valid_from TIMESTAMPTZ NOT NULL,
+    body JSON NOT NULL,
+    CONSTRAINT graph_snapshot_version_key UNIQUE (graph_id, version)
+);
+CREATE INDEX IF NOT EXISTS graph_snapshot_valid_from_idx ON graph_snapshot (graph_id, valid_from);
+
+-- History of existing graphs starts with their current state
+-- (created_on is read in the session time zone, which the JDBC driver sets to the application's)
+INSERT INTO graph_snapshot (graph_id, version, valid_from, body)
+SELECT g.graph_id, coalesce(l.version, 0), now(), (
+    coalesce((SELECT jsonb_agg(jsonb_build_object('t', 'p', 'id', p.id, 'title', p.title, 'objective', p.objective,
+                      'document', p.document,
+                      'created', (extract(epoch FROM p.created_on AT TIME ZONE current_setting('TimeZone')) * 1000)::bigint)
+                      ORDER BY p.id)
+              FROM point p WHERE p.graph_id = g.graph_id), '[]'::jsonb)
+    || coalesce((SELECT jsonb_agg(jsonb_build_object('t', 'e', 'id', e.id, 'o', e.origin_point, 'd', e.destination_point)
+                         ORDER BY e.id)
+                 FROM edge e WHERE e.graph_id = g.graph_id), '[]'::jsonb)
+)::json
+FROM (SELECT graph_id FROM point UNION SELECT id FROM last_update) g
+LEFT JOIN last_update l ON l.id = g.graph_id
+ON CONFLICT (graph_id, version) DO NOTHING;
@@ -0,0 +1,185 @@
+package com.wizlit.path.controller;
+
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.temp.LocalGoogleStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Graph mutations against the database, sent concurrently: the stored graph must stay acyclic.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ConcurrentMutationTest {
+
+    private static final String TOKEN = "ya29.concurrent";
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+
+    @LocalServerPort
+    private int port;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        database.register(registry);
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+    }
+
+    @Test
+    public void backwardPathLongerThanFiveEdgesIsRejected() throws Exception {
+        // 1 -> 2 -> ... -> 12
+        load(GraphSpec.ofPoints(12).withWidth(1).withFanOut(1, 1).withMaxSkip(1));
+
+        assertThat(connect(12, 1)).isEqualTo(409);
+        assertThat(connect(1, 12)).isEqualTo(201);
+        assertThat(findCycle(edges())).isEmpty();
+    }
+
+    @Test
+    public void concurrentConnectsNeverCloseACycle() throws Exception {
+        // unconnected points: every connect races the others for the same points
+        load(GraphSpec.ofPoints(16).withWidth(4).withFanOut(0, 0));
+
+        Random random = new Random(42);
+        List<long[]> connects = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            long origin = 1 + random.nextInt(16);
+            long destination = 1 + random.nextInt(16);
+            if (origin != destination) {
+                connects.add(new long[]{origin, destination});
+            }
+        }
+
+        WebClient client = client();
+        List<Integer> statuses = Flux.fromIterable(connects)
+                .flatMap(connect -> connect(client, connect[0], connect[1]), 16)
+                .collectList()
+                .block(Duration.ofSeconds(60));
+
+        // 400: the same edge was connected first by another request
+        assertThat(statuses).contains(201, 409).allMatch(status -> status == 201 || status == 409 || status == 400);
+        assertThat(findCycle(edges())).isEmpty();
+    }
+
+    @Test
+    public void pointUpdateCommitsBeforeTheDocumentIsRenamed() throws Exception {
+        load(GraphSpec.ofPoints(2).withWidth(1));
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE point SET document = 'https://docs.google.com/document/d/doc-1' WHERE id = 1");
+        }
+        google.fail("rename", 503, 10);
+
+        int status = client().put().uri("/api/point/1")
+                .bodyValue(Map.of("title", "renamed"))
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()))
+                .block(Duration.ofSeconds(10));
+
+        // Drive 가 실패해도 point 는 이미 commit 됨
+        assertThat(status).isEqualTo(503);
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT title FROM point WHERE id = 1")) {
+            rows.next();
+            assertThat(rows.getString(1)).isEqualTo("renamed");
+        }
+    }
+
+    private void load(GraphSpec spec) throws Exception {
+        try (Connection connection = database.connect()) {
+            GraphLoader.load(connection, GraphGenerator.generate(spec), true);
+        }
+    }
+
+    private WebClient client() {
+        return WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .build();
+    }
+
+    private int connect(long origin, long destination) {
+        return connect(client(), origin, destination).block(Duration.ofSeconds(10));
+    }
+
+    private Mono<Integer> connect(WebClient client, long origin, long destination) {
+        return client.put().uri("/api/path?origin={o}&destination={d}", origin, destination)
+                .exchangeToMono(response -> response.releaseBody().thenReturn(response.statusCode().value()));
+    }
+
+    private Map<Long, List<Long>> edges() throws Exception {
+        Map<Long, List<Long>> outgoing = new HashMap<>();
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT origin_point, destination_point FROM edge")) {
+            while (rows.next()) {
+                outgoing.computeIfAbsent(rows.getLong(1), point -> new ArrayList<>()).add(rows.getLong(2));
+            }
+        }
+        return outgoing;
+    }
+
+    // an edge origin -> destination closes a cycle when destination reaches origin
+    private static List<Long> findCycle(Map<Long, List<Long>> outgoing) {
+        for (Map.Entry<Long, List<Long>> entry : outgoing.entrySet()) {
+            for (Long destination : entry.getValue()) {
+                Deque<Long> stack = new ArrayDeque<>(List.of(destination));
+                Set<Long> seen = new HashSet<>();
+                while (!stack.isEmpty()) {
+                    long current = stack.pop();
+                    if (current == entry.getKey()) {
+                        return List.of(entry.getKey(), destination);
+                    }
+                    if (seen.add(current)) {
+                        stack.addAll(outgoing.getOrDefault(current, List.of()));
+                    }
+                }
+            }
+        }
+        return List.of();
+    }
+}
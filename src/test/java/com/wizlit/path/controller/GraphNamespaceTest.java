@@ -0,0 +1,138 @@
+package com.wizlit.path.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.temp.LocalGoogleStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Graphs addressed through {@code /api/graphs/{graphId}} share nothing: titles, versions, points and edges are
+ * per graph, and the unscoped routes are the default graph.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class GraphNamespaceTest {
+
+    private static final String TOKEN = "ya29.graph-namespace";
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+
+    @Autowired
+    private WebTestClient client;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        database.register(registry);
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+    }
+
+    @BeforeEach
+    void clear() throws Exception {
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE point, edge, last_update, graph_json, graph_event, graph_snapshot RESTART IDENTITY CASCADE");
+        }
+    }
+
+    @Test
+    public void graphsKeepTheirOwnPointsAndVersions() {
+        JsonNode defaultPoint = addPoint("/api/point", "same title", "1");
+        JsonNode coursePoint = addPoint("/api/graphs/course-a/point", "same title", "1");
+        addPoint("/api/graphs/course-a/point", "second", "2");
+
+        assertThat(nodes("/api/path")).containsExactly(defaultPoint.path("id").asText());
+        assertThat(nodes("/api/graphs/course-a/path")).hasSize(2).contains(coursePoint.path("id").asText());
+        assertThat(nodes("/api/graphs/course-b/path")).isEmpty();
+    }
+
+    @Test
+    public void pointsOfOtherGraphsAreNotVisible() {
+        String id = addPoint("/api/graphs/course-a/point", "course point", "1").path("id").asText();
+
+        client.get().uri("/api/graphs/course-a/point/{id}", id).exchange().expectStatus().isOk();
+        client.get().uri("/api/graphs/course-b/point/{id}", id).exchange().expectStatus().isNotFound();
+        client.get().uri("/api/point/{id}", id).exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    public void edgesDoNotCrossGraphs() {
+        String inA = addPoint("/api/graphs/course-a/point", "a", "1").path("id").asText();
+        String inB = addPoint("/api/graphs/course-b/point", "b", "1").path("id").asText();
+
+        client.put().uri("/api/graphs/course-a/path?origin={o}&destination={d}", inA, inB)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errorCode").isEqualTo("NON_EXISTENT_POINTS");
+
+        String alsoInA = addPoint("/api/graphs/course-a/point", "a2", "2").path("id").asText();
+        client.put().uri("/api/graphs/course-a/path?origin={o}&destination={d}", inA, alsoInA)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(PathController.GRAPH_VERSION_HEADER, "3");
+    }
+
+    @Test
+    public void invalidGraphIdIsRejected() {
+        client.get().uri("/api/graphs/{graphId}/path", "no spaces")
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody().jsonPath("$.errorCode").isEqualTo("INVALID_GRAPH_ID");
+    }
+
+    // the created point, after checking the graph's new version
+    private JsonNode addPoint(String uri, String title, String expectedVersion) {
+        return client.post().uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .bodyValue(Map.of("title", title))
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(PathController.GRAPH_VERSION_HEADER, expectedVersion)
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+    }
+
+    private Iterable<String> nodes(String uri) {
+        JsonNode nodes = client.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody()
+                .path("data").path("nodes");
+        return nodes::fieldNames;
+    }
+}
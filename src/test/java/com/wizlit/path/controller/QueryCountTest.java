@@ -0,0 +1,195 @@
+package com.wizlit.path.controller;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.generator.GeneratedGraph;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.repository.StatementCounter;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.temp.LocalGoogleStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Connection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Exact number of SQL statements and transactions per endpoint. A failing count means a change added
+ * (or removed) round trips on that path: update the expectation only if that is intended.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@Import(QueryCountTest.CountingConfig.class)
+public class QueryCountTest {
+
+    private static final String TOKEN = "ya29.query-count";
+    private static final StatementCounter COUNTER = new StatementCounter();
+    private static final GraphSpec SPEC = GraphSpec.ofPoints(30).withWidth(10);
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+
+    @Autowired
+    private WebTestClient client;
+
+    private GeneratedGraph graph;
+
+    @TestConfiguration
+    static class CountingConfig {
+        @Bean
+        static BeanPostProcessor countingConnectionFactory() {
+            return COUNTER.wrapConnectionFactories();
+        }
+    }
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        database.register(registry);
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+    }
+
+    @BeforeEach
+    void seed() throws Exception {
+        graph = GraphGenerator.generate(SPEC);
+        try (Connection connection = database.connect()) {
+            GraphLoader.load(connection, graph, true);
+        }
+        COUNTER.reset();
+    }
+
+    @Test
+    public void getPath() {
+        client.get().uri("/api/path").exchange().expectStatus().isOk();
+        // points, then edges of the graph
+        assertQueries(2, 0);
+    }
+
+    @Test
+    public void isChanged() {
+        client.get().uri("/api/path/changed?timestamp=1").exchange().expectStatus().isOk();
+        assertQueries(1, 0);
+    }
+
+    @Test
+    public void getPoint() {
+        client.get().uri("/api/point/1").exchange().expectStatus().isOk();
+        assertQueries(1, 0);
+    }
+
+    @Test
+    public void connectTwoPoints() {
+        long[] missing = missingEdge();
+        client.put().uri("/api/path?origin={o}&destination={d}", missing[0], missing[1])
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().exists(PathController.GRAPH_VERSION_HEADER);
+        // lock, edge exists, points exist, backward path, insert edge, last update
+        assertQueries(6, 1);
+    }
+
+    @Test
+    public void disconnectTwoPoints() {
+        Edge edge = graph.edges().get(0);
+        client.delete().uri("/api/path?origin={o}&destination={d}", edge.getOriginPoint(), edge.getDestinationPoint())
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange().expectStatus().isOk();
+        // lock, find edge, delete, last update
+        assertQueries(4, 1);
+    }
+
+    @Test
+    public void addStandalonePoint() {
+        addPoint(Map.of("title", "standalone"));
+        // reserve id (own transaction), then lock, insert point with its document, last update
+        assertQueries(4, 2);
+    }
+
+    @Test
+    public void addPointAfterExisting() {
+        addPoint(Map.of("title", "after", "origin", "1"));
+        // find origin, reserve id, then lock, insert point, insert edge, last update
+        assertQueries(6, 2);
+    }
+
+    @Test
+    public void splitEdge() {
+        Edge edge = graph.edges().get(0);
+        addPoint(Map.of("title", "middle",
+                "origin", edge.getOriginPoint().toString(),
+                "destination", edge.getDestinationPoint().toString()));
+        // points exist, reserve id, then lock, backward path, insert point, find edge, delete edge, insert two edges, last update
+        assertQueries(10, 2);
+    }
+
+    @Test
+    public void updatePoint() {
+        client.put().uri("/api/point/1")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .bodyValue(Map.of("title", "renamed", "objective", "changed"))
+                .exchange().expectStatus().isOk();
+        // lock, select + update point, last update
+        assertQueries(4, 1);
+    }
+
+    private void addPoint(Map<String, String> body) {
+        client.post().uri("/api/point")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .bodyValue(body)
+                .exchange().expectStatus().isCreated();
+    }
+
+    // 첫 층에서 마지막 층으로 가는, 아직 없는 edge (backward path 도 없음)
+    private long[] missingEdge() {
+        Set<List<Long>> existing = new HashSet<>();
+        graph.edges().forEach(edge -> existing.add(List.of(edge.getOriginPoint(), edge.getDestinationPoint())));
+        for (long destination = SPEC.points(); destination > SPEC.points() - SPEC.width(); destination--) {
+            if (!existing.contains(List.of(1L, destination))) {
+                return new long[]{1L, destination};
+            }
+        }
+        throw new IllegalStateException("every edge from point 1 to the last layer exists");
+    }
+
+    private static void assertQueries(int statements, int transactions) {
+        assertThat(COUNTER.statements())
+                .as("SQL statements")
+                .hasSize(statements);
+        assertThat(COUNTER.transactions()).as("transactions").isEqualTo(transactions);
+        assertThat(COUNTER.rollbacks()).as("rollbacks").isZero();
+    }
+}
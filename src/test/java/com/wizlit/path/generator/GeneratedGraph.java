@@ -0,0 +1,12 @@
+package com.wizlit.path.generator;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+
+import java.util.List;
+
+/**
+ * Points and edges produced by {@link GraphGenerator}. Ids are assigned; edges reference points of this graph only.
+ */
+public record GeneratedGraph(GraphSpec spec, List<Point> points, List<Edge> edges) {
+}
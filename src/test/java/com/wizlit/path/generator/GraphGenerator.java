@@ -0,0 +1,89 @@
+package com.wizlit.path.generator;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic layered DAG generator for scale tests and benchmarks.
+ * <p>
+ * Titles end with the point id, so they are unique within a graph and across graphs generated with
+ * different {@link GraphSpec#firstId()}s.
+ */
+public final class GraphGenerator {
+
+    private static final String[] WORDS = {
+            "algebra", "vectors", "limits", "proofs", "graphs", "sets", "logic", "series", "matrices", "functions",
+            "probability", "geometry", "calculus", "induction", "recursion", "sorting", "trees", "hashing", "streams", "types"
+    };
+    private static final int RETRIES = 4;
+    private static final long CREATED_ON = 1_700_000_000_000L;
+
+    private GraphGenerator() {}
+
+    public static GeneratedGraph generate(GraphSpec spec) {
+        SplittableRandom random = new SplittableRandom(spec.seed());
+        List<Point> points = new ArrayList<>(spec.points());
+        for (int index = 0; index < spec.points(); index++) {
+            long id = spec.firstId() + index;
+            points.add(Point.builder()
+                    .id(id)
+                    .graphId(spec.graphId())
+                    .title(text(random, spec.titleLength(), " #" + id))
+                    .objective(spec.objectiveLength() == 0 ? null : text(random, spec.objectiveLength(), "."))
+                    .createdOn(new Timestamp(CREATED_ON + index * 1000L))
+                    .build());
+        }
+
+        int[] fanIn = new int[spec.points()];
+        List<Edge> edges = new ArrayList<>(spec.points() * (spec.minFanOut() + spec.maxFanOut()) / 2);
+        int lastLayer = spec.layers() - 1;
+        Set<Integer> targets = new HashSet<>();
+        for (int index = 0; index < spec.points(); index++) {
+            int layer = index / spec.width();
+            if (layer == lastLayer) {
+                break;
+            }
+            int fanOut = spec.minFanOut() + random.nextInt(spec.maxFanOut() - spec.minFanOut() + 1);
+            targets.clear();
+            for (int edge = 0; edge < fanOut; edge++) {
+                for (int attempt = 0; attempt < RETRIES; attempt++) {
+                    int targetLayer = Math.min(lastLayer, layer + 1 + random.nextInt(spec.maxSkip()));
+                    int layerStart = targetLayer * spec.width();
+                    int layerSize = Math.min(spec.width(), spec.points() - layerStart);
+                    int target = layerStart + random.nextInt(layerSize);
+                    if (fanIn[target] < spec.maxFanIn() && targets.add(target)) {
+                        fanIn[target]++;
+                        edges.add(Edge.builder()
+                                .graphId(spec.graphId())
+                                .originPoint(points.get(index).getId())
+                                .destinationPoint(points.get(target).getId())
+                                .build());
+                        break;
+                    }
+                }
+            }
+        }
+        return new GeneratedGraph(spec, points, edges);
+    }
+
+    // 정해진 길이의 단어 나열, suffix 로 끝남
+    private static String text(SplittableRandom random, int length, String suffix) {
+        StringBuilder text = new StringBuilder(length);
+        int body = length - suffix.length();
+        while (text.length() < body) {
+            if (!text.isEmpty()) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        text.setLength(Math.max(0, body));
+        return text.append(suffix).toString();
+    }
+}
@@ -0,0 +1,81 @@
+package com.wizlit.path.generator;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Generates a graph and loads it into a Postgres database with the application's schema.
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark.main=com.wizlit.path.generator.GraphGeneratorCli \
+ *     -Dbenchmark.args="--url=jdbc:postgresql://localhost:5432/test --user=postgres --password=password \
+ *     --points=100000 --width=100 --fan-out=1-3 --fan-in=8 --skip=2 --title-length=40 --objective-length=120 --seed=42"
+ * </pre>
+ * Points and edges go to {@code --graph} (default {@code path}). Without {@code --append} the point, edge and
+ * last_update tables are emptied first. Test code only: it is not part of the application jar.
+ */
+public final class GraphGeneratorCli {
+
+    private GraphGeneratorCli() {}
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unknown argument " + arg + ", expected --name=value");
+            }
+            int equals = arg.indexOf('=');
+            options.put(equals < 0 ? arg.substring(2) : arg.substring(2, equals), equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+        String url = options.get("url");
+        if (url == null) {
+            throw new IllegalArgumentException("--url=jdbc:postgresql://... is required");
+        }
+
+        GraphSpec spec = GraphSpec.ofPoints(Integer.parseInt(options.getOrDefault("points", "10000")));
+        if (options.containsKey("width")) {
+            spec = spec.withWidth(Integer.parseInt(options.get("width")));
+        }
+        if (options.containsKey("fan-out")) {
+            String[] range = options.get("fan-out").split("-");
+            spec = spec.withFanOut(Integer.parseInt(range[0]), Integer.parseInt(range[range.length - 1]));
+        }
+        if (options.containsKey("fan-in")) {
+            spec = spec.withMaxFanIn(Integer.parseInt(options.get("fan-in")));
+        }
+        if (options.containsKey("skip")) {
+            spec = spec.withMaxSkip(Integer.parseInt(options.get("skip")));
+        }
+        spec = spec.withText(
+                Integer.parseInt(options.getOrDefault("title-length", String.valueOf(spec.titleLength()))),
+                Integer.parseInt(options.getOrDefault("objective-length", String.valueOf(spec.objectiveLength()))));
+        spec = spec.withSeed(Long.parseLong(options.getOrDefault("seed", String.valueOf(spec.seed()))));
+        spec = spec.withGraphId(options.getOrDefault("graph", spec.graphId()));
+
+        boolean append = Boolean.parseBoolean(options.getOrDefault("append", "false"));
+        try (Connection connection = DriverManager.getConnection(url,
+                options.getOrDefault("user", "postgres"), options.getOrDefault("password", ""))) {
+            if (append) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet result = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM point")) {
+                    result.next();
+                    spec = spec.withFirstId(result.getLong(1) + 1);
+                }
+            }
+
+            long start = System.nanoTime();
+            GeneratedGraph graph = GraphGenerator.generate(spec);
+            long generated = System.nanoTime();
+            GraphLoader.load(connection, graph, !append);
+            long loaded = System.nanoTime();
+
+            System.out.printf(Locale.ROOT, "%s%n%d points, %d edges in %d layers: generated in %d ms, loaded in %d ms%n",
+                    spec, graph.points().size(), graph.edges().size(), spec.layers(),
+                    (generated - start) / 1_000_000, (loaded - generated) / 1_000_000);
+        }
+    }
+}
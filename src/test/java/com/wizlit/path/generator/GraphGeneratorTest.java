@@ -0,0 +1,89 @@
+package com.wizlit.path.generator;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GraphGeneratorTest {
+
+    private final GraphSpec spec = GraphSpec.ofPoints(5_000)
+            .withWidth(50)
+            .withFanOut(2, 4)
+            .withMaxFanIn(5)
+            .withMaxSkip(3)
+            .withText(60, 200);
+
+    @Test
+    public void sameSeedSameGraph() {
+        GeneratedGraph first = GraphGenerator.generate(spec);
+        GeneratedGraph second = GraphGenerator.generate(spec);
+        GeneratedGraph other = GraphGenerator.generate(spec.withSeed(7L));
+
+        assertThat(second.points()).isEqualTo(first.points());
+        assertThat(second.edges()).isEqualTo(first.edges());
+        assertThat(other.edges()).isNotEqualTo(first.edges());
+    }
+
+    @Test
+    public void respectsSchemaConstraints() {
+        GeneratedGraph graph = GraphGenerator.generate(spec);
+
+        assertThat(graph.points()).hasSize(5_000);
+        assertThat(graph.points()).extracting(Point::getTitle).doesNotHaveDuplicates()
+                .allMatch(title -> title.length() == 60);
+        assertThat(graph.points()).extracting(Point::getObjective).allMatch(objective -> objective.length() == 200);
+
+        Set<Long> ids = new HashSet<>(graph.points().stream().map(Point::getId).toList());
+        Set<List<Long>> pairs = new HashSet<>();
+        for (Edge edge : graph.edges()) {
+            assertThat(ids).contains(edge.getOriginPoint(), edge.getDestinationPoint());
+            assertThat(pairs.add(List.of(edge.getOriginPoint(), edge.getDestinationPoint()))).isTrue();
+        }
+    }
+
+    @Test
+    public void layeredWithTunedFanInAndOut() {
+        GeneratedGraph graph = GraphGenerator.generate(spec);
+        Map<Long, Integer> fanOut = new HashMap<>();
+        Map<Long, Integer> fanIn = new HashMap<>();
+        for (Edge edge : graph.edges()) {
+            long originLayer = (edge.getOriginPoint() - 1) / spec.width();
+            long destinationLayer = (edge.getDestinationPoint() - 1) / spec.width();
+            // 항상 뒤 층으로만 연결되므로 cycle 이 없음
+            assertThat(destinationLayer - originLayer).isBetween(1L, (long) spec.maxSkip());
+            fanOut.merge(edge.getOriginPoint(), 1, Integer::sum);
+            fanIn.merge(edge.getDestinationPoint(), 1, Integer::sum);
+        }
+
+        assertThat(fanOut.values()).allMatch(count -> count <= spec.maxFanOut());
+        assertThat(fanIn.values()).allMatch(count -> count <= spec.maxFanIn());
+        assertThat(graph.edges().size()).isGreaterThan(spec.points() * 2 * 9 / 10);
+    }
+
+    @Test
+    public void appendedGraphHasDistinctIdsAndTitles() {
+        GeneratedGraph first = GraphGenerator.generate(spec);
+        GeneratedGraph appended = GraphGenerator.generate(spec.withFirstId(spec.points() + 1));
+
+        Set<String> titles = new HashSet<>(first.points().stream().map(Point::getTitle).toList());
+        assertThat(appended.points()).extracting(Point::getTitle).noneMatch(titles::contains);
+        assertThat(appended.points().get(0).getId()).isEqualTo(5_001L);
+    }
+
+    @Test
+    public void pointsAndEdgesBelongToTheSpecGraph() {
+        GeneratedGraph graph = GraphGenerator.generate(spec.withGraphId("course-a"));
+
+        assertThat(graph.points()).extracting(Point::getGraphId).containsOnly("course-a");
+        assertThat(graph.edges()).extracting(Edge::getGraphId).containsOnly("course-a");
+        assertThat(GraphGenerator.generate(spec).points()).extracting(Point::getGraphId).containsOnly("path");
+    }
+}
@@ -0,0 +1,113 @@
+package com.wizlit.path.generator;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Inserts a {@link GeneratedGraph} with JDBC batches in one transaction: points first, then the edges
+ * referencing them. Add {@code reWriteBatchedInserts=true} to the Postgres JDBC url for multi-row inserts.
+ */
+public final class GraphLoader {
+
+    private static final int BATCH_SIZE = 5_000;
+
+    // the genesis snapshot of V6__Add_Graph_History.sql: the history of every graph starts at its current state
+    private static final String GENESIS_SNAPSHOT = genesisSnapshot();
+
+    private GraphLoader() {}
+
+    /**
+     * @param replace empty the point, edge and last_update tables of every graph first, and restart the history from
+     *                the loaded graph;
+     *                otherwise the graph is appended and its {@link GraphSpec#firstId()} must be above the existing
+     *                point ids (the history does not see appended rows)
+     * Either way the graph changes without a new version, so stored renderings (graph_json) are dropped.
+     */
+    public static void load(Connection connection, GeneratedGraph graph, boolean replace) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            if (replace) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("TRUNCATE point, edge, last_update, graph_event, graph_snapshot RESTART IDENTITY CASCADE");
+                }
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("TRUNCATE graph_json");
+            }
+            insertPoints(connection, graph);
+            insertEdges(connection, graph);
+            try (Statement statement = connection.createStatement()) {
+                // 명시적으로 넣은 id 이후부터 SERIAL 이 이어지도록
+                statement.execute("SELECT setval(pg_get_serial_sequence('point', 'id'), (SELECT MAX(id) FROM point))");
+                statement.execute("ANALYZE point");
+                statement.execute("ANALYZE edge");
+                if (replace) {
+                    statement.execute(GENESIS_SNAPSHOT);
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static String genesisSnapshot() {
+        try (InputStream migration = GraphLoader.class.getResourceAsStream("/db/migration/V6__Add_Graph_History.sql")) {
+            String sql = new String(migration.readAllBytes(), StandardCharsets.UTF_8);
+            int start = sql.lastIndexOf("INSERT INTO graph_snapshot");
+            return sql.substring(start, sql.indexOf(';', start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void insertPoints(Connection connection, GeneratedGraph graph) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO point (id, graph_id, title, objective, document, created_on) VALUES (?, ?, ?, ?, ?, ?)")) {
+            int batched = 0;
+            for (Point point : graph.points()) {
+                insert.setLong(1, point.getId());
+                insert.setString(2, point.getGraphId());
+                insert.setString(3, point.getTitle());
+                insert.setString(4, point.getObjective());
+                insert.setString(5, point.getDocument());
+                insert.setTimestamp(6, point.getCreatedOn());
+                insert.addBatch();
+                if (++batched % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static void insertEdges(Connection connection, GeneratedGraph graph) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO edge (graph_id, origin_point, destination_point) VALUES (?, ?, ?)")) {
+            int batched = 0;
+            for (Edge edge : graph.edges()) {
+                insert.setString(1, edge.getGraphId());
+                insert.setLong(2, edge.getOriginPoint());
+                insert.setLong(3, edge.getDestinationPoint());
+                insert.addBatch();
+                if (++batched % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package com.wizlit.path.generator;
+
+/**
+ * Shape of a generated curriculum graph.
+ * <p>
+ * Points are laid out in layers of {@code width}; every edge goes from a layer to one of the next
+ * {@code maxSkip} layers, so the graph is acyclic by construction.
+ *
+ * @param points          number of points
+ * @param width           points per layer (the last layer may be partial)
+ * @param minFanOut       fewest outgoing edges of a point that is not in the last layer
+ * @param maxFanOut       most outgoing edges of a point
+ * @param maxFanIn        most incoming edges of a point
+ * @param maxSkip         how many layers ahead an edge may reach, at least 1
+ * @param titleLength     length of point titles, at most 255
+ * @param objectiveLength length of point objectives, at most 255 (0 for none)
+ * @param seed            random seed; the same spec always yields the same graph
+ * @param firstId         id of the first point, to append after existing points
+ * @param graphId         graph (namespace) the points and edges belong to
+ */
+public record GraphSpec(
+        int points,
+        int width,
+        int minFanOut,
+        int maxFanOut,
+        int maxFanIn,
+        int maxSkip,
+        int titleLength,
+        int objectiveLength,
+        long seed,
+        long firstId,
+        String graphId
+) {
+
+    // point.title / point.objective 컬럼 길이
+    public static final int MAX_TEXT_LENGTH = 255;
+
+    public GraphSpec {
+        if (points < 1 || width < 1) {
+            throw new IllegalArgumentException("points and width must be positive");
+        }
+        if (minFanOut < 0 || maxFanOut < minFanOut || maxFanIn < 1 || maxSkip < 1) {
+            throw new IllegalArgumentException("invalid fan-out, fan-in or skip");
+        }
+        if (titleLength < 16 || titleLength > MAX_TEXT_LENGTH || objectiveLength < 0 || objectiveLength > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("title length must be 16-255 and objective length 0-255");
+        }
+        if (firstId < 1) {
+            throw new IllegalArgumentException("firstId must be positive");
+        }
+        if (graphId == null || graphId.isBlank()) {
+            throw new IllegalArgumentException("graphId must be set");
+        }
+    }
+
+    /**
+     * Defaults resembling the production graph: about ten layers for small graphs and layers of 100 above that,
+     * two to three prerequisites per point.
+     */
+    public static GraphSpec ofPoints(int points) {
+        int width = Math.max(1, Math.min(100, points / 10));
+        return new GraphSpec(points, width, 1, 3, 8, 2, 40, 120, 42L, 1L, "path");
+    }
+
+    public int layers() {
+        return (points + width - 1) / width;
+    }
+
+    public GraphSpec withWidth(int width) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+
+    public GraphSpec withFanOut(int minFanOut, int maxFanOut) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+
+    public GraphSpec withMaxFanIn(int maxFanIn) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+
+    public GraphSpec withMaxSkip(int maxSkip) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+
+    public GraphSpec withText(int titleLength, int objectiveLength) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+
+    public GraphSpec withSeed(long seed) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+
+    public GraphSpec withFirstId(long firstId) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+
+    public GraphSpec withGraphId(String graphId) {
+        return new GraphSpec(points, width, minFanOut, maxFanOut, maxFanIn, maxSkip, titleLength, objectiveLength, seed, firstId, graphId);
+    }
+}
@@ -0,0 +1,81 @@
+package com.wizlit.path.logging;
+
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.repository.PointRepository;
+import com.wizlit.path.service.PointService;
+import com.wizlit.path.service.impl.PointServiceImpl;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CallMetricsAspectTest {
+
+    private SimpleMeterRegistry registry;
+    private PointService service;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        CallMetricsAspect aspect = new CallMetricsAspect(registry);
+
+        PointRepository mock = Mockito.mock(PointRepository.class);
+        Mockito.when(mock.findAllByGraphId("path")).thenReturn(Flux.just(point(1L), point(2L)));
+        Mockito.when(mock.findByGraphIdAndId(Mockito.eq("path"), Mockito.anyLong())).thenReturn(Mono.empty());
+        AspectJProxyFactory repositoryFactory = new AspectJProxyFactory(mock);
+        repositoryFactory.setInterfaces(PointRepository.class);
+        repositoryFactory.addAspect(aspect);
+        PointRepository repository = repositoryFactory.getProxy();
+
+        AspectJProxyFactory serviceFactory = new AspectJProxyFactory(new PointServiceImpl(repository, Mockito.mock(TransactionalOperator.class)));
+        serviceFactory.setProxyTargetClass(true);
+        serviceFactory.addAspect(aspect);
+        service = serviceFactory.getProxy();
+    }
+
+    @Test
+    public void timesServiceAndRepositoryCalls() {
+        StepVerifier.create(service.getAllPoints("path")).expectNextCount(2).verifyComplete();
+
+        assertThat(timer("service", "PointServiceImpl", "getAllPoints", "SUCCESS").count()).isEqualTo(1);
+        assertThat(timer("repository", "PointRepository", "findAllByGraphId", "SUCCESS").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void outcomeIsErrorCode() {
+        StepVerifier.create(service.findExistingPoint("path", 7L))
+                .expectErrorMatches(error -> error instanceof ApiException apiException
+                        && apiException.getErrorCode() == ErrorCode.POINT_NOT_FOUND)
+                .verify();
+
+        assertThat(timer("service", "PointServiceImpl", "findExistingPoint", ErrorCode.POINT_NOT_FOUND.name()).count()).isEqualTo(1);
+        assertThat(timer("repository", "PointRepository", "findByGraphIdAndId", "SUCCESS").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void cancellationIsRecorded() {
+        StepVerifier.create(service.getAllPoints("path"), 1).expectNextCount(1).thenCancel().verify();
+
+        assertThat(timer("service", "PointServiceImpl", "getAllPoints", "CANCELLED").count()).isEqualTo(1);
+    }
+
+    private Timer timer(String layer, String type, String method, String outcome) {
+        return registry.get(CallMetricsAspect.METRIC)
+                .tags("layer", layer, "class", type, "method", method, "outcome", outcome)
+                .timer();
+    }
+
+    private static Point point(Long id) {
+        return Point.builder().id(id).title("point " + id).build();
+    }
+}
@@ -0,0 +1,61 @@
+package com.wizlit.path.logging;
+
+import com.wizlit.path.service.impl.EdgeServiceImpl;
+import com.wizlit.path.service.impl.PointServiceImpl;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LogSamplerTest {
+
+    @Test
+    public void methodRateOverridesDefault() throws Exception {
+        LogSampler sampler = new LogSampler(1.0, "PointService.getAllPoints=0.0, PointServiceImpl.findExistingPoint = 1", false);
+
+        assertThat(sampledCount(sampler, "getAllPoints")).isZero();
+        assertThat(sampledCount(sampler, "findExistingPoint")).isEqualTo(1000);
+        assertThat(sampledCount(sampler, "createPoint")).isEqualTo(1000);
+    }
+
+    @Test
+    public void fractionalRateSamplesAShare() throws Exception {
+        LogSampler sampler = new LogSampler(0.1, "", false);
+
+        assertThat(sampledCount(sampler, "getAllPoints")).isBetween(30L, 200L);
+    }
+
+    @Test
+    public void reportsRatesMatchingNoMethod() {
+        LogSampler sampler = new LogSampler(1.0,
+                "PointService.getAllPoints=0.1, PointServiceImpl.findExistingPoint=1, EdgeService.getAllEdgesByPoints=0.1", false);
+
+        assertThat(sampler.unmatchedRates(List.of(PointServiceImpl.class, EdgeServiceImpl.class)))
+                .containsExactly("EdgeService.getAllEdgesByPoints");
+        assertThat(sampler.unmatchedRates(List.of(EdgeServiceImpl.class)))
+                .containsExactly("EdgeService.getAllEdgesByPoints", "PointService.getAllPoints", "PointServiceImpl.findExistingPoint");
+    }
+
+    private static long sampledCount(LogSampler sampler, String methodName) throws Exception {
+        MethodSignature signature = Mockito.mock(MethodSignature.class);
+        Mockito.when(signature.getMethod()).thenReturn(findMethod(methodName));
+        ProceedingJoinPoint jp = Mockito.mock(ProceedingJoinPoint.class);
+        Mockito.when(jp.getSignature()).thenReturn(signature);
+        return IntStream.range(0, 1000).filter(i -> sampler.sample(jp)).count();
+    }
+
+    private static Method findMethod(String name) {
+        for (Method method : PointServiceImpl.class.getDeclaredMethods()) {
+            if (method.getName().equals(name) && !method.isSynthetic()) {
+                return method;
+            }
+        }
+        throw new IllegalArgumentException(name);
+    }
+}
@@ -0,0 +1,87 @@
+package com.wizlit.path.logging;
+
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.repository.PointRepository;
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestContextFilterTest {
+
+    private LocalGoogleStub stub;
+    private PointRepository repository;
+    private WebClient oauthClient;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new LocalGoogleStub().user("token", "alice@wizlit.com");
+
+        PointRepository mock = Mockito.mock(PointRepository.class);
+        Mockito.when(mock.findById(Mockito.anyLong()))
+                .thenAnswer(invocation -> Mono.just(Point.builder().id(invocation.getArgument(0)).title("point").build()));
+        AspectJProxyFactory factory = new AspectJProxyFactory(mock);
+        factory.setInterfaces(PointRepository.class);
+        factory.addAspect(new CallMetricsAspect(new SimpleMeterRegistry()));
+        repository = factory.getProxy();
+
+        oauthClient = WebClient.builder()
+                .baseUrl(stub.oauthUrl())
+                .filter(new RequestStatsExchangeFilter())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    public void serverTimingCountsStatementsAndHttpCalls() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/api/path"));
+        WebFilterChain chain = ex -> Flux.range(1, 3)
+                .concatMap(id -> repository.findById((long) id))
+                .then(oauthClient.get().uri("/userinfo").headers(h -> h.setBearerAuth("token"))
+                        .retrieve().bodyToMono(String.class))
+                .then(ex.getResponse().setComplete());
+
+        new RequestContextFilter(20, 5).filter(exchange, chain).block(Duration.ofSeconds(5));
+
+        String serverTiming = exchange.getResponse().getHeaders().getFirst("Server-Timing");
+        assertThat(serverTiming).contains("db;desc=\"3 statements\"").contains("http;desc=\"1 calls\"");
+        assertThat(exchange.getResponse().getHeaders().getFirst("X-Request-Id")).isNotBlank();
+    }
+
+    @Test
+    public void repeatedQueriesAreReported() {
+        RequestStats stats = new RequestStats();
+        for (int i = 0; i < 7; i++) {
+            stats.recordStatement("EdgeRepository.findById", 1_000);
+        }
+        stats.recordStatement("PointRepository.findAll", 1_000);
+
+        assertThat(stats.repeatedQueries(5)).containsOnlyKeys("EdgeRepository.findById").containsValue(7);
+        assertThat(stats.statements()).isEqualTo(8);
+    }
+
+    @Test
+    public void callsOutsideRequestAreNotAccounted() {
+        // DocumentPool refill 처럼 요청 context 없이 실행되는 호출도 그대로 동작
+        assertThat(repository.findById(1L).block()).isNotNull();
+        assertThat(oauthClient.get().uri("/userinfo").headers(h -> h.setBearerAuth("token"))
+                .retrieve().bodyToMono(String.class).block()).contains("alice@wizlit.com");
+    }
+}
@@ -0,0 +1,85 @@
+package com.wizlit.path.profiling;
+
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.repository.EdgeRepository;
+import com.wizlit.path.service.EdgeService;
+import com.wizlit.path.service.impl.EdgeServiceImpl;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.core.io.Resource;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FlightEventsTest {
+
+    @Test
+    public void recordsEventsWithSizesAndOutcomes() throws Exception {
+        EdgeRepository repository = Mockito.mock(EdgeRepository.class);
+        Mockito.when(repository.findAllByGraphId("path"))
+                .thenReturn(Flux.just(edge(1L, 2L), edge(2L, 3L), edge(1L, 3L)));
+        Mockito.when(repository.existsPath(3L, 1L)).thenReturn(Mono.just(true));
+        EdgeService service = new EdgeServiceImpl(repository);
+
+        FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint();
+        assertThat(endpoint.start("default", 1)).containsEntry("state", "RUNNING");
+
+        service.getAllEdges("path").blockLast();
+        service.validateNotBackwardPath(1L, 3L).onErrorResume(error -> Mono.empty()).block();
+
+        Resource dump = endpoint.dump();
+        Map<String, Object> stopped = endpoint.stop();
+        assertThat(stopped).containsEntry("state", "STOPPED");
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump.getFile().toPath()).stream()
+                .filter(event -> event.getEventType().getName().startsWith("com.wizlit.path."))
+                .toList();
+
+        RecordedEvent graphLoad = only(events, "com.wizlit.path.GraphLoad");
+        assertThat(graphLoad.getString("stage")).isEqualTo("edges");
+        assertThat(graphLoad.getString("graph")).isEqualTo("path");
+        assertThat(graphLoad.getLong("rows")).isEqualTo(3);
+        assertThat(graphLoad.getString("outcome")).isEqualTo("OK");
+
+        RecordedEvent backwardPath = only(events, "com.wizlit.path.BackwardPathCheck");
+        assertThat(backwardPath.getBoolean("found")).isTrue();
+    }
+
+    @Test
+    public void errorOutcomeIsErrorCode() throws Exception {
+        EdgeRepository repository = Mockito.mock(EdgeRepository.class);
+        Mockito.when(repository.findByGraphIdAndOriginPointAndDestinationPoint("path", 1L, 2L)).thenReturn(Mono.just(edge(1L, 2L)));
+        Mockito.when(repository.delete(Mockito.any(Edge.class))).thenReturn(Mono.empty());
+        Mockito.when(repository.saveAll(Mockito.anyIterable())).thenReturn(Flux.error(new IllegalStateException("boom")));
+        EdgeService service = new EdgeServiceImpl(repository);
+
+        FlightRecordingEndpoint endpoint = new FlightRecordingEndpoint();
+        endpoint.start("default", 1);
+        service.splitEdge("path", 1L, 2L, 9L).onErrorResume(error -> Flux.empty()).blockLast();
+        Resource dump = endpoint.dump();
+        endpoint.stop();
+
+        RecordedEvent split = only(RecordingFile.readAllEvents(dump.getFile().toPath()), "com.wizlit.path.EdgeSplit");
+        assertThat(split.getLong("middle")).isEqualTo(9L);
+        assertThat(split.getString("outcome")).isEqualTo(ErrorCode.INTERNAL_SERVER.name());
+    }
+
+    private static RecordedEvent only(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+                .filter(event -> event.getEventType().getName().equals(name))
+                .toList();
+        assertThat(matching).hasSize(1);
+        return matching.get(0);
+    }
+
+    private static Edge edge(Long origin, Long destination) {
+        return Edge.builder().originPoint(origin).destinationPoint(destination).build();
+    }
+}
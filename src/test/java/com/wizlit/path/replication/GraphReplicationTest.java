@@ -0,0 +1,171 @@
+package com.wizlit.path.replication;
+
+import com.wizlit.path.PathApplication;
+import com.wizlit.path.controller.PathController;
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two nodes on one database: writes go through this test's application, and the second node must see them
+ * in its in-memory graph without reading the database.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class GraphReplicationTest {
+
+    private static final String TOKEN = "ya29.graph-replication";
+    private static final GraphSpec SPEC = GraphSpec.ofPoints(30).withWidth(10);
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+    private static final Map<String, Object> PROPERTIES = new HashMap<>();
+    private static ConfigurableApplicationContext otherNode;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private GraphReplication replication;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+        try (Connection connection = database.connect()) {
+            GraphLoader.load(connection, GraphGenerator.generate(SPEC), true);
+        }
+
+        PROPERTIES.putAll(database.properties());
+        PROPERTIES.put("app.graph.replication.enabled", "true");
+        PROPERTIES.put("app.google.oauthUrl", google.oauthUrl());
+        PROPERTIES.put("app.google.driveUrl", google.driveUrl());
+        PROPERTIES.put("app.privateAccess.jwksUri", google.oauthUrl() + "/certs");
+        PROPERTIES.put("app.privateAccess.jwtAudience", "path-test");
+        PROPERTIES.put("app.logging.sampleRate", "0");
+        // 명령줄 인자로: default properties 는 application.properties 보다 우선순위가 낮음
+        List<String> args = new ArrayList<>(List.of("--server.port=0"));
+        PROPERTIES.forEach((key, value) -> args.add("--" + key + "=" + value));
+        otherNode = new SpringApplicationBuilder(PathApplication.class).run(args.toArray(String[]::new));
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (otherNode != null) {
+            otherNode.close();
+        }
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        PROPERTIES.forEach((key, value) -> registry.add(key, () -> value));
+    }
+
+    @Test
+    public void writeReachesOtherNode() {
+        GraphReplication other = otherNode.getBean(GraphReplication.class);
+        await(() -> replication.view("path", 0) != null && other.view("path", 0) != null);
+
+        long version = addPoint("/api/point", "replicated");
+
+        await(() -> other.view("path", version) != null);
+        assertThat(other.view("path", version).points())
+                .extracting(Point::getTitle)
+                .contains("replicated");
+        assertThat(otherNode.getBean(MeterRegistry.class).get("path.graph.replication.staleness").timer().count())
+                .isPositive();
+    }
+
+    @Test
+    public void missingVersionResyncs() throws Exception {
+        GraphReplication other = otherNode.getBean(GraphReplication.class);
+        await(() -> other.view("path", 0) != null);
+        MeterRegistry registry = otherNode.getBean(MeterRegistry.class);
+        double gaps = registry.counter("path.graph.replication.resyncs", "reason", "gap").count();
+
+        // 알림 없이 version 을 건너뜀: 다음 delta 는 이어지지 않음
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO last_update (id, updated_time, version) VALUES ('path', now(), 5) " +
+                    "ON CONFLICT (id) DO UPDATE SET version = last_update.version + 5");
+        }
+        long version = addPoint("/api/point", "after gap");
+
+        await(() -> other.view("path", version) != null);
+        assertThat(registry.counter("path.graph.replication.resyncs", "reason", "gap").count()).isGreaterThan(gaps);
+        assertThat(other.view("path", version).points())
+                .extracting(Point::getTitle)
+                .contains("after gap");
+    }
+
+    @Test
+    public void graphsReplicateIndependently() {
+        GraphReplication other = otherNode.getBean(GraphReplication.class);
+        await(() -> other.view("path", 0) != null);
+        long pathVersion = other.view("path", 0).version();
+
+        // 처음 쓰는 graph: 그 graph 만 다시 읽음
+        long version = addPoint("/api/graphs/replicated-course/point", "course point");
+
+        await(() -> other.view("replicated-course", version) != null);
+        assertThat(other.view("replicated-course", version).points())
+                .extracting(Point::getTitle)
+                .containsExactly("course point");
+        assertThat(other.view("path", 0).version()).isEqualTo(pathVersion);
+        assertThat(other.view("path", 0).points())
+                .extracting(Point::getTitle)
+                .doesNotContain("course point");
+    }
+
+    private long addPoint(String uri, String title) {
+        String version = client.post().uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .bodyValue(Map.of("title", title))
+                .exchange()
+                .expectStatus().isCreated()
+                .returnResult(String.class)
+                .getResponseHeaders()
+                .getFirst(PathController.GRAPH_VERSION_HEADER);
+        return Long.parseLong(version);
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("replication within 10 s").isLessThan(deadline);
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.wizlit.path.replication;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.entity.Edge;
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.replication.GraphDelta.Op;
+import com.wizlit.path.utils.GraphNamespace;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GraphStateTest {
+
+    private static final Point A = Point.builder().id(1L).title("a").build();
+    private static final Point B = Point.builder().id(2L).title("b").build();
+    private static final Edge AB = Edge.builder().id(1L).originPoint(1L).destinationPoint(2L).build();
+
+    private GraphState state;
+
+    @BeforeEach
+    void setUp() {
+        state = new GraphState();
+        state.reset(3, List.of(A, B), List.of());
+    }
+
+    @Test
+    public void appliesNextVersion() {
+        assertThat(state.apply(delta(4, Op.edge(AB)))).isEqualTo(GraphState.Outcome.APPLIED);
+        assertThat(state.view(4).edges()).hasSize(1);
+
+        assertThat(state.apply(delta(5, Op.removeEdge(AB)))).isEqualTo(GraphState.Outcome.APPLIED);
+        assertThat(state.view(5).edges()).isEmpty();
+    }
+
+    @Test
+    public void ignoresVersionsAlreadyContained() {
+        assertThat(state.apply(delta(3, Op.edge(AB)))).isEqualTo(GraphState.Outcome.STALE);
+        assertThat(state.view(3).edges()).isEmpty();
+    }
+
+    @Test
+    public void skippedVersionIsGap() {
+        assertThat(state.apply(delta(5, Op.edge(AB)))).isEqualTo(GraphState.Outcome.GAP);
+        assertThat(state.version()).isEqualTo(3);
+    }
+
+    @Test
+    public void deltaWithoutChangesIsGap() {
+        assertThat(state.apply(new GraphDelta(GraphNamespace.DEFAULT, 4, 0, null))).isEqualTo(GraphState.Outcome.GAP);
+    }
+
+    @Test
+    public void invalidatedStateServesNothing() {
+        state.invalidate();
+        assertThat(state.view(0)).isNull();
+        assertThat(state.apply(delta(4, Op.edge(AB)))).isEqualTo(GraphState.Outcome.GAP);
+    }
+
+    @Test
+    public void viewOlderThanRequestedIsNull() {
+        assertThat(state.view(4)).isNull();
+        assertThat(state.view(3).points()).hasSize(2);
+    }
+
+    @Test
+    public void payloadRoundTrips() throws Exception {
+        ObjectMapper mapper = new ObjectMapper().findAndRegisterModules();
+        GraphDelta delta = delta(4, Op.point(A), Op.edge(AB), Op.removeEdge(AB));
+        assertThat(mapper.readValue(mapper.writeValueAsString(delta), GraphDelta.class)).isEqualTo(delta);
+    }
+
+    private static GraphDelta delta(long version, Op... ops) {
+        return new GraphDelta(GraphNamespace.DEFAULT, version, 0, List.of(ops));
+    }
+}
@@ -0,0 +1,72 @@
+package com.wizlit.path.repository;
+
+import io.r2dbc.proxy.ProxyConnectionFactory;
+import io.r2dbc.proxy.core.MethodExecutionInfo;
+import io.r2dbc.proxy.core.QueryExecutionInfo;
+import io.r2dbc.proxy.core.QueryInfo;
+import io.r2dbc.proxy.listener.ProxyExecutionListener;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Counts the statements and transactions that go through the application's R2DBC {@link ConnectionFactory}.
+ * A statement is one round trip: a batch or a statement with several bindings counts once.
+ */
+public class StatementCounter implements ProxyExecutionListener {
+
+    private final List<String> statements = new CopyOnWriteArrayList<>();
+    private final AtomicInteger transactions = new AtomicInteger();
+    private final AtomicInteger rollbacks = new AtomicInteger();
+
+    /**
+     * Wraps every {@link ConnectionFactory} bean, so that repositories, templates and the transaction manager
+     * all go through the counter.
+     */
+    public BeanPostProcessor wrapConnectionFactories() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof ConnectionFactory connectionFactory
+                        ? ProxyConnectionFactory.builder(connectionFactory).listener(StatementCounter.this).build()
+                        : bean;
+            }
+        };
+    }
+
+    @Override
+    public void afterQuery(QueryExecutionInfo execInfo) {
+        statements.add(execInfo.getQueries().stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionInfo executionInfo) {
+        switch (executionInfo.getMethod().getName()) {
+            case "beginTransaction" -> transactions.incrementAndGet();
+            case "rollbackTransaction" -> rollbacks.incrementAndGet();
+            default -> { }
+        }
+    }
+
+    public void reset() {
+        statements.clear();
+        transactions.set(0);
+        rollbacks.set(0);
+    }
+
+    public List<String> statements() {
+        return List.copyOf(statements);
+    }
+
+    public int transactions() {
+        return transactions.get();
+    }
+
+    public int rollbacks() {
+        return rollbacks.get();
+    }
+}
@@ -0,0 +1,112 @@
+package com.wizlit.path.repository;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Assumptions;
+import org.springframework.test.context.DynamicPropertyRegistry;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Postgres for database tests: an embedded server shared by all tests of the run, or the database given with
+ * {@code -Dtest.db.url=jdbc:postgresql://...} ({@code test.db.user}, {@code test.db.password}).
+ * Tests using it must be able to run against a database they may empty.
+ * A second, independent instance stands in for a read replica ({@code -Dtest.replica.url=...}).
+ */
+public final class TestDatabase {
+
+    private static TestDatabase shared;
+    private static TestDatabase replica;
+
+    private final String jdbcUrl;
+    private final String user;
+    private final String password;
+
+    private TestDatabase(String jdbcUrl, String user, String password) {
+        this.jdbcUrl = jdbcUrl;
+        this.user = user;
+        this.password = password;
+    }
+
+    /**
+     * Starts the shared database, or skips the calling test class when there is none to start.
+     * Call it from {@code @BeforeAll}, before the application context is created.
+     */
+    public static synchronized TestDatabase shared() {
+        if (shared == null) {
+            shared = start("test.db");
+        }
+        return shared;
+    }
+
+    // a database separate from shared(), to route reads to
+    public static synchronized TestDatabase replica() {
+        if (replica == null) {
+            replica = start("test.replica");
+        }
+        return replica;
+    }
+
+    private static TestDatabase start(String prefix) {
+        String url = System.getProperty(prefix + ".url");
+        if (url != null) {
+            return new TestDatabase(url, System.getProperty(prefix + ".user", "postgres"), System.getProperty(prefix + ".password", ""));
+        }
+        // initdb 는 root 로 실행할 수 없음
+        Assumptions.assumeFalse("root".equals(System.getProperty("user.name")),
+                "Postgres does not run as root; pass -D" + prefix + ".url=jdbc:postgresql://... to run the database tests");
+        try {
+            EmbeddedPostgres postgres = EmbeddedPostgres.builder().start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    postgres.close();
+                } catch (IOException ignored) {
+                    // the process is exiting
+                }
+            }));
+            return new TestDatabase(postgres.getJdbcUrl("postgres", "postgres"), "postgres", "postgres");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Connection connect() throws SQLException {
+        return DriverManager.getConnection(jdbcUrl, user, password);
+    }
+
+    public String r2dbcUrl() {
+        return jdbcUrl.replaceFirst("^jdbc:", "r2dbc:").replaceFirst("\\?.*$", "");
+    }
+
+    // applies the application's migrations, for a database the application does not migrate itself
+    public void migrate() {
+        Flyway.configure()
+                .dataSource(jdbcUrl, user, password)
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    // points the application's R2DBC pool and Flyway at this database
+    public void register(DynamicPropertyRegistry registry) {
+        properties().forEach((key, value) -> registry.add(key, () -> value));
+    }
+
+    // the same, for an application started outside the test context
+    public Map<String, Object> properties() {
+        Map<String, Object> properties = new LinkedHashMap<>();
+        properties.put("spring.r2dbc.url", r2dbcUrl());
+        properties.put("spring.r2dbc.username", user);
+        properties.put("spring.r2dbc.password", password);
+        properties.put("spring.flyway.url", jdbcUrl);
+        properties.put("spring.flyway.user", user);
+        properties.put("spring.flyway.password", password);
+        return properties;
+    }
+}
@@ -0,0 +1,176 @@
+package com.wizlit.path.routing;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.wizlit.path.controller.PathController;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.history.GraphHistoryCompactor;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.temp.LocalGoogleStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Routing between two independent databases: the replica holds a smaller graph at an older version, so every
+ * response shows which database served it. The application's replica connections are read-only, like a standby.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class ReplicaRoutingTest {
+
+    private static final String TOKEN = "ya29.replica-routing";
+    private static final int PRIMARY_POINTS = 30;
+    private static final int REPLICA_POINTS = 20;
+
+    private static TestDatabase primary;
+    private static TestDatabase replica;
+    private static LocalGoogleStub google;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ReplicaVersionTracker replicaVersion;
+
+    @Autowired
+    private GraphHistoryCompactor compactor;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        primary = TestDatabase.shared();
+        replica = TestDatabase.replica();
+        replica.migrate();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        primary.register(registry);
+        registry.add("app.replica.url", () -> replica.r2dbcUrl() + "?options=default_transaction_read_only=on");
+        registry.add("app.replica.username", () -> "postgres");
+        registry.add("app.replica.password", () -> "postgres");
+        registry.add("app.replica.versionPollInterval", () -> "1h");
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+        // 테스트에서 직접 compact() 호출
+        registry.add("app.graph.history.compactInterval", () -> "0s");
+        registry.add("app.graph.history.snapshotEvery", () -> "1");
+    }
+
+    @BeforeEach
+    void seed() throws Exception {
+        seed(primary, PRIMARY_POINTS, 10);
+        seed(replica, REPLICA_POINTS, 7);
+        replicaVersion.refresh().block();
+    }
+
+    @Test
+    public void readsGoToReplica() {
+        assertThat(pointsServed(null)).isEqualTo(REPLICA_POINTS);
+    }
+
+    @Test
+    public void readsAtReplicaVersionStayOnReplica() {
+        assertThat(pointsServed("7")).isEqualTo(REPLICA_POINTS);
+    }
+
+    @Test
+    public void readsAfterNewerWriteGoToPrimary() {
+        assertThat(pointsServed("8")).isEqualTo(PRIMARY_POINTS);
+    }
+
+    @Test
+    public void writesGoToPrimary() throws Exception {
+        // point 25 exists on the primary only
+        client.put().uri("/api/path?origin=1&destination=25")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(PathController.GRAPH_VERSION_HEADER, "11");
+
+        assertThat(version(primary)).isEqualTo(11);
+        assertThat(version(replica)).isEqualTo(7);
+    }
+
+    @Test
+    public void compactionWritesToPrimary() throws Exception {
+        // the history starts at the loaded graph's snapshot (version 0)
+        try (Connection connection = primary.connect(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("UPDATE last_update SET version = 0 WHERE id = 'path'");
+        }
+        client.put().uri("/api/path?origin=1&destination=25")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange()
+                .expectStatus().isCreated();
+
+        assertThat(compactor.compact().block()).isEqualTo(1);
+        assertThat(count(primary, "SELECT count(*) FROM graph_snapshot WHERE version = 1")).isEqualTo(1);
+        assertThat(count(replica, "SELECT count(*) FROM graph_snapshot WHERE version > 0")).isZero();
+    }
+
+    private int pointsServed(String graphVersion) {
+        WebTestClient.RequestHeadersSpec<?> request = client.get().uri("/api/path");
+        if (graphVersion != null) {
+            request = request.header(PathController.GRAPH_VERSION_HEADER, graphVersion);
+        }
+        return request.exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody()
+                .path("data").path("nodes").size();
+    }
+
+    private static void seed(TestDatabase database, int points, long version) throws SQLException {
+        try (Connection connection = database.connect()) {
+            GraphLoader.load(connection, GraphGenerator.generate(GraphSpec.ofPoints(points).withWidth(5)), true);
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("INSERT INTO last_update (id, updated_time, version) VALUES ('path', now(), " + version + ") " +
+                        "ON CONFLICT (id) DO UPDATE SET version = EXCLUDED.version");
+            }
+        }
+    }
+
+    private static long count(TestDatabase database, String sql) throws SQLException {
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+
+    private static long version(TestDatabase database) throws SQLException {
+        try (Connection connection = database.connect();
+             Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery("SELECT version FROM last_update WHERE id = 'path'")) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
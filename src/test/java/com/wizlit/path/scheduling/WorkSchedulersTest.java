@@ -0,0 +1,59 @@
+package com.wizlit.path.scheduling;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class WorkSchedulersTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // compute: 1 thread, queue 1, inline below 10 elements; blocking: 1 thread, queue 1
+    private final WorkSchedulers schedulers = new WorkSchedulers(1, 1, 10, 1, 1, registry);
+
+    @AfterEach
+    void tearDown() {
+        schedulers.close();
+    }
+
+    @Test
+    public void smallWorkRunsInline() {
+        String caller = Thread.currentThread().getName();
+        assertThat(schedulers.compute(9, () -> Thread.currentThread().getName()).block()).isEqualTo(caller);
+        assertThat(schedulers.compute(10, () -> Thread.currentThread().getName()).block()).startsWith("compute-");
+    }
+
+    @Test
+    public void computeThreadsAreNonBlocking() {
+        assertThat(schedulers.compute(10, Schedulers::isInNonBlockingThread).block()).isTrue();
+        assertThat(Mono.fromCallable(Schedulers::isInNonBlockingThread).subscribeOn(schedulers.blocking()).block()).isFalse();
+    }
+
+    @Test
+    public void workBeyondQueueIsRejected() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        // one running, one queued, the third rejected
+        List<Throwable> errors = Flux.range(0, 3)
+                .flatMap(i -> Mono.fromCallable(() -> release.await(5, TimeUnit.SECONDS))
+                        .subscribeOn(schedulers.blocking())
+                        .then(Mono.<Throwable>empty())
+                        .onErrorResume(Mono::just))
+                .take(1)
+                .collectList()
+                .doFinally(signal -> release.countDown())
+                .block(Duration.ofSeconds(10));
+
+        assertThat(errors).singleElement().isInstanceOf(RejectedExecutionException.class);
+        assertThat(registry.get("executor.queued").tag("name", "blocking").gauge()).isNotNull();
+    }
+}
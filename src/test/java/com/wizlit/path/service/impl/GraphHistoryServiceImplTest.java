@@ -0,0 +1,236 @@
+package com.wizlit.path.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.wizlit.path.controller.PathController;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.history.GraphHistoryCompactor;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.service.GraphHistoryService;
+import com.wizlit.path.temp.LocalGoogleStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Writes go through the API; {@code GET /api/path?asOf=} must return what a plain read returned at that time,
+ * before and after compaction.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class GraphHistoryServiceImplTest {
+
+    private static final String TOKEN = "ya29.graph-history";
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private GraphHistoryCompactor compactor;
+
+    @Autowired
+    private GraphHistoryService historyService;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        database.register(registry);
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+        // 테스트에서 직접 compact() 호출
+        registry.add("app.graph.history.compactInterval", () -> "0s");
+        registry.add("app.graph.history.snapshotEvery", () -> "3");
+    }
+
+    @BeforeEach
+    void seed() throws Exception {
+        try (Connection connection = database.connect()) {
+            GraphLoader.load(connection, GraphGenerator.generate(GraphSpec.ofPoints(20).withWidth(5)), true);
+        }
+    }
+
+    @Test
+    public void asOfReturnsGraphBeforeLaterWrites() {
+        JsonNode seeded = read("/api/path");
+        Instant beforeWrites = Instant.now();
+
+        addPoint("first");
+        JsonNode afterFirst = read("/api/path");
+        Instant betweenWrites = Instant.now();
+        addPoint("second");
+
+        assertThat(readAsOf(beforeWrites, "0")).isEqualTo(seeded);
+        assertThat(readAsOf(betweenWrites, "1")).isEqualTo(afterFirst);
+        assertThat(readAsOf(Instant.now(), "2")).isEqualTo(read("/api/path"));
+    }
+
+    @Test
+    public void compactionBoundsReplayWithoutChangingReads() throws Exception {
+        JsonNode seeded = read("/api/path");
+        Instant beforeWrites = Instant.now();
+        addPoint("a");
+        addPoint("b");
+        assertThat(compactor.compact().block()).isZero();
+
+        addPoint("c");
+        JsonNode afterThird = read("/api/path");
+        Instant afterWrites = Instant.now();
+        assertThat(compactor.compact().block()).isEqualTo(1);
+        assertThat(compactor.compact().block()).isZero();
+        assertThat(count("SELECT count(*) FROM graph_snapshot WHERE graph_id = 'path' AND version = 3")).isEqualTo(1);
+
+        assertThat(readAsOf(afterWrites, "3")).isEqualTo(afterThird);
+        assertThat(readAsOf(beforeWrites, "0")).isEqualTo(seeded);
+    }
+
+    @Test
+    public void retentionDropsEventsCoveredBySnapshots() throws Exception {
+        addPoint("a");
+        addPoint("b");
+        addPoint("c");
+        addPoint("d");
+        JsonNode current = read("/api/path");
+
+        assertThat(historyService.compact(3, Instant.now().plusSeconds(1)).block()).isEqualTo(1);
+
+        // 스냅샷(version 4) 이전 이벤트는 모두 삭제, 이후 이벤트는 없음
+        assertThat(count("SELECT count(*) FROM graph_event WHERE graph_id = 'path'")).isZero();
+        assertThat(readAsOf(Instant.now(), "4")).isEqualTo(current);
+    }
+
+    @Test
+    public void readBetweenCompactedSnapshotsFails() throws Exception {
+        addPoint("a");
+        addPoint("b");
+        addPoint("c");
+        assertThat(historyService.compact(3, null).block()).isEqualTo(1);
+
+        addPoint("d");
+        Instant afterFourth = Instant.now();
+        addPoint("e");
+        addPoint("f");
+        JsonNode current = read("/api/path");
+        // snapshot at version 6, events up to it dropped: version 4 and 5 are gone
+        assertThat(historyService.compact(3, Instant.now().plusSeconds(1)).block()).isEqualTo(1);
+
+        client.get().uri("/api/path?asOf=" + afterFourth)
+                .exchange()
+                .expectStatus().isEqualTo(410)
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("HISTORY_COMPACTED");
+        assertThat(readAsOf(Instant.now(), "6")).isEqualTo(current);
+    }
+
+    @Test
+    public void beforeHistoryIsNotAvailable() {
+        client.get().uri("/api/path?asOf=2000-01-01T00:00:00Z")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.errorCode").isEqualTo("HISTORY_NOT_AVAILABLE");
+    }
+
+    @Test
+    public void newGraphIsEmptyBeforeItsFirstWrite() {
+        Instant beforeWrites = Instant.now();
+        addPoint("/api/graphs/history-course/point", "course point");
+
+        JsonNode before = client.get().uri("/api/graphs/history-course/path?asOf=" + beforeWrites)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PathController.GRAPH_VERSION_HEADER, "0")
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+        assertThat(before.path("data").path("points")).isEmpty();
+    }
+
+    private void addPoint(String title) {
+        addPoint("/api/point", title);
+    }
+
+    private void addPoint(String uri, String title) {
+        client.post().uri(uri)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .bodyValue(Map.of("title", title))
+                .exchange()
+                .expectStatus().isCreated();
+    }
+
+    private JsonNode read(String uri) {
+        return sorted(client.get().uri(uri)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody()
+                .path("data"));
+    }
+
+    private JsonNode readAsOf(Instant asOf, String version) {
+        return sorted(client.get().uri("/api/path?asOf=" + asOf)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PathController.GRAPH_VERSION_HEADER, version)
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody()
+                .path("data"));
+    }
+
+    // edges come in no particular order
+    private static JsonNode sorted(JsonNode path) {
+        if (path.path("edges").isArray()) {
+            List<JsonNode> edges = new ArrayList<>();
+            path.path("edges").forEach(edges::add);
+            edges.sort(Comparator.comparing(JsonNode::toString));
+            ((ArrayNode) path.path("edges")).removeAll().addAll(edges);
+        }
+        return path;
+    }
+
+    private static long count(String sql) throws Exception {
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
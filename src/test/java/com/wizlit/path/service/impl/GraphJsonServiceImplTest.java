@@ -0,0 +1,169 @@
+package com.wizlit.path.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.model.OutputPathDto;
+import com.wizlit.path.repository.GraphJsonRepository;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.service.EdgeService;
+import com.wizlit.path.service.PointService;
+import com.wizlit.path.temp.LocalGoogleStub;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The database renders the same document the application serializes. The application runs in database mode,
+ * so {@code GET /api/path} also covers the passthrough of the rendered bytes.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class GraphJsonServiceImplTest {
+
+    private static final String TOKEN = "ya29.graph-json";
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private GraphJsonRepository repository;
+
+    @Autowired
+    private R2dbcTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper mapper;
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private EdgeService edgeService;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        database.register(registry);
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+        registry.add("app.graph.render", () -> "database");
+    }
+
+    @BeforeEach
+    void seed() throws Exception {
+        try (Connection connection = database.connect()) {
+            GraphLoader.load(connection, GraphGenerator.generate(GraphSpec.ofPoints(30).withWidth(10)), true);
+            try (Statement statement = connection.createStatement()) {
+                // a point without objective/document, and a created_on with microseconds
+                statement.executeUpdate("INSERT INTO point (title) VALUES ('bare')");
+            }
+        }
+    }
+
+    @Test
+    public void databaseRenderingMatchesApplication() throws Exception {
+        assertThat(rendered("database")).isEqualTo(expected());
+        // 같은 compact 형식: key 순서와 무관하게 길이가 같음
+        byte[] json = new GraphJsonServiceImpl(repository, transactionManager, "database").getPathJson("path").block();
+        assertThat(json).hasSize(mapper.writeValueAsBytes(expected()).length);
+    }
+
+    @Test
+    public void snapshotMatchesApplication() throws Exception {
+        assertThat(rendered("snapshot")).isEqualTo(expected());
+    }
+
+    @Test
+    public void emptyGraphMatchesApplication() throws Exception {
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE point, edge RESTART IDENTITY CASCADE");
+        }
+        assertThat(rendered("database")).isEqualTo(expected());
+    }
+
+    @Test
+    public void snapshotFollowsVersion() throws Exception {
+        JsonNode before = rendered("snapshot");
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement()) {
+            // 버전을 올리지 않은 변경은 저장된 렌더링에 보이지 않음
+            statement.executeUpdate("INSERT INTO point (title) VALUES ('unversioned')");
+            assertThat(rendered("snapshot")).isEqualTo(before);
+
+            statement.executeUpdate("INSERT INTO last_update (id, updated_time, version) VALUES ('path', now(), 1) " +
+                    "ON CONFLICT (id) DO UPDATE SET version = last_update.version + 1");
+        }
+        assertThat(rendered("snapshot")).isEqualTo(expected());
+    }
+
+    @Test
+    public void passthroughKeepsResponseShape() throws Exception {
+        JsonNode response = client.get().uri("/api/path")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON)
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+
+        assertThat(response.path("serverTime").isNumber()).isTrue();
+        assertThat(response.path("data")).isEqualTo(expected());
+    }
+
+    @Test
+    public void applicationModeLeavesRenderingToController() {
+        assertThat(new GraphJsonServiceImpl(repository, transactionManager, "application").getPathJson("path").blockOptional())
+                .isEmpty();
+    }
+
+    private JsonNode rendered(String mode) throws Exception {
+        byte[] json = new GraphJsonServiceImpl(repository, transactionManager, mode).getPathJson("path").block();
+        return mapper.readTree(json);
+    }
+
+    // what PathController serializes in application mode
+    private JsonNode expected() {
+        OutputPathDto path = pointService.getAllPoints("path")
+                .collectList()
+                .flatMap(points -> points.isEmpty()
+                        ? Mono.just(OutputPathDto.builder().build())
+                        : edgeService.getAllEdges("path")
+                                .collectList()
+                                .map(edges -> OutputPathDto.fromEdgesAndPoints(points, edges)))
+                .block();
+        return mapper.valueToTree(path);
+    }
+}
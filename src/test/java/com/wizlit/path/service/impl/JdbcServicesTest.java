@@ -0,0 +1,209 @@
+package com.wizlit.path.service.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.wizlit.path.controller.PathController;
+import com.wizlit.path.entity.Point;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.repository.jdbc.JdbcTransactionManager;
+import com.wizlit.path.service.EdgeService;
+import com.wizlit.path.service.LastUpdateService;
+import com.wizlit.path.service.PointService;
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.transaction.ReactiveTransactionManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * The {@code jdbc} profile: the same requests as with R2DBC, and writes that commit or roll back with the
+ * surrounding reactive transaction.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("jdbc")
+public class JdbcServicesTest {
+
+    private static final String TOKEN = "ya29.jdbc-services";
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private PointService pointService;
+
+    @Autowired
+    private EdgeService edgeService;
+
+    @Autowired
+    private LastUpdateService lastUpdateService;
+
+    @Autowired
+    private TransactionalOperator transactionalOperator;
+
+    @Autowired
+    private ReactiveTransactionManager transactionManager;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        database.register(registry);
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+    }
+
+    @BeforeEach
+    void clear() throws Exception {
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE point, edge, last_update, graph_json, graph_event, graph_snapshot RESTART IDENTITY CASCADE");
+        }
+    }
+
+    @Test
+    public void servicesRunOnJdbc() {
+        assertThat(AopUtils.getTargetClass(pointService)).isEqualTo(JdbcPointServiceImpl.class);
+        assertThat(AopUtils.getTargetClass(edgeService)).isEqualTo(JdbcEdgeServiceImpl.class);
+        assertThat(AopUtils.getTargetClass(lastUpdateService)).isEqualTo(JdbcLastUpdateServiceImpl.class);
+        assertThat(transactionManager).isInstanceOf(JdbcTransactionManager.class);
+    }
+
+    @Test
+    public void transactionHoldsNoR2dbcConnection() {
+        ConnectionPool pool = (ConnectionPool) connectionFactory;
+        Integer acquired = pointService.createPoint(Point.builder().graphId("path").title("jdbc only").build())
+                .then(Mono.fromSupplier(() -> pool.getMetrics().orElseThrow().acquiredSize()))
+                .as(transactionalOperator::transactional)
+                .block();
+
+        assertThat(acquired).isZero();
+    }
+
+    @Test
+    public void requestsBehaveAsWithR2dbc() throws Exception {
+        String a = addPoint(Map.of("title", "a"), "1");
+        String b = addPoint(Map.of("title", "b", "origin", a), "2");
+        // a -> c -> b
+        String c = addPoint(Map.of("title", "c", "origin", a, "destination", b), "3");
+
+        JsonNode path = client.get().uri("/api/path")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody()
+                .path("data");
+        assertThat(path.path("nodes").size()).isEqualTo(3);
+        assertThat(path.path("edges").size()).isEqualTo(2);
+
+        // b -> a would close a cycle
+        client.put().uri("/api/path?origin={o}&destination={d}", b, a)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.errorCode").isEqualTo("BACKWARD_PATH");
+        client.delete().uri("/api/path?origin={o}&destination={d}", c, b)
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(PathController.GRAPH_VERSION_HEADER, "4");
+
+        assertThat(count("SELECT count(*) FROM edge")).isEqualTo(1);
+        assertThat(count("SELECT count(*) FROM graph_event")).isEqualTo(4);
+    }
+
+    @Test
+    public void duplicateTitleIsConflict() {
+        addPoint(Map.of("title", "same"), "1");
+        client.post().uri("/api/point")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .bodyValue(Map.of("title", "same"))
+                .exchange()
+                .expectStatus().isEqualTo(409)
+                .expectBody().jsonPath("$.errorCode").isEqualTo("POINT_NAME_DUPLICATED");
+    }
+
+    @Test
+    public void writesCommitWithTransaction() throws Exception {
+        pointService.createPoint(Point.builder().graphId("path").title("committed").build())
+                .then(lastUpdateService.update("path"))
+                .as(transactionalOperator::transactional)
+                .block();
+
+        assertThat(count("SELECT count(*) FROM point WHERE title = 'committed'")).isEqualTo(1);
+        assertThat(count("SELECT version FROM last_update WHERE id = 'path'")).isEqualTo(1);
+    }
+
+    @Test
+    public void writesRollBackWithTransaction() throws Exception {
+        Mono<Object> failing = pointService.createPoint(Point.builder().graphId("path").title("rolled back").build())
+                .then(lastUpdateService.update("path"))
+                .then(Mono.error(new IllegalStateException("after the writes")));
+
+        assertThatThrownBy(() -> failing.as(transactionalOperator::transactional).block())
+                .hasMessageContaining("after the writes");
+        assertThat(count("SELECT count(*) FROM point")).isZero();
+        assertThat(count("SELECT count(*) FROM last_update")).isZero();
+    }
+
+    // id of the created point, after checking the graph's new version
+    private String addPoint(Map<String, String> body, String expectedVersion) {
+        return client.post().uri("/api/point")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + TOKEN)
+                .bodyValue(body)
+                .exchange()
+                .expectStatus().isCreated()
+                .expectHeader().valueEquals(PathController.GRAPH_VERSION_HEADER, expectedVersion)
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody()
+                .path("id").asText();
+    }
+
+    private static long count(String sql) throws Exception {
+        try (Connection connection = database.connect(); Statement statement = connection.createStatement();
+             ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.wizlit.path.temp;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class DocumentPoolTest {
+
+    private LocalGoogleStub stub;
+    private SimpleMeterRegistry registry;
+    private DocumentPool pool;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new LocalGoogleStub();
+        registry = new SimpleMeterRegistry();
+        pool = new DocumentPool(stub.googleService(), registry, "template", "folder", "course-a=folder-a", 2, 4, Duration.ofMinutes(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    public void coldPoolCopiesDirectlyAndRefillsInBackground() {
+        StepVerifier.create(pool.claim("token", "tester@wizlit.com", "path", "1 // first"))
+                .expectNextMatches(file -> "1 // first".equals(stub.fileNames().get(file.getId())))
+                .verifyComplete();
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+        assertThat(stub.count("copy")).isEqualTo(5);
+        assertThat(registry.get("document.pool.depth").gauge().value()).isEqualTo(4.0);
+        assertThat(registry.get("document.pool.refill").timer().count()).isEqualTo(4);
+    }
+
+    @Test
+    public void warmPoolOnlyRenames() {
+        pool.refill("token", pool.pool("tester@wizlit.com", "path"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+        long copiesBefore = stub.count("copy");
+
+        StepVerifier.create(pool.claim("token", "tester@wizlit.com", "path", "2 // second"))
+                .expectNextMatches(file -> "2 // second".equals(stub.fileNames().get(file.getId())))
+                .verifyComplete();
+
+        assertThat(stub.count("copy")).isEqualTo(copiesBefore);
+        assertThat(stub.count("rename")).isEqualTo(1);
+        assertThat(pool.depth()).isEqualTo(3);
+        assertThat(registry.get("document.pool.claims").tag("result", "hit").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void refillStartsOnlyBelowLowWatermark() {
+        pool.refill("token", pool.pool("tester@wizlit.com", "path"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+
+        pool.claim("token", "tester@wizlit.com", "path", "3 // third").block();
+        pool.claim("token", "tester@wizlit.com", "path", "4 // fourth").block();
+        assertThat(stub.count("copy")).isEqualTo(4);
+
+        pool.claim("token", "tester@wizlit.com", "path", "5 // fifth").block();
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+        assertThat(stub.count("copy")).isEqualTo(7);
+    }
+
+    @Test
+    public void graphsWithOwnFolderHaveOwnPool() {
+        pool.refill("token", pool.pool("tester@wizlit.com", "path"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+
+        GoogleDriveFileResponse file = pool.claim("token", "tester@wizlit.com", "course-a", "6 // sixth").block();
+        assertThat(stub.fileFolders().get(file.getId())).isEqualTo("folder-a");
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 8);
+        assertThat(pool.pool("tester@wizlit.com", "course-a").available).allMatch(id -> "folder-a".equals(stub.fileFolders().get(id)));
+
+        // 폴더가 없는 graph 는 기본 폴더의 pool 을 같이 씀
+        assertThat(pool.pool("tester@wizlit.com", "course-b")).isSameAs(pool.pool("tester@wizlit.com", "path"));
+    }
+
+    @Test
+    public void usersClaimOnlyTheirOwnCopies() {
+        pool.refill("token", pool.pool("tester@wizlit.com", "path"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+
+        // 같은 폴더라도 다른 사용자의 문서는 건드리지 않음
+        GoogleDriveFileResponse other = pool.claim("other-token", "other@wizlit.com", "path", "7 // seventh").block();
+        assertThat(stub.fileOwners().get(other.getId())).isEqualTo("other-token");
+        assertThat(stub.fileNames().get(other.getId())).isEqualTo("7 // seventh");
+        assertThat(stub.count("rename")).isZero();
+        assertThat(pool.pool("tester@wizlit.com", "path").available).hasSize(4);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.pool("other@wizlit.com", "path").available.size() == 4);
+        assertThat(pool.pool("other@wizlit.com", "path").available)
+                .allMatch(id -> "other-token".equals(stub.fileOwners().get(id)));
+
+        GoogleDriveFileResponse own = pool.claim("token", "tester@wizlit.com", "path", "8 // eighth").block();
+        assertThat(stub.fileOwners().get(own.getId())).isEqualTo("token");
+        assertThat(stub.count("rename")).isEqualTo(1);
+    }
+
+    @Test
+    public void drainDeletesUnclaimedCopies() {
+        pool.refill("token", pool.pool("tester@wizlit.com", "path"));
+        pool.refill("other-token", pool.pool("other@wizlit.com", "path"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 8);
+
+        pool.drain();
+
+        assertThat(pool.depth()).isZero();
+        assertThat(stub.count("delete")).isEqualTo(8);
+        assertThat(stub.fileNames()).isEmpty();
+    }
+
+    @Test
+    public void idlePoolsAreEvictedWithTheirCopies() {
+        pool.refill("token", pool.pool("tester@wizlit.com", "path"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+        long later = System.nanoTime() + Duration.ofMinutes(5).toNanos();
+
+        pool.refill("other-token", pool.pool("other@wizlit.com", "path"));
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 8);
+
+        // 아직 idleTimeout 이 지나지 않음
+        assertThat(pool.evictIdle(later).block()).isZero();
+        assertThat(pool.evictIdle(later + Duration.ofMinutes(6).toNanos()).block()).isEqualTo(8);
+        assertThat(pool.depth()).isZero();
+        assertThat(stub.count("delete")).isEqualTo(8);
+        assertThat(stub.fileNames()).isEmpty();
+
+        // 다음 claim 은 새 pool 로 시작
+        pool.claim("token", "tester@wizlit.com", "path", "9 // ninth").block();
+        await().atMost(Duration.ofSeconds(5)).until(() -> pool.depth() == 4);
+    }
+}
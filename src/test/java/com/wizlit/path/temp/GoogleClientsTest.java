@@ -0,0 +1,127 @@
+package com.wizlit.path.temp;
+
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Timeouts, retries, bulkhead and circuit breaker against a stub that injects latency and errors.
+ */
+public class GoogleClientsTest {
+
+    private static final String TOKEN = "ya29.google-clients";
+
+    private LocalGoogleStub stub;
+    private SimpleMeterRegistry registry;
+    private GoogleClients clients;
+    private GoogleService google;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new LocalGoogleStub().user(TOKEN, "tester@wizlit.com");
+        registry = new SimpleMeterRegistry();
+        // response timeout 300 ms, 2 retries from 10 ms, 2 Drive calls at once, breaker opening at 5 failures in the last 10 attempts
+        clients = new GoogleClients(Duration.ofSeconds(1), 10, Duration.ofSeconds(1),
+                Duration.ofMillis(300), Duration.ofMillis(300), Duration.ofMillis(300),
+                2, Duration.ofMillis(10), 2, 10, 50, Duration.ofMinutes(1), registry);
+        google = stub.googleService(clients);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.close();
+        stub.close();
+    }
+
+    @Test
+    public void idempotentCallRetriesTransientErrors() {
+        stub.fail("rename", 503, 2);
+
+        StepVerifier.create(google.updateFileName(TOKEN, "file-1", "renamed"))
+                .expectNextMatches(file -> "renamed".equals(file.getName()))
+                .verifyComplete();
+
+        assertThat(stub.count("rename")).isEqualTo(3);
+        assertThat(registry.get("path.google.retries").tag("call", "rename").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    public void copyIsNotRepeatedOnceSent() {
+        stub.fail("copy", 503, 1);
+
+        StepVerifier.create(google.copyDocs(TOKEN, "template", "folder", "copy"))
+                .expectErrorSatisfies(error -> assertUnavailable(error))
+                .verify();
+
+        assertThat(stub.count("copy")).isEqualTo(1);
+    }
+
+    @Test
+    public void clientErrorsAreNotRetried() {
+        StepVerifier.create(google.getUserInfo("ya29.unknown"))
+                .expectErrorSatisfies(error -> assertThat(((ApiException) error).getErrorCode()).isEqualTo(ErrorCode.INVALID_TOKEN))
+                .verify();
+
+        assertThat(stub.count("userinfo")).isEqualTo(1);
+    }
+
+    @Test
+    public void slowResponseTimesOut() {
+        stub.delay(1000);
+
+        StepVerifier.create(google.copyDocs(TOKEN, "template", "folder", "slow"))
+                .expectErrorSatisfies(error -> assertUnavailable(error))
+                .verify(Duration.ofMillis(900));
+    }
+
+    @Test
+    public void bulkheadRejectsDriveCallsBeyondLimit() {
+        stub.delay(200);
+
+        List<Throwable> errors = Flux.range(0, 4)
+                .flatMap(i -> google.copyDocs(TOKEN, "template", "folder", "copy " + i)
+                        .then(Mono.<Throwable>empty())
+                        .onErrorResume(Mono::just))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(errors).hasSize(2).allSatisfy(GoogleClientsTest::assertUnavailable);
+        assertThat(stub.count("copy")).isEqualTo(2);
+    }
+
+    @Test
+    public void openBreakerFailsFastWithoutCallingGoogle() {
+        stub.fail("copy", 500, 5);
+        for (int i = 0; i < 5; i++) {
+            google.copyDocs(TOKEN, "template", "folder", "failing").onErrorResume(error -> Mono.empty()).block();
+        }
+        assertThat(stub.count("copy")).isEqualTo(5);
+
+        StepVerifier.create(google.copyDocs(TOKEN, "template", "folder", "rejected"))
+                .expectErrorSatisfies(error -> assertUnavailable(error))
+                .verify(Duration.ofMillis(100));
+
+        assertThat(stub.count("copy")).isEqualTo(5);
+        // 다른 API 의 breaker 는 닫혀 있음
+        StepVerifier.create(google.getUserInfo(TOKEN))
+                .expectNextMatches(json -> json.contains("tester@wizlit.com"))
+                .verifyComplete();
+    }
+
+    private static void assertUnavailable(Throwable error) {
+        assertThat(error).isInstanceOf(ApiException.class);
+        assertThat(((ApiException) error).getErrorCode()).isEqualTo(ErrorCode.GOOGLE_UNAVAILABLE);
+        assertThat(ErrorCode.GOOGLE_UNAVAILABLE.getStatus().value()).isEqualTo(503);
+    }
+}
@@ -0,0 +1,236 @@
+package com.wizlit.path.temp;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the Google endpoints used by {@link GoogleService}.
+ * Serves {@code /drive/v3}, {@code /oauth2/v3/userinfo} and {@code /oauth2/v3/certs} on a random port and records every call it receives.
+ */
+public class LocalGoogleStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final AtomicInteger copySequence = new AtomicInteger();
+
+    private final List<String> calls = new CopyOnWriteArrayList<>();
+    private final Map<String, String> fileNames = new ConcurrentHashMap<>();
+    private final Map<String, String> fileFolders = new ConcurrentHashMap<>();
+    private final Map<String, String> fileOwners = new ConcurrentHashMap<>();
+    private final Map<String, String> users = new ConcurrentHashMap<>();
+    private final Map<String, Failure> failures = new ConcurrentHashMap<>();
+    private volatile long delayMillis;
+    private volatile String jwks = "{\"keys\":[]}";
+    private GoogleClients clients;
+
+    public LocalGoogleStub() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/drive/v3/files/", this::handleDrive);
+        server.createContext("/oauth2/v3/userinfo", this::handleUserInfo);
+        server.createContext("/oauth2/v3/certs", this::handleCerts);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String driveUrl() {
+        return baseUrl() + "/drive/v3";
+    }
+
+    public String oauthUrl() {
+        return baseUrl() + "/oauth2/v3";
+    }
+
+    public String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    // the default clients are shared by every service of this stub and closed with it
+    public synchronized GoogleService googleService() {
+        if (clients == null) {
+            clients = new GoogleClients();
+        }
+        return googleService(clients);
+    }
+
+    public GoogleService googleService(GoogleClients clients) {
+        return new GoogleService(
+                WebClient.builder(),
+                WebClient.builder(),
+                oauthUrl(),
+                driveUrl(),
+                clients
+        );
+    }
+
+    public List<String> calls() {
+        return calls;
+    }
+
+    public long count(String operation) {
+        return calls.stream().filter(operation::equals).count();
+    }
+
+    public Map<String, String> fileNames() {
+        return fileNames;
+    }
+
+    // folder each copy was created in
+    public Map<String, String> fileFolders() {
+        return fileFolders;
+    }
+
+    // token each copy was created with; other tokens cannot rename or delete it
+    public Map<String, String> fileOwners() {
+        return fileOwners;
+    }
+
+    // registers an access token that userinfo accepts
+    public LocalGoogleStub user(String token, String email) {
+        users.put(token, email);
+        return this;
+    }
+
+    // delays every response, to hold calls in flight
+    public LocalGoogleStub delay(long millis) {
+        this.delayMillis = millis;
+        return this;
+    }
+
+    // answers the next calls of an operation (userinfo, copy, rename, delete) with an error status; they are still recorded
+    public LocalGoogleStub fail(String operation, int status, int times) {
+        failures.put(operation, new Failure(status, new AtomicInteger(times)));
+        return this;
+    }
+
+    // replaces the key set served by the certs endpoint
+    public LocalGoogleStub jwks(String jwks) {
+        this.jwks = jwks;
+        return this;
+    }
+
+    private void handleCerts(HttpExchange exchange) throws IOException {
+        calls.add("certs");
+        respond(exchange, 200, mapper.readTree(jwks));
+    }
+
+    private void handleUserInfo(HttpExchange exchange) throws IOException {
+        calls.add("userinfo");
+        pause();
+        if (failed(exchange, "userinfo")) {
+            return;
+        }
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        String email = authorization == null ? null : users.get(authorization.substring("Bearer ".length()));
+        if (email == null) {
+            respond(exchange, 401, Map.of("error", "invalid_token"));
+        } else {
+            respond(exchange, 200, Map.of("email", email));
+        }
+    }
+
+    private void handleDrive(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String fileId = path.substring("/drive/v3/files/".length());
+        JsonNode body = mapper.readTree(exchange.getRequestBody());
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        String token = authorization == null ? "" : authorization.substring("Bearer ".length());
+        pause();
+
+        if ("POST".equals(exchange.getRequestMethod()) && fileId.endsWith("/copy")) {
+            calls.add("copy");
+            if (failed(exchange, "copy")) {
+                return;
+            }
+            String copyId = "copy-" + copySequence.incrementAndGet();
+            fileNames.put(copyId, body.path("name").asText());
+            fileFolders.put(copyId, body.path("parents").path(0).asText());
+            fileOwners.put(copyId, token);
+            respond(exchange, 200, Map.of("id", copyId, "name", body.path("name").asText()));
+        } else if ("PATCH".equals(exchange.getRequestMethod())) {
+            calls.add("rename");
+            if (failed(exchange, "rename") || notOwner(exchange, fileId, token)) {
+                return;
+            }
+            fileNames.put(fileId, body.path("name").asText());
+            respond(exchange, 200, Map.of("id", fileId, "name", body.path("name").asText()));
+        } else if ("DELETE".equals(exchange.getRequestMethod())) {
+            calls.add("delete");
+            if (failed(exchange, "delete") || notOwner(exchange, fileId, token)) {
+                return;
+            }
+            fileNames.remove(fileId);
+            fileFolders.remove(fileId);
+            fileOwners.remove(fileId);
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        } else {
+            respond(exchange, 404, Map.of("error", "not found"));
+        }
+    }
+
+    // Drive answers 404 for files the user cannot see
+    private boolean notOwner(HttpExchange exchange, String fileId, String token) throws IOException {
+        String owner = fileOwners.get(fileId);
+        if (owner == null || owner.equals(token)) {
+            return false;
+        }
+        respond(exchange, 404, Map.of("error", "notFound"));
+        return true;
+    }
+
+    private boolean failed(HttpExchange exchange, String operation) throws IOException {
+        Failure failure = failures.get(operation);
+        if (failure == null || failure.remaining().getAndDecrement() <= 0) {
+            return false;
+        }
+        respond(exchange, failure.status(), Map.of("error", "injected"));
+        return true;
+    }
+
+    private record Failure(int status, AtomicInteger remaining) {
+    }
+
+    private void pause() {
+        if (delayMillis > 0) {
+            try {
+                Thread.sleep(delayMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = mapper.writeValueAsString(body).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (clients != null) {
+            clients.close();
+        }
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
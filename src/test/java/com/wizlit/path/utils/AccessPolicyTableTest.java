@@ -0,0 +1,90 @@
+package com.wizlit.path.utils;
+
+import com.wizlit.path.controller.PathController;
+import com.wizlit.path.controller.PointController;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.reactive.result.method.annotation.RequestMappingHandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessPolicyTableTest {
+
+    private static AccessPolicyTable table;
+
+    /**
+     * Handler mapping over the real controllers. The controllers are registered lazily; the mapping only needs
+     * their types, and resolving a handler gets a mock instance.
+     */
+    public static RequestMappingHandlerMapping controllerMapping() {
+        GenericApplicationContext context = new GenericApplicationContext();
+        for (Class<?> controller : new Class<?>[]{PathController.class, PointController.class}) {
+            RootBeanDefinition definition = new RootBeanDefinition(controller);
+            definition.setLazyInit(true);
+            definition.setInstanceSupplier(() -> Mockito.mock(controller));
+            context.registerBeanDefinition(controller.getSimpleName(), definition);
+        }
+        context.refresh();
+
+        RequestMappingHandlerMapping mapping = new RequestMappingHandlerMapping();
+        mapping.setApplicationContext(context);
+        mapping.afterPropertiesSet();
+        return mapping;
+    }
+
+    @BeforeAll
+    static void setUp() {
+        table = AccessPolicyTable.from(controllerMapping().getHandlerMethods(), "/actuator");
+    }
+
+    @Test
+    public void literalRoutesFollowAnnotation() {
+        assertThat(isPrivate(HttpMethod.GET, "/api/path")).isFalse();
+        assertThat(isPrivate(HttpMethod.PUT, "/api/path")).isTrue();
+        assertThat(isPrivate(HttpMethod.DELETE, "/api/path")).isTrue();
+        assertThat(isPrivate(HttpMethod.POST, "/api/point")).isTrue();
+        assertThat(isPrivate(HttpMethod.GET, "/api/path/changed")).isFalse();
+    }
+
+    @Test
+    public void templatedRoutesDependOnMethod() {
+        assertThat(isPrivate(HttpMethod.GET, "/api/point/12")).isFalse();
+        assertThat(isPrivate(HttpMethod.PUT, "/api/point/12")).isTrue();
+    }
+
+    @Test
+    public void unmappedRoutesArePublic() {
+        assertThat(isPrivate(HttpMethod.GET, "/actuator/health")).isFalse();
+        assertThat(isPrivate(HttpMethod.GET, "/actuator/health/readiness")).isFalse();
+        assertThat(isPrivate(HttpMethod.GET, "/swagger-ui/index.html")).isFalse();
+        assertThat(isPrivate(HttpMethod.PATCH, "/api/point/12")).isFalse();
+    }
+
+    @Test
+    public void actuatorEndpointsOtherThanHealthArePrivate() {
+        assertThat(isPrivate(HttpMethod.GET, "/actuator")).isTrue();
+        assertThat(isPrivate(HttpMethod.GET, "/actuator/metrics")).isTrue();
+        assertThat(isPrivate(HttpMethod.GET, "/actuator/metrics/path.calls")).isTrue();
+        assertThat(isPrivate(HttpMethod.GET, "/actuator/prometheus")).isTrue();
+        assertThat(isPrivate(HttpMethod.POST, "/actuator/flightrecording")).isTrue();
+        assertThat(isPrivate(HttpMethod.GET, "/actuator/info")).isTrue();
+        assertThat(isPrivate(HttpMethod.GET, "/actuator/healthz")).isTrue();
+    }
+
+    @Test
+    public void followsManagementBasePath() {
+        AccessPolicyTable managed = AccessPolicyTable.from(controllerMapping().getHandlerMethods(), "/manage/");
+        assertThat(managed.isPrivate(HttpMethod.GET, PathContainer.parsePath("/manage/prometheus"))).isTrue();
+        assertThat(managed.isPrivate(HttpMethod.GET, PathContainer.parsePath("/manage/health"))).isFalse();
+        assertThat(managed.isPrivate(HttpMethod.GET, PathContainer.parsePath("/actuator/prometheus"))).isFalse();
+    }
+
+    private static boolean isPrivate(HttpMethod method, String path) {
+        return table.isPrivate(method, PathContainer.parsePath(path));
+    }
+}
@@ -0,0 +1,216 @@
+package com.wizlit.path.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.AbstractReactiveTransactionManager;
+import org.springframework.transaction.reactive.GenericReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionSynchronizationManager;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GraphMutationSequencerTest {
+
+    private final AtomicInteger globalLocks = new AtomicInteger();
+    private final TransactionLog transactions = new TransactionLog();
+    private final GraphMutationSequencer sequencer = new GraphMutationSequencer(
+            graphId -> Mono.fromRunnable(globalLocks::incrementAndGet), TransactionalOperator.create(transactions), 16);
+
+    /**
+     * Records begin and end of every transaction; a commit can be held open to stand in for a slow round trip.
+     */
+    private static class TransactionLog extends AbstractReactiveTransactionManager {
+
+        final List<String> events = new CopyOnWriteArrayList<>();
+        volatile Mono<Void> commitDelay = Mono.empty();
+
+        @Override
+        protected Object doGetTransaction(TransactionSynchronizationManager synchronizationManager) {
+            return new Object();
+        }
+
+        @Override
+        protected Mono<Void> doBegin(TransactionSynchronizationManager synchronizationManager, Object transaction,
+                                     TransactionDefinition definition) {
+            return Mono.fromRunnable(() -> events.add("begin"));
+        }
+
+        @Override
+        protected Mono<Void> doCommit(TransactionSynchronizationManager synchronizationManager,
+                                      GenericReactiveTransaction status) {
+            return commitDelay.then(Mono.fromRunnable(() -> events.add("commit")));
+        }
+
+        @Override
+        protected Mono<Void> doRollback(TransactionSynchronizationManager synchronizationManager,
+                                        GenericReactiveTransaction status) {
+            return Mono.fromRunnable(() -> events.add("rollback"));
+        }
+    }
+
+    /**
+     * In-memory stand-in for the edge table: the backward path check and the insert are separate steps,
+     * with a delay in between, just like the two statements issued by the controller.
+     */
+    private final Map<Long, Set<Long>> edges = new HashMap<>();
+
+    private Mono<Boolean> connect(long origin, long destination) {
+        return connect(origin, destination, Duration.ofMillis(1));
+    }
+
+    private Mono<Boolean> connect(long origin, long destination, Duration checkToInsert) {
+        return Mono.fromCallable(() -> reachable(destination, origin))
+                .delayElement(checkToInsert)
+                .map(backward -> {
+                    if (backward) {
+                        return false;
+                    }
+                    synchronized (edges) {
+                        edges.computeIfAbsent(origin, k -> new HashSet<>()).add(destination);
+                    }
+                    return true;
+                });
+    }
+
+    private boolean reachable(long from, long to) {
+        synchronized (edges) {
+            Deque<Long> stack = new ArrayDeque<>(List.of(from));
+            Set<Long> seen = new HashSet<>();
+            while (!stack.isEmpty()) {
+                long current = stack.pop();
+                if (current == to) {
+                    return true;
+                }
+                if (seen.add(current)) {
+                    stack.addAll(edges.getOrDefault(current, Set.of()));
+                }
+            }
+            return false;
+        }
+    }
+
+    @Test
+    public void unsequencedOppositeConnectsCreateCycle() {
+        // both checks run before either insert, unless the test thread stalls for longer than the window
+        List<Boolean> results = Flux.merge(connect(1, 2, Duration.ofMillis(50)), connect(2, 1, Duration.ofMillis(50)))
+                .collectList().block();
+
+        assertThat(results).containsOnly(true);
+        assertThat(reachable(1, 2) && reachable(2, 1)).isTrue();
+    }
+
+    @Test
+    public void sequencedOppositeConnectsRejectOne() {
+        List<Boolean> results = Flux.merge(
+                sequencer.sequence("path", connect(1, 2)),
+                sequencer.sequence("path", connect(2, 1))
+        ).collectList().block();
+
+        assertThat(results).containsExactlyInAnyOrder(true, false);
+        assertThat(globalLocks.get()).isEqualTo(2);
+    }
+
+    @Test
+    public void concurrentRandomConnectsNeverCreateCycles() {
+        Random random = new Random(42);
+        List<long[]> operations = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            long origin = random.nextInt(12);
+            long destination = random.nextInt(12);
+            if (origin != destination) {
+                operations.add(new long[]{origin, destination});
+            }
+        }
+
+        Flux.fromIterable(operations)
+                .parallel(8)
+                .runOn(Schedulers.parallel())
+                .flatMap(op -> sequencer.sequence("path", connect(op[0], op[1])))
+                .sequential()
+                .blockLast(Duration.ofSeconds(30));
+
+        synchronized (edges) {
+            for (Map.Entry<Long, Set<Long>> entry : edges.entrySet()) {
+                for (Long destination : entry.getValue()) {
+                    assertThat(reachable(destination, entry.getKey()))
+                            .as("cycle through %d -> %d", entry.getKey(), destination)
+                            .isFalse();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void stripeIsReleasedOnlyAfterCommit() {
+        Sinks.Empty<Void> commit = Sinks.empty();
+        transactions.commitDelay = commit.asMono();
+        List<String> completed = new CopyOnWriteArrayList<>();
+
+        sequencer.sequence("path", Mono.fromCallable(() -> transactions.events.add("first")).thenReturn("first"))
+                .subscribe(completed::add);
+        transactions.commitDelay = Mono.empty();
+        sequencer.sequence("path", Mono.fromCallable(() -> transactions.events.add("second")).thenReturn("second"))
+                .subscribe(completed::add);
+
+        // the advisory lock is held until commit: the next mutation must not start before it
+        assertThat(transactions.events).containsExactly("begin", "first");
+        assertThat(completed).isEmpty();
+
+        commit.tryEmitEmpty();
+        assertThat(transactions.events).containsExactly("begin", "first", "commit", "begin", "second", "commit");
+        assertThat(completed).containsExactlyInAnyOrder("first", "second");
+    }
+
+    @Test
+    public void failedMutationRollsBackAndReleasesStripe() {
+        assertThat(sequencer.sequence("path", Mono.error(new IllegalStateException("insert failed")))
+                .onErrorResume(error -> Mono.just(error.getMessage()))
+                .block(Duration.ofSeconds(1))).isEqualTo("insert failed");
+        assertThat(sequencer.sequence("path", Mono.just("next")).block(Duration.ofSeconds(1))).isEqualTo("next");
+        assertThat(transactions.events).containsExactly("begin", "rollback", "begin", "commit");
+    }
+
+    @Test
+    public void cancelledWaiterDoesNotBlockStripe() {
+        Sinks.One<String> first = Sinks.one();
+        List<String> completed = new CopyOnWriteArrayList<>();
+
+        sequencer.sequence("path", first.asMono()).subscribe(completed::add);
+        Disposable cancelled = sequencer.sequence("path", Mono.just("cancelled")).subscribe(completed::add);
+        sequencer.sequence("path", Mono.just("third")).subscribe(completed::add);
+
+        cancelled.dispose();
+        assertThat(completed).isEmpty();
+
+        first.tryEmitValue("first");
+        assertThat(completed).containsExactlyInAnyOrder("first", "third");
+    }
+
+    @Test
+    public void otherGraphsProceedInParallel() {
+        Sinks.One<String> blocked = Sinks.one();
+        sequencer.sequence("course-a", blocked.asMono()).subscribe();
+
+        String other = Math.floorMod("course-a".hashCode(), 16) == Math.floorMod("course-b".hashCode(), 16)
+                ? "course-c"
+                : "course-b";
+        assertThat(sequencer.sequence(other, Mono.just("done")).block(Duration.ofSeconds(1))).isEqualTo("done");
+    }
+}
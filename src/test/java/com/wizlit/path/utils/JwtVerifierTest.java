@@ -0,0 +1,212 @@
+package com.wizlit.path.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.scheduling.WorkSchedulers;
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.test.StepVerifier;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class JwtVerifierTest {
+
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private LocalGoogleStub stub;
+    private JwtVerifier verifier;
+    private KeyPair rsa;
+    private KeyPair ec;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        KeyPairGenerator rsaGenerator = KeyPairGenerator.getInstance("RSA");
+        rsaGenerator.initialize(2048);
+        rsa = rsaGenerator.generateKeyPair();
+        KeyPairGenerator ecGenerator = KeyPairGenerator.getInstance("EC");
+        ecGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        ec = ecGenerator.generateKeyPair();
+
+        stub = new LocalGoogleStub().jwks(jwks(Map.of("rsa-1", rsa, "ec-1", ec)));
+        JwksKeySource keySource = new JwksKeySource(WebClient.builder(), mapper,
+                stub.oauthUrl() + "/certs", Duration.ofHours(1), Duration.ZERO);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        verifier = new JwtVerifier(keySource, mapper, new WorkSchedulers(2, 100, 1000, 2, 100, registry), registry,
+                "https://accounts.google.com", "path-client", Duration.ofSeconds(30), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    public void acceptsRs256AndEs256() throws Exception {
+        StepVerifier.create(verifier.verify(sign("RS256", "rsa-1", rsa.getPrivate(), claims("alice@wizlit.com", 3600))))
+                .expectNext("alice@wizlit.com")
+                .verifyComplete();
+        StepVerifier.create(verifier.verify(sign("ES256", "ec-1", ec.getPrivate(), claims("bob@wizlit.com", 3600))))
+                .expectNext("bob@wizlit.com")
+                .verifyComplete();
+    }
+
+    @Test
+    public void verifiedClaimsAreCached() throws Exception {
+        String token = sign("RS256", "rsa-1", rsa.getPrivate(), claims("alice@wizlit.com", 3600));
+        verifier.verify(token).block();
+        verifier.verify(token).block();
+
+        assertThat(stub.count("certs")).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectsTamperedPayload() throws Exception {
+        String[] parts = sign("RS256", "rsa-1", rsa.getPrivate(), claims("alice@wizlit.com", 3600)).split("\\.");
+        String forged = parts[0] + "." + encode(claims("mallory@wizlit.com", 3600)) + "." + parts[2];
+
+        expectError(forged, ErrorCode.INVALID_TOKEN);
+    }
+
+    @Test
+    public void rejectsUnsignedAndExpiredTokens() throws Exception {
+        String unsigned = encode(Map.of("alg", "none", "kid", "rsa-1")) + "." + encode(claims("alice@wizlit.com", 3600)) + ".";
+        expectError(unsigned, ErrorCode.INVALID_TOKEN);
+        expectError(sign("RS256", "rsa-1", rsa.getPrivate(), claims("alice@wizlit.com", -60)), ErrorCode.EXPIRED_TOKEN);
+    }
+
+    @Test
+    public void rejectsWrongAudience() throws Exception {
+        Map<String, Object> claims = Map.of(
+                "iss", "https://accounts.google.com",
+                "aud", "other-client",
+                "email", "alice@wizlit.com",
+                "exp", Instant.now().getEpochSecond() + 3600
+        );
+        expectError(sign("RS256", "rsa-1", rsa.getPrivate(), claims), ErrorCode.INVALID_TOKEN);
+    }
+
+    @Test
+    public void rejectsMissingAudience() throws Exception {
+        Map<String, Object> claims = Map.of(
+                "iss", "https://accounts.google.com",
+                "email", "alice@wizlit.com",
+                "exp", Instant.now().getEpochSecond() + 3600
+        );
+        expectError(sign("RS256", "rsa-1", rsa.getPrivate(), claims), ErrorCode.INVALID_TOKEN);
+    }
+
+    @Test
+    public void rejectsTokenNotValidYet() throws Exception {
+        Map<String, Object> notYet = new HashMap<>(claims("alice@wizlit.com", 3600));
+        notYet.put("nbf", Instant.now().getEpochSecond() + 120);
+        expectError(sign("RS256", "rsa-1", rsa.getPrivate(), notYet), ErrorCode.INVALID_TOKEN);
+
+        // within the clock skew
+        Map<String, Object> skewed = new HashMap<>(claims("alice@wizlit.com", 3600));
+        skewed.put("nbf", Instant.now().getEpochSecond() + 10);
+        StepVerifier.create(verifier.verify(sign("RS256", "rsa-1", rsa.getPrivate(), skewed)))
+                .expectNext("alice@wizlit.com")
+                .verifyComplete();
+    }
+
+    @Test
+    public void audienceIsRequired() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        assertThatThrownBy(() -> new JwtVerifier(null, mapper, new WorkSchedulers(2, 100, 1000, 2, 100, registry), registry,
+                "https://accounts.google.com", " ", Duration.ofSeconds(30), 100))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("jwtAudience");
+    }
+
+    @Test
+    public void picksUpRotatedKey() throws Exception {
+        verifier.verify(sign("RS256", "rsa-1", rsa.getPrivate(), claims("alice@wizlit.com", 3600))).block();
+
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+        generator.initialize(2048);
+        KeyPair rotated = generator.generateKeyPair();
+        stub.jwks(jwks(Map.of("rsa-2", rotated)));
+
+        StepVerifier.create(verifier.verify(sign("RS256", "rsa-2", rotated.getPrivate(), claims("carol@wizlit.com", 3600))))
+                .expectNext("carol@wizlit.com")
+                .verifyComplete();
+        assertThat(stub.count("certs")).isEqualTo(2);
+    }
+
+    private void expectError(String token, ErrorCode errorCode) {
+        StepVerifier.create(verifier.verify(token))
+                .expectErrorMatches(error -> error instanceof ApiException apiException
+                        && apiException.getErrorCode() == errorCode)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    private Map<String, Object> claims(String email, long expiresInSeconds) {
+        return Map.of(
+                "iss", "https://accounts.google.com",
+                "aud", List.of("path-client"),
+                "email", email,
+                "exp", Instant.now().getEpochSecond() + expiresInSeconds
+        );
+    }
+
+    private String sign(String alg, String kid, PrivateKey key, Map<String, Object> claims) throws Exception {
+        String signingInput = encode(Map.of("alg", alg, "kid", kid, "typ", "JWT")) + "." + encode(claims);
+        Signature signature = Signature.getInstance("RS256".equals(alg) ? "SHA256withRSA" : "SHA256withECDSAinP1363Format");
+        signature.initSign(key);
+        signature.update(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + "." + BASE64.encodeToString(signature.sign());
+    }
+
+    private String encode(Object json) throws Exception {
+        return BASE64.encodeToString(mapper.writeValueAsBytes(json));
+    }
+
+    private String jwks(Map<String, KeyPair> keys) throws Exception {
+        List<Map<String, String>> jwks = keys.entrySet().stream()
+                .map(entry -> entry.getValue().getPublic() instanceof RSAPublicKey rsaKey
+                        ? Map.of("kid", entry.getKey(), "kty", "RSA", "alg", "RS256",
+                                "n", unsigned(rsaKey.getModulus(), 0), "e", unsigned(rsaKey.getPublicExponent(), 0))
+                        : Map.of("kid", entry.getKey(), "kty", "EC", "crv", "P-256",
+                                "x", unsigned(((ECPublicKey) entry.getValue().getPublic()).getW().getAffineX(), 32),
+                                "y", unsigned(((ECPublicKey) entry.getValue().getPublic()).getW().getAffineY(), 32)))
+                .toList();
+        return mapper.writeValueAsString(Map.of("keys", jwks));
+    }
+
+    private static String unsigned(BigInteger value, int length) {
+        byte[] bytes = value.toByteArray();
+        if (bytes.length > 1 && bytes[0] == 0) {
+            bytes = Arrays.copyOfRange(bytes, 1, bytes.length);
+        }
+        if (bytes.length < length) {
+            byte[] padded = new byte[length];
+            System.arraycopy(bytes, 0, padded, length - bytes.length, bytes.length);
+            bytes = padded;
+        }
+        return BASE64.encodeToString(bytes);
+    }
+}
@@ -0,0 +1,124 @@
+package com.wizlit.path.utils;
+
+import com.wizlit.path.routing.ReadYourWritesFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RequestCoalescerTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RequestCoalescer coalescer = new RequestCoalescer(true, registry);
+
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private Sinks.One<String> upstream = Sinks.one();
+
+    // 느린 query 대신: emit 할 때까지 in flight
+    private Mono<String> read(String pointId) {
+        return coalescer.coalesce("point", () -> {
+            calls.incrementAndGet();
+            return upstream.asMono().doOnCancel(() -> cancelled.set(true));
+        }, "path", pointId);
+    }
+
+    @Test
+    public void concurrentReadsShareOneCall() {
+        List<String> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            read("1").subscribe(results::add);
+        }
+        assertThat(calls).hasValue(1);
+
+        upstream.tryEmitValue("point 1");
+
+        assertThat(results).containsExactly("point 1", "point 1", "point 1", "point 1", "point 1");
+        assertThat(registry.counter("path.requests.coalesced", "endpoint", "point").count()).isEqualTo(4);
+        assertThat(coalescer.inFlight()).isZero();
+
+        // 끝난 call 은 남지 않음: 다음 read 는 다시 query
+        upstream = Sinks.one();
+        read("1").subscribe(results::add);
+        upstream.tryEmitValue("point 1 again");
+        assertThat(calls).hasValue(2);
+        assertThat(results).last().isEqualTo("point 1 again");
+    }
+
+    @Test
+    public void otherArgumentsAndVersionsDoNotShare() {
+        read("1").subscribe();
+        read("2").subscribe();
+        read("1").contextWrite(context -> context.put(ReadYourWritesFilter.GRAPH_VERSION, 7L)).subscribe();
+        read("1").contextWrite(context -> context.put(ReadYourWritesFilter.GRAPH_VERSION, 7L)).subscribe();
+
+        assertThat(calls).hasValue(3);
+        assertThat(coalescer.inFlight()).isEqualTo(3);
+    }
+
+    @Test
+    public void errorReachesEveryWaiterAndIsNotKept() {
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+        read("1").subscribe(value -> {}, errors::add);
+        read("1").subscribe(value -> {}, errors::add);
+
+        upstream.tryEmitError(new IllegalStateException("connection lost"));
+
+        assertThat(errors).hasSize(2).allSatisfy(error -> assertThat(error).hasMessage("connection lost"));
+        assertThat(coalescer.inFlight()).isZero();
+
+        upstream = Sinks.one();
+        read("1").subscribe();
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void emptyReachesEveryWaiter() {
+        AtomicInteger completed = new AtomicInteger();
+        read("1").subscribe(value -> {}, error -> {}, completed::incrementAndGet);
+        read("1").subscribe(value -> {}, error -> {}, completed::incrementAndGet);
+
+        upstream.tryEmitEmpty();
+
+        assertThat(completed).hasValue(2);
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test
+    public void callIsCancelledOnlyWithoutWaiters() {
+        List<String> results = new CopyOnWriteArrayList<>();
+        Disposable first = read("1").subscribe();
+        Disposable second = read("1").subscribe(results::add);
+
+        first.dispose();
+        assertThat(cancelled).isFalse();
+        upstream.tryEmitValue("point 1");
+        assertThat(results).containsExactly("point 1");
+
+        upstream = Sinks.one();
+        Disposable third = read("1").subscribe();
+        Disposable fourth = read("1").subscribe();
+        third.dispose();
+        fourth.dispose();
+        assertThat(cancelled).isTrue();
+        assertThat(coalescer.inFlight()).isZero();
+        assertThat(second.isDisposed()).isTrue();
+    }
+
+    @Test
+    public void disabledCallsEveryTime() {
+        RequestCoalescer disabled = new RequestCoalescer(false, registry);
+        disabled.coalesce("point", () -> Mono.fromCallable(calls::incrementAndGet), "path", "1").subscribe();
+        disabled.coalesce("point", () -> Mono.fromCallable(calls::incrementAndGet), "path", "1").subscribe();
+
+        assertThat(calls).hasValue(2);
+    }
+}
@@ -0,0 +1,88 @@
+package com.wizlit.path.utils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.wizlit.path.exception.ApiException;
+import com.wizlit.path.exception.ErrorCode;
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+public class TokenVerifierTest {
+
+    private LocalGoogleStub stub;
+    private SimpleMeterRegistry registry;
+    private TokenVerifier verifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        stub = new LocalGoogleStub()
+                .user("ya-alice", "alice@wizlit.com")
+                .delay(200);
+        registry = new SimpleMeterRegistry();
+        verifier = new TokenVerifier(stub.googleService(), new ObjectMapper(), registry,
+                Duration.ofMinutes(5), Duration.ofMillis(500), 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        stub.close();
+    }
+
+    @Test
+    public void concurrentRequestsShareOneLookup() {
+        List<String> emails = Flux.range(0, 20)
+                .flatMap(i -> verifier.verifyGoogleToken("ya-alice"))
+                .collectList()
+                .block(Duration.ofSeconds(5));
+
+        assertThat(emails).hasSize(20).containsOnly("alice@wizlit.com");
+        assertThat(stub.count("userinfo")).isEqualTo(1);
+    }
+
+    @Test
+    public void cachedTokenSkipsRemoteCall() {
+        verifier.verifyGoogleToken("ya-alice").block();
+        verifier.verifyGoogleToken("ya-alice").block();
+
+        assertThat(stub.count("userinfo")).isEqualTo(1);
+        assertThat(registry.get("cache.gets").tag("cache", "googleTokens").tag("result", "hit")
+                .functionCounter().count()).isEqualTo(1.0);
+        assertThat(registry.get("cache.gets").tag("cache", "googleTokens").tag("result", "miss")
+                .functionCounter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    public void rejectedTokenIsCachedBriefly() {
+        for (int i = 0; i < 2; i++) {
+            StepVerifier.create(verifier.verifyGoogleToken("ya-mallory"))
+                    .expectErrorMatches(error -> error instanceof ApiException apiException
+                            && apiException.getErrorCode() == ErrorCode.INVALID_TOKEN)
+                    .verify(Duration.ofSeconds(5));
+        }
+        assertThat(stub.count("userinfo")).isEqualTo(1);
+
+        stub.user("ya-mallory", "mallory@wizlit.com");
+        await().atMost(Duration.ofSeconds(5))
+                .until(() -> "mallory@wizlit.com".equals(verifier.verifyGoogleToken("ya-mallory")
+                        .onErrorReturn("rejected")
+                        .block()));
+    }
+
+    @Test
+    public void cancelledRequestDoesNotCancelSharedLookup() {
+        verifier.verifyGoogleToken("ya-alice").subscribe().dispose();
+
+        assertThat(verifier.verifyGoogleToken("ya-alice").block(Duration.ofSeconds(5))).isEqualTo("alice@wizlit.com");
+        assertThat(stub.count("userinfo")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.wizlit.path.warmup;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.wizlit.path.generator.GraphGenerator;
+import com.wizlit.path.generator.GraphLoader;
+import com.wizlit.path.generator.GraphSpec;
+import com.wizlit.path.repository.TestDatabase;
+import com.wizlit.path.temp.LocalGoogleStub;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.server.WebFilter;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class WarmupTest {
+
+    // warm-up reads wait here until the test has seen the application not ready
+    private static final CountDownLatch RELEASE = new CountDownLatch(1);
+
+    private static TestDatabase database;
+    private static LocalGoogleStub google;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private Warmup warmup;
+
+    @Autowired
+    private MeterRegistry registry;
+
+    @BeforeAll
+    static void startDependencies() throws Exception {
+        database = TestDatabase.shared();
+        google = new LocalGoogleStub();
+        // the graph is loaded before the application starts, so before its own Flyway run
+        database.migrate();
+        try (Connection connection = database.connect()) {
+            GraphLoader.load(connection, GraphGenerator.generate(GraphSpec.ofPoints(30).withWidth(10)), true);
+        }
+    }
+
+    @AfterAll
+    static void stopDependencies() {
+        if (google != null) {
+            google.close();
+        }
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        database.register(registry);
+        registry.add("app.google.oauthUrl", () -> google.oauthUrl());
+        registry.add("app.google.driveUrl", () -> google.driveUrl());
+        registry.add("app.privateAccess.jwksUri", () -> google.oauthUrl() + "/certs");
+        registry.add("app.privateAccess.jwtAudience", () -> "path-test");
+        registry.add("app.logging.sampleRate", () -> "0");
+        registry.add("app.warmup.enabled", () -> "true");
+        registry.add("app.warmup.batchSize", () -> "10");
+        registry.add("app.warmup.maxDuration", () -> "5s");
+    }
+
+    @TestConfiguration
+    static class HoldWarmupReads {
+
+        @Bean
+        WebFilter holdWarmupReads() {
+            return (exchange, chain) -> exchange.getRequest().getPath().value().startsWith("/api/")
+                    ? Mono.fromCallable(() -> RELEASE.await(20, TimeUnit.SECONDS))
+                        .subscribeOn(Schedulers.boundedElastic())
+                        .then(chain.filter(exchange))
+                    : chain.filter(exchange);
+        }
+    }
+
+    @Test
+    public void readyOnceWarmedUp() throws Exception {
+        // warm-up is running and its reads are held: not ready yet
+        assertThat(warmup.state()).isEqualTo(Warmup.State.RUNNING);
+        assertThat(readiness().path("status").asText()).isEqualTo("OUT_OF_SERVICE");
+        assertThat(registry.find("path.warmup").timers()).isEmpty();
+
+        RELEASE.countDown();
+        long deadline = System.nanoTime() + Duration.ofSeconds(20).toNanos();
+        while (warmup.state() != Warmup.State.DONE) {
+            assertThat(System.nanoTime()).as("warm-up within 20 s").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+
+        assertThat(readiness().path("status").asText()).isEqualTo("UP");
+        assertThat(registry.get("path.warmup").timer().count()).isEqualTo(1);
+        assertThat(registry.find("path.warmup").tag("outcome", "failed").meters()).isEmpty();
+    }
+
+    private JsonNode readiness() {
+        return client.get().uri("/actuator/health/readiness")
+                .exchange()
+                .expectBody(JsonNode.class)
+                .returnResult()
+                .getResponseBody();
+    }
+}